@@ -0,0 +1,45 @@
+package coffeeshop.simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// One full 480-minute day with a single barista at load factor rho = arrivalRate / serviceRate.
+// Busier days have more queued customers and therefore more events per run.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DayBenchmark {
+    private static final double SERVICE_RATE = 1.0;
+
+    @Param({"0.5", "0.9", "0.99"})
+    private double loadFactor;
+
+    private Scenario scenario;
+    private long seed = 0;
+
+    @Setup
+    public void createScenario() {
+        scenario = new Scenario(loadFactor * SERVICE_RATE, SERVICE_RATE, 1, 480);
+    }
+
+    @Benchmark
+    public double fullDay() {
+        CoffeeShopEngine engine = scenario.newEngine(new SplitMix64(seed++));
+        engine.runToCompletion();
+        return engine.getAverageWaitTime();
+    }
+}
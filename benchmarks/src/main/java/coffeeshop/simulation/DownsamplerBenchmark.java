@@ -0,0 +1,50 @@
+package coffeeshop.simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// One chart redraw's downsampling: a series of the given length, wrapped in its ring buffer as
+// after a long run, reduced to one point per pixel of a 1500-pixel-wide chart. It has to fit
+// in a 16 ms frame at the chart's 2^20-point limit.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DownsamplerBenchmark {
+    private static final int THRESHOLD = 1500;
+
+    @Param({"65536", "1048576"})
+    private int points;
+
+    private TimeSeriesBuffer series;
+    private final double[] sampleX = new double[THRESHOLD];
+    private final double[] sampleY = new double[THRESHOLD];
+
+    @Setup
+    public void fillSeries() {
+        SplittableRandom random = new SplittableRandom(42);
+        series = new TimeSeriesBuffer(points);
+        for (int i = 0; i < points + points / 3; i++) {
+            series.add(i * 0.1, random.nextDouble() * 10);
+        }
+    }
+
+    @Benchmark
+    public int lttb() {
+        return Downsampler.lttb(series, 0, series.size(), THRESHOLD, sampleX, sampleY);
+    }
+}
@@ -0,0 +1,114 @@
+package coffeeshop.simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Classic "hold" benchmark: the list is pre-filled to a fixed number of pending events,
+// then each operation removes the earliest event and schedules a new one a random
+// exponential distance in the future, as the engine does. Compares the engine's primitive
+// EventList with the boxed PriorityQueue it replaced.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EventListBenchmark {
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    private int pendingEvents;
+
+    @Param({"EVENT_LIST", "PRIORITY_QUEUE"})
+    private String implementation;
+
+    private HoldModel model;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        random = new SplittableRandom(42);
+        model = implementation.equals("EVENT_LIST") ? new PrimitiveQueue() : new BoxedQueue();
+        model.fill(pendingEvents, random);
+    }
+
+    @Benchmark
+    public double hold() {
+        return model.hold(random);
+    }
+
+    private static double exponential(SplittableRandom random) {
+        return -Math.log(1 - random.nextDouble());
+    }
+
+    private interface HoldModel {
+        void fill(int size, SplittableRandom random);
+
+        double hold(SplittableRandom random);
+    }
+
+    // Mirrors the boxed event previously used by the engine.
+    private static final class BoxedEvent implements Comparable<BoxedEvent> {
+        private final double time;
+        private final EventType type;
+
+        BoxedEvent(double time, EventType type) {
+            this.time = time;
+            this.type = type;
+        }
+
+        @Override
+        public int compareTo(BoxedEvent other) {
+            return Double.compare(this.time, other.time);
+        }
+    }
+
+    private static final class BoxedQueue implements HoldModel {
+        private final PriorityQueue<BoxedEvent> queue = new PriorityQueue<>();
+
+        @Override
+        public void fill(int size, SplittableRandom random) {
+            for (int i = 0; i < size; i++) {
+                queue.add(new BoxedEvent(exponential(random) * size, EventType.CUSTOMER_ARRIVAL));
+            }
+        }
+
+        @Override
+        public double hold(SplittableRandom random) {
+            BoxedEvent event = queue.poll();
+            queue.add(new BoxedEvent(event.time + exponential(random) * queue.size(), event.type));
+            return event.time;
+        }
+    }
+
+    private static final class PrimitiveQueue implements HoldModel {
+        private final EventList queue = new EventList();
+
+        @Override
+        public void fill(int size, SplittableRandom random) {
+            for (int i = 0; i < size; i++) {
+                queue.add(exponential(random) * size, EventType.CUSTOMER_ARRIVAL.ordinal(), -1);
+            }
+        }
+
+        @Override
+        public double hold(SplittableRandom random) {
+            int type = queue.poll();
+            double time = queue.getPolledTime();
+            queue.add(time + exponential(random) * queue.size(), type, queue.getPolledEntity());
+            return time;
+        }
+    }
+}
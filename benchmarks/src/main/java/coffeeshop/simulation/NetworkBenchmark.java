@@ -0,0 +1,95 @@
+package coffeeshop.simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost per event of the single-queue engine against the network engine with one station and
+// with ten. The ten stations branch and rejoin, two of them share a pool of machines, and one
+// is LIFO. Every station has four servers at 80% load, so queues form everywhere.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NetworkBenchmark {
+    private static final int EVENTS_PER_CALL = 1024;
+    private static final int WARMUP_EVENTS = 1_000_000;
+    private static final int SERVERS = 4;
+    private static final double LOAD = 0.8;
+    private static final double ARRIVAL_RATE = 3.0;
+
+    @Param({"SINGLE_QUEUE", "ONE_STATION", "TEN_STATIONS"})
+    private String model;
+
+    private CoffeeShopEngine engine;
+    private NetworkSimulation simulation;
+
+    @Setup
+    public void startRun() {
+        if (model.equals("SINGLE_QUEUE")) {
+            engine = new CoffeeShopEngine(42);
+            engine.setServiceRate(ARRIVAL_RATE / (LOAD * SERVERS));
+            engine.setNumBaristas(SERVERS);
+            engine.setArrivalRate(ARRIVAL_RATE);
+            engine.setSimulationDuration(Double.MAX_VALUE);
+            engine.executeSteps(WARMUP_EVENTS);
+            return;
+        }
+        int stations = model.equals("ONE_STATION") ? 1 : 10;
+        // Sized in two passes: the first finds each station's visits per customer, the second
+        // sets its service rate from them.
+        double[] visits = network(stations, null).visitRatios();
+        simulation = new NetworkSimulation(network(stations, visits), new SplitMix64(42), Double.MAX_VALUE);
+        simulation.executeSteps(WARMUP_EVENTS);
+    }
+
+    private static QueueingNetwork network(int stations, double[] visits) {
+        QueueingNetwork network = new QueueingNetwork();
+        int machines = network.addResource("machine", 2 * SERVERS);
+        String[] names = {"door", "order", "pay", "espresso", "tea", "drip", "milk", "condiments", "pickup", "seating"};
+        for (int station = 0; station < stations; station++) {
+            double rate = visits == null ? 1 : ARRIVAL_RATE * visits[station] / (LOAD * SERVERS);
+            boolean machine = names[station].equals("espresso") || names[station].equals("milk");
+            network.addStation(names[station], SERVERS, rate, ServiceDistribution.exponential(),
+                    names[station].equals("pickup") ? QueueDiscipline.LIFO : QueueDiscipline.FIFO,
+                    machine ? machines : -1);
+        }
+        network.addArrivals(0, ARRIVAL_RATE);
+        if (stations == 1) {
+            return network;
+        }
+        network.addRoute(0, 1, 1);
+        network.addRoute(1, 2, 1);
+        network.addRoute(2, 3, 0.5);
+        network.addRoute(2, 4, 0.2);
+        network.addRoute(2, 5, 0.3);
+        network.addRoute(3, 6, 0.6);
+        network.addRoute(3, 8, 0.4);
+        network.addRoute(4, 8, 1);
+        network.addRoute(5, 7, 0.5);
+        network.addRoute(5, 8, 0.5);
+        network.addRoute(6, 8, 1);
+        network.addRoute(7, 8, 1);
+        network.addRoute(8, 9, 0.3);
+        return network;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS_PER_CALL)
+    public int events() {
+        return engine != null ? engine.executeSteps(EVENTS_PER_CALL) : simulation.executeSteps(EVENTS_PER_CALL);
+    }
+}
@@ -0,0 +1,140 @@
+package coffeeshop.simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Patience timers as customers see them: a fixed number are pending, and each operation starts
+// a timer for a new customer and cancels the timer of a random waiting customer, as starting
+// their service would. Time moves forward by one arrival per operation and timers that come
+// due are fired. Compares the timer wheel with putting every timer on the event list.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PatienceTimerBenchmark {
+    private static final double MEAN_PATIENCE = 5;
+
+    @Param({"1000", "100000", "1000000"})
+    private int pendingTimers;
+
+    @Param({"TIMER_WHEEL", "EVENT_LIST"})
+    private String implementation;
+
+    private TimerModel model;
+    private SplittableRandom random;
+    private int[] handles; // -1 when the customer's timer has fired
+    private double now = 0;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        random = new SplittableRandom(42);
+        model = implementation.equals("TIMER_WHEEL") ? new WheelTimers() : new ListTimers();
+        handles = new int[pendingTimers];
+        for (int i = 0; i < pendingTimers; i++) {
+            handles[i] = model.add(now + exponential() * MEAN_PATIENCE, i);
+        }
+    }
+
+    @Benchmark
+    public int startAndCancel() {
+        now += MEAN_PATIENCE / pendingTimers;
+        int fired = model.fireUntil(now);
+        int customer = random.nextInt(pendingTimers);
+        if (handles[customer] != -1) {
+            model.cancel(handles[customer]);
+        }
+        handles[customer] = model.add(now + exponential() * MEAN_PATIENCE, customer);
+        return fired;
+    }
+
+    private double exponential() {
+        return -Math.log(1 - random.nextDouble());
+    }
+
+    private interface TimerModel {
+        int add(double time, int customer);
+
+        void cancel(int handle);
+
+        int fireUntil(double time);
+    }
+
+    // Timers released from the wheel wait on a small event list until their exact time; their
+    // handles are stored as -2 - handle.
+    private final class WheelTimers implements TimerModel {
+        private final TimerWheel wheel = new TimerWheel(1024);
+        private final EventList due = new EventList();
+
+        @Override
+        public int add(double time, int customer) {
+            int handle = wheel.add(time, customer);
+            return handle >= 0 ? handle : -2 - due.add(time, 0, customer);
+        }
+
+        @Override
+        public void cancel(int handle) {
+            if (handle >= 0) {
+                wheel.cancel(handle);
+            } else {
+                due.cancel(-2 - handle);
+            }
+        }
+
+        @Override
+        public int fireUntil(double time) {
+            while (wheel.nextExpiryBound() <= time) {
+                int count = wheel.advance();
+                for (int i = 0; i < count; i++) {
+                    handles[wheel.getDueEntity(i)] = -2 - due.add(wheel.getDueTime(i), 0, wheel.getDueEntity(i));
+                }
+            }
+            int fired = 0;
+            while (!due.isEmpty() && due.peekTime() <= time) {
+                due.poll();
+                handles[due.getPolledEntity()] = -1;
+                fired++;
+            }
+            return fired;
+        }
+    }
+
+    private final class ListTimers implements TimerModel {
+        private final EventList list = new EventList();
+
+        @Override
+        public int add(double time, int customer) {
+            return list.add(time, 0, customer);
+        }
+
+        @Override
+        public void cancel(int handle) {
+            list.cancel(handle);
+        }
+
+        @Override
+        public int fireUntil(double time) {
+            int fired = 0;
+            while (!list.isEmpty() && list.peekTime() <= time) {
+                list.poll();
+                handles[list.getPolledEntity()] = -1;
+                fired++;
+            }
+            return fired;
+        }
+    }
+}
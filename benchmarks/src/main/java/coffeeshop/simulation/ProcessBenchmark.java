@@ -0,0 +1,52 @@
+package coffeeshop.simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// An hour in which the given number of customers arrive and all of them are still waiting at
+// closing time, so that many customer processes are alive at once, each parked on its own
+// thread. Needs virtual threads (Java 21 or later) for the million-customer case; on older
+// runtimes every customer holds a platform thread, so cases above PLATFORM_THREAD_LIMIT fail
+// in setup with a message instead of exhausting memory or threads.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProcessBenchmark {
+    private static final int PLATFORM_THREAD_LIMIT = 10_000;
+
+    @Param({"10000", "1000000"})
+    private int customers;
+
+    private long seed = 0;
+
+    @Setup
+    public void checkThreads() {
+        if (!ProcessScheduler.usesVirtualThreads() && customers > PLATFORM_THREAD_LIMIT) {
+            throw new IllegalStateException("Skipping " + customers + " customers: this runtime has no virtual "
+                    + "threads, and more than " + PLATFORM_THREAD_LIMIT + " platform threads would not fit. "
+                    + "Run on Java 21 or later.");
+        }
+    }
+
+    // The one barista's first order outlasts the hour, so nobody is served.
+    @Benchmark
+    public int liveCustomers() {
+        ProcessShop shop = new ProcessShop(new Scenario(customers / 60.0, 1e-9, 1, 60));
+        shop.run(new SplitMix64(seed++));
+        return shop.getScheduler().getMaxLiveCount();
+    }
+}
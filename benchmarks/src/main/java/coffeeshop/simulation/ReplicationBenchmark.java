@@ -0,0 +1,35 @@
+package coffeeshop.simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Replications per second through the parallel replication runner on all available cores.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplicationBenchmark {
+    private static final int REPLICATIONS = 256;
+
+    private final Scenario scenario = new Scenario(0.9, 1.0, 1, 480);
+    private final ReplicationRunner runner = new ReplicationRunner();
+    private long seed = 0;
+
+    @Benchmark
+    @OperationsPerInvocation(REPLICATIONS)
+    public ReplicationReport replications() {
+        return runner.run(scenario, REPLICATIONS, seed++);
+    }
+}
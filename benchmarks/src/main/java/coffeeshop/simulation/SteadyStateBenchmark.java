@@ -0,0 +1,52 @@
+package coffeeshop.simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost per event of a run that has been going long enough for its queue and event list to
+// reach their working size. Run with -prof gc: gc.alloc.rate.norm should be 0 B/op, since
+// customers, the queue and baristas live in reused primitive arrays.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SteadyStateBenchmark {
+    private static final int EVENTS_PER_CALL = 1024;
+    private static final int WARMUP_EVENTS = 1_000_000;
+
+    @Param({"1", "32"})
+    private int baristas;
+
+    private CoffeeShopEngine engine;
+
+    // At 90% load so the queue forms and drains throughout. The day never ends within a run.
+    @Setup
+    public void startRun() {
+        engine = new CoffeeShopEngine(42);
+        engine.setServiceRate(1.0);
+        engine.setNumBaristas(baristas);
+        engine.setArrivalRate(0.9 * baristas);
+        engine.setSimulationDuration(Double.MAX_VALUE);
+        engine.executeSteps(WARMUP_EVENTS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS_PER_CALL)
+    public int events() {
+        return engine.executeSteps(EVENTS_PER_CALL);
+    }
+}
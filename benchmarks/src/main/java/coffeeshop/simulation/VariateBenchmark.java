@@ -0,0 +1,51 @@
+package coffeeshop.simulation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Cost of one inter-arrival or service time draw, by sampling method and service distribution.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VariateBenchmark {
+    @Param({"ZIGGURAT", "INVERSION"})
+    private VariateMethod method;
+
+    @Param({"exponential", "lognormal:0.5", "erlang:3"})
+    private String distribution;
+
+    private CoffeeShopEngine engine;
+    private int customerId = 0;
+
+    @Setup
+    public void createEngine() throws IOException {
+        engine = new CoffeeShopEngine(42);
+        engine.setVariateMethod(method);
+        engine.setServiceDistribution(ServiceDistribution.parse(distribution));
+    }
+
+    @Benchmark
+    public double interArrivalTime() {
+        return engine.generateInterArrivalTime();
+    }
+
+    @Benchmark
+    public double serviceTime() {
+        return engine.generateServiceTime(customerId++);
+    }
+}
@@ -0,0 +1,79 @@
+package coffeeshop.simulation;
+
+// Walker's alias method: draws one of a fixed set of outcomes with given probabilities in O(1),
+// from a single uniform. The uniform picks a column and, within it, whether to take the
+// column's own outcome or its alias. Built with Vose's method, which needs no sorting.
+final class AliasTable {
+    private final int[] outcomes;
+    private final int[] aliases;
+    private final double[] thresholds; // take the column's own outcome below this
+
+    // Probabilities must be positive; they are normalized to sum to 1.
+    AliasTable(int[] outcomes, double[] probabilities) {
+        int n = outcomes.length;
+        if (n == 0 || probabilities.length != n) {
+            throw new IllegalArgumentException("Need one probability per outcome");
+        }
+        double total = 0;
+        for (double probability : probabilities) {
+            if (!(probability > 0)) {
+                throw new IllegalArgumentException("Probabilities must be positive");
+            }
+            total += probability;
+        }
+        this.outcomes = outcomes.clone();
+        aliases = new int[n];
+        thresholds = new double[n];
+
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = probabilities[i] * n / total;
+            if (scaled[i] < 1) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            thresholds[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] -= 1 - scaled[less];
+            if (scaled[more] < 1) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Whatever is left is 1 up to rounding.
+        while (largeCount > 0) {
+            int column = large[--largeCount];
+            thresholds[column] = 1;
+            aliases[column] = column;
+        }
+        while (smallCount > 0) {
+            int column = small[--smallCount];
+            thresholds[column] = 1;
+            aliases[column] = column;
+        }
+    }
+
+    int size() {
+        return outcomes.length;
+    }
+
+    // A table with one outcome draws nothing, so deterministic routes cost no random numbers.
+    int sample(SplitMix64 random) {
+        if (outcomes.length == 1) {
+            return outcomes[0];
+        }
+        double u = random.nextDouble() * outcomes.length;
+        int column = (int) u;
+        return outcomes[u - column < thresholds[column] ? column : aliases[column]];
+    }
+}
@@ -0,0 +1,77 @@
+package coffeeshop.simulation;
+
+import java.util.Arrays;
+
+// Piecewise-constant arrival rate: one rate per period (an hour by default) from the start of
+// the day. After the last period the last rate continues.
+public final class ArrivalProfile {
+    private final double periodLength;
+    private final double[] rates;
+    private final double maxRate;
+
+    public ArrivalProfile(double periodLength, double... rates) {
+        if (periodLength <= 0) {
+            throw new IllegalArgumentException("Period length must be positive");
+        }
+        if (rates.length == 0) {
+            throw new IllegalArgumentException("At least one period is required");
+        }
+        double max = 0;
+        for (double rate : rates) {
+            if (rate < 0) {
+                throw new IllegalArgumentException("Arrival rates cannot be negative");
+            }
+            max = Math.max(max, rate);
+        }
+        this.periodLength = periodLength;
+        this.rates = rates.clone();
+        this.maxRate = max;
+    }
+
+    // Parses comma-separated hourly rates in customers per minute, e.g. "0.5,1.2,2.0,1.0".
+    public static ArrivalProfile parseHourly(String text) {
+        String[] parts = text.split(",");
+        double[] rates = new double[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            rates[i] = Double.parseDouble(parts[i].trim());
+        }
+        return new ArrivalProfile(60, rates);
+    }
+
+    public double getPeriodLength() {
+        return periodLength;
+    }
+
+    public int getPeriodCount() {
+        return rates.length;
+    }
+
+    double[] getRates() {
+        return rates.clone();
+    }
+
+    public double getRate(int period) {
+        return rates[Math.min(period, rates.length - 1)];
+    }
+
+    public double getRateAt(double time) {
+        return getRate(periodOf(time));
+    }
+
+    public int periodOf(double time) {
+        return (int) Math.max(0, Math.min(time / periodLength, rates.length - 1));
+    }
+
+    public double getMaxRate() {
+        return maxRate;
+    }
+
+    public double getDuration() {
+        return periodLength * rates.length;
+    }
+
+    @Override
+    public String toString() {
+        return "rates=" + Arrays.toString(rates) + " per " + periodLength + " min";
+    }
+}
@@ -0,0 +1,114 @@
+package coffeeshop.simulation;
+
+import java.util.Arrays;
+
+// Every barista hired during a run, as parallel primitive arrays indexed by barista id, plus
+// the ids currently on shift. Ids are never reused within a run so that pending completion
+// events always resolve to the barista that scheduled them.
+final class BaristaTable {
+    private int[] customers; // customer store slot being served, -1 when idle
+    private double[] serviceStartTimes;
+    private double[] busyTimes; // total minutes spent serving
+    private int[] completionHandles;
+    private int hired = 0;
+
+    private int[] onShift; // order carries no meaning
+    private int onShiftCount = 0;
+
+    BaristaTable(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        customers = new int[capacity];
+        serviceStartTimes = new double[capacity];
+        busyTimes = new double[capacity];
+        completionHandles = new int[capacity];
+        onShift = new int[capacity];
+    }
+
+    // Hires a new idle barista and returns their id. They are not on shift yet.
+    int hire() {
+        if (hired == customers.length) {
+            grow();
+        }
+        int id = hired++;
+        customers[id] = -1;
+        serviceStartTimes[id] = 0;
+        busyTimes[id] = 0;
+        completionHandles[id] = -1;
+        return id;
+    }
+
+    int getHiredCount() {
+        return hired;
+    }
+
+    boolean isBusy(int id) {
+        return customers[id] >= 0;
+    }
+
+    int getCustomer(int id) {
+        return customers[id];
+    }
+
+    double getServiceStartTime(int id) {
+        return serviceStartTimes[id];
+    }
+
+    double getBusyTime(int id) {
+        return busyTimes[id];
+    }
+
+    int getCompletionHandle(int id) {
+        return completionHandles[id];
+    }
+
+    void setBusy(int id, int customer, double startTime, int completionHandle) {
+        customers[id] = customer;
+        serviceStartTimes[id] = startTime;
+        completionHandles[id] = completionHandle;
+    }
+
+    void setIdle(int id, double endTime) {
+        busyTimes[id] += endTime - serviceStartTimes[id];
+        customers[id] = -1;
+        completionHandles[id] = -1;
+    }
+
+    // Used when restoring a checkpoint.
+    void restore(int id, int customer, double startTime, double busyTime, int completionHandle) {
+        customers[id] = customer;
+        serviceStartTimes[id] = startTime;
+        busyTimes[id] = busyTime;
+        completionHandles[id] = completionHandle;
+    }
+
+    int getOnShiftCount() {
+        return onShiftCount;
+    }
+
+    int getOnShift(int index) {
+        return onShift[index];
+    }
+
+    void addOnShift(int id) {
+        onShift[onShiftCount++] = id;
+    }
+
+    // Swap-removes from the on-shift list.
+    void removeOnShift(int index) {
+        onShift[index] = onShift[--onShiftCount];
+    }
+
+    void clear() {
+        hired = 0;
+        onShiftCount = 0;
+    }
+
+    private void grow() {
+        int capacity = customers.length * 2;
+        customers = Arrays.copyOf(customers, capacity);
+        serviceStartTimes = Arrays.copyOf(serviceStartTimes, capacity);
+        busyTimes = Arrays.copyOf(busyTimes, capacity);
+        completionHandles = Arrays.copyOf(completionHandles, capacity);
+        onShift = Arrays.copyOf(onShift, capacity);
+    }
+}
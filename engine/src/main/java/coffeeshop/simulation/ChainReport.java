@@ -0,0 +1,130 @@
+package coffeeshop.simulation;
+
+// End-of-run results of every store in a chain, with chain-wide totals.
+public final class ChainReport {
+    private final int[] customers;
+    private final int[] served;
+    private final int[] overflowed;
+    private final int[] transferred;
+    private final double[] averageWaits;
+    private final double[] utilizations;
+    private final RunningStatistics waitStatistics = new RunningStatistics();
+    private final LogHistogram waitHistogram = new LogHistogram();
+    private final int windows;
+    private final int partitions;
+    private final long elapsedNanos;
+
+    ChainReport(CoffeeShopEngine[] stores, int windows, int partitions, long elapsedNanos) {
+        int count = stores.length;
+        customers = new int[count];
+        served = new int[count];
+        overflowed = new int[count];
+        transferred = new int[count];
+        averageWaits = new double[count];
+        utilizations = new double[count];
+        for (int i = 0; i < count; i++) {
+            CoffeeShopEngine store = stores[i];
+            customers[i] = store.getCustomerCount();
+            served[i] = store.getServedCount();
+            overflowed[i] = store.getOverflowCount();
+            transferred[i] = store.getTransferCount();
+            averageWaits[i] = store.getAverageWaitTime();
+            utilizations[i] = store.getAverageUtilization();
+            waitStatistics.merge(store.getWaitStatistics());
+            waitHistogram.merge(store.getWaitHistogram());
+        }
+        this.windows = windows;
+        this.partitions = partitions;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getStoreCount() {
+        return customers.length;
+    }
+
+    public int getCustomers(int store) {
+        return customers[store];
+    }
+
+    public int getServed(int store) {
+        return served[store];
+    }
+
+    public int getOverflowed(int store) {
+        return overflowed[store];
+    }
+
+    public int getTransferred(int store) {
+        return transferred[store];
+    }
+
+    public double getAverageWait(int store) {
+        return averageWaits[store];
+    }
+
+    public double getUtilization(int store) {
+        return utilizations[store];
+    }
+
+    public long getTotalServed() {
+        return sum(served);
+    }
+
+    public long getTotalOverflowed() {
+        return sum(overflowed);
+    }
+
+    public long getTotalTransferred() {
+        return sum(transferred);
+    }
+
+    // Mean wait over every customer served anywhere in the chain.
+    public double getAverageWait() {
+        return waitStatistics.getMean();
+    }
+
+    public double getWaitPercentile(double quantile) {
+        return waitHistogram.quantile(quantile);
+    }
+
+    // Synchronization barriers the run needed.
+    public int getWindows() {
+        return windows;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    private static long sum(int[] values) {
+        long total = 0;
+        for (int value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        int busiest = 0;
+        for (int i = 1; i < customers.length; i++) {
+            if (averageWaits[i] > averageWaits[busiest]) {
+                busiest = i;
+            }
+        }
+        text.append(String.format("Stores: %d | Served: %d | Avg wait: %.2f min | P90 wait: %.2f min%n",
+                customers.length, getTotalServed(), getAverageWait(), getWaitPercentile(0.9)));
+        text.append(String.format("Walked to a neighbour: %d (%.2f%% of arrivals)%n", getTotalOverflowed(),
+                100.0 * getTotalOverflowed() / Math.max(1, sum(customers) - getTotalTransferred() + getTotalOverflowed())));
+        text.append(String.format("Longest average wait: store %d, %.2f min at %.1f%% utilization "
+                        + "(%d served, %d sent away, %d taken in)%n",
+                busiest, averageWaits[busiest], utilizations[busiest], served[busiest], overflowed[busiest],
+                transferred[busiest]));
+        return text.toString();
+    }
+}
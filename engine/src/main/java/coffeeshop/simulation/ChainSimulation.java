@@ -0,0 +1,153 @@
+package coffeeshop.simulation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// A chain of stores on a ring, simulated together. Each store is its own engine with its own
+// clock and event list. A customer who finds their store's queue full walks to one of the two
+// neighbouring stores and arrives there walkTime later; that is the only way stores interact.
+//
+// Synchronization is conservative, with the walk time as lookahead: if the earliest pending
+// event anywhere is at t, nothing a store does from t on can reach another store before
+// t + walkTime. So every store runs up to just before that horizon independently, in parallel.
+// Then the walkers sent during the window are delivered at the barrier, in store order. Each
+// store has its own random streams, so the results do not depend on the partition count or on
+// thread scheduling.
+public class ChainSimulation {
+    private final ForkJoinPool pool;
+    private final Scenario[] scenarios;
+    private final double walkTime;
+    private final int overflowThreshold;
+
+    public ChainSimulation(List<Scenario> stores, double walkTime, int overflowThreshold) {
+        this(ForkJoinPool.commonPool(), stores, walkTime, overflowThreshold);
+    }
+
+    public ChainSimulation(ForkJoinPool pool, List<Scenario> stores, double walkTime, int overflowThreshold) {
+        if (stores.isEmpty()) {
+            throw new IllegalArgumentException("At least one store is required");
+        }
+        if (!(walkTime > 0)) {
+            throw new IllegalArgumentException("Walk time must be positive");
+        }
+        if (overflowThreshold < 0) {
+            throw new IllegalArgumentException("Overflow queue length must not be negative");
+        }
+        for (Scenario store : stores) {
+            if (store.getSimulationDuration() != stores.get(0).getSimulationDuration()) {
+                throw new IllegalArgumentException("All stores must run for the same duration");
+            }
+        }
+        this.pool = pool;
+        this.scenarios = stores.toArray(new Scenario[0]);
+        this.walkTime = walkTime;
+        this.overflowThreshold = overflowThreshold;
+    }
+
+    public int getStoreCount() {
+        return scenarios.length;
+    }
+
+    public double getWalkTime() {
+        return walkTime;
+    }
+
+    // Runs the chain with the stores split into contiguous partitions, one fork-join task each
+    // per window.
+    public ChainReport run(long seed, int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("At least one partition is required");
+        }
+        int count = scenarios.length;
+        int tasks = Math.min(partitions, count);
+        SplitMix64[] streams = ReplicationRunner.streams(seed, count);
+        Store[] stores = new Store[count];
+        for (int i = 0; i < count; i++) {
+            stores[i] = new Store(i, scenarios[i].newEngine(streams[i]), streams[i].split());
+        }
+
+        long start = System.nanoTime();
+        double duration = scenarios[0].getSimulationDuration();
+        int windows = 0;
+        double time = nextEventTime(stores);
+        while (time < duration) {
+            double horizon = Math.nextDown(time + walkTime);
+            pool.submit(() -> IntStream.range(0, tasks).parallel().forEach(task -> {
+                for (int i = task * count / tasks; i < (task + 1) * count / tasks; i++) {
+                    stores[i].engine.runUntil(horizon, Integer.MAX_VALUE);
+                }
+            })).join();
+            for (Store store : stores) {
+                store.deliver(stores);
+            }
+            windows++;
+            time = nextEventTime(stores);
+        }
+        // Nothing is left before closing time anywhere; let every clock reach it.
+        for (Store store : stores) {
+            store.engine.runToCompletion();
+        }
+        return new ChainReport(engines(stores), windows, tasks, System.nanoTime() - start);
+    }
+
+    private static double nextEventTime(Store[] stores) {
+        double time = Double.POSITIVE_INFINITY;
+        for (Store store : stores) {
+            time = Math.min(time, store.engine.getNextEventTime());
+        }
+        return time;
+    }
+
+    private static CoffeeShopEngine[] engines(Store[] stores) {
+        CoffeeShopEngine[] engines = new CoffeeShopEngine[stores.length];
+        for (int i = 0; i < stores.length; i++) {
+            engines[i] = stores[i].engine;
+        }
+        return engines;
+    }
+
+    // One store and the walkers it has sent out during the current window.
+    private final class Store implements OverflowListener {
+        private final int index;
+        private final CoffeeShopEngine engine;
+        private final SplitMix64 routing;
+        private double[] outTimes = new double[16];
+        private int[] outTargets = new int[16];
+        private int outCount = 0;
+
+        Store(int index, CoffeeShopEngine engine, SplitMix64 routing) {
+            this.index = index;
+            this.engine = engine;
+            this.routing = routing;
+            engine.setReportingInterval(60);
+            // A store with no neighbours has nowhere to send anyone.
+            if (scenarios.length > 1) {
+                engine.setOverflowThreshold(overflowThreshold);
+                engine.setOverflowListener(this);
+            }
+            engine.initialize();
+        }
+
+        @Override
+        public void onOverflow(double time) {
+            int count = scenarios.length;
+            int target = routing.nextInt(2) == 0 ? (index + count - 1) % count : (index + 1) % count;
+            if (outCount == outTimes.length) {
+                outTimes = Arrays.copyOf(outTimes, outCount * 2);
+                outTargets = Arrays.copyOf(outTargets, outCount * 2);
+            }
+            outTimes[outCount] = time + walkTime;
+            outTargets[outCount] = target;
+            outCount++;
+        }
+
+        void deliver(Store[] stores) {
+            for (int i = 0; i < outCount; i++) {
+                stores[outTargets[i]].engine.scheduleTransferArrival(outTimes[i]);
+            }
+            outCount = 0;
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package coffeeshop.simulation;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Command-line entry point that runs one scenario headless, as fast as the CPU allows.
+// Usage: CoffeeShopBatch [--arrival-rate 0.5] [--service-rate 1.0] [--baristas 1]
+//                        [--duration 480] [--seed n] [--replications n] [--customer-log file.csv]
+//                        [--dispatch first-free|least-utilized|random]
+//                        [--checkpoint-at minutes] [--checkpoint file] [--restore file]
+//                        [--fork-baristas n,n,...] [--trace file] [--replay file]
+//                        [--compare-baristas n] [--variance-reduction none|crn|antithetic]
+//                        [--target-half-width minutes]
+//                        [--service-distribution exponential|lognormal:cv|erlang:k|empirical:file]
+//                        [--variates ziggurat|inversion] [--metrics file.json|-]
+//                        [--balk-queue n] [--patience minutes]
+//                        [--steady-state relative-precision] [--max-customers n]
+public class CoffeeShopBatch {
+    private static final String NO_ANALYTIC_MODEL =
+            "Erlang C does not apply: it has no balking or reneging customers";
+
+    public static void main(String[] args) throws IOException {
+        double arrivalRate = 0.5;
+        double serviceRate = 1.0;
+        int numBaristas = 1;
+        double duration = 480;
+        Long seed = null;
+        int replications = 1;
+        String customerLog = null;
+        DispatchPolicy dispatchPolicy = DispatchPolicy.FIRST_FREE;
+        Double checkpointAt = null;
+        String checkpointFile = null;
+        String restoreFile = null;
+        List<WhatIfBranch> forks = new ArrayList<>();
+        String traceFile = null;
+        String replayFile = null;
+        Integer compareBaristas = null;
+        VarianceReduction varianceReduction = VarianceReduction.COMMON_RANDOM_NUMBERS;
+        Double targetHalfWidth = null;
+        ServiceDistribution serviceDistribution = ServiceDistribution.exponential();
+        VariateMethod variateMethod = VariateMethod.ZIGGURAT;
+        String metricsFile = null;
+        int balkQueue = 0;
+        double patience = 0;
+        Double steadyStatePrecision = null;
+        long maxCustomers = 10_000_000;
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--arrival-rate":
+                    arrivalRate = Double.parseDouble(value);
+                    break;
+                case "--service-rate":
+                    serviceRate = Double.parseDouble(value);
+                    break;
+                case "--baristas":
+                    numBaristas = Integer.parseInt(value);
+                    break;
+                case "--duration":
+                    duration = Double.parseDouble(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--replications":
+                    replications = Integer.parseInt(value);
+                    break;
+                case "--customer-log":
+                    customerLog = value;
+                    break;
+                case "--dispatch":
+                    dispatchPolicy = DispatchPolicy.valueOf(value.toUpperCase(Locale.ROOT).replace('-', '_'));
+                    break;
+                case "--checkpoint-at":
+                    checkpointAt = Double.parseDouble(value);
+                    break;
+                case "--checkpoint":
+                    checkpointFile = value;
+                    break;
+                case "--restore":
+                    restoreFile = value;
+                    break;
+                case "--fork-baristas":
+                    for (String count : value.split(",")) {
+                        forks.add(WhatIfBranch.baristas(Integer.parseInt(count.trim())));
+                    }
+                    break;
+                case "--trace":
+                    traceFile = value;
+                    break;
+                case "--replay":
+                    replayFile = value;
+                    break;
+                case "--compare-baristas":
+                    compareBaristas = Integer.parseInt(value);
+                    break;
+                case "--variance-reduction":
+                    varianceReduction = parseVarianceReduction(value);
+                    break;
+                case "--target-half-width":
+                    targetHalfWidth = Double.parseDouble(value);
+                    break;
+                case "--service-distribution":
+                    serviceDistribution = ServiceDistribution.parse(value);
+                    break;
+                case "--variates":
+                    variateMethod = VariateMethod.valueOf(value.toUpperCase(Locale.ROOT));
+                    break;
+                case "--metrics":
+                    metricsFile = value;
+                    break;
+                case "--balk-queue":
+                    balkQueue = Integer.parseInt(value);
+                    break;
+                case "--patience":
+                    patience = Double.parseDouble(value);
+                    break;
+                case "--steady-state":
+                    steadyStatePrecision = Double.parseDouble(value);
+                    break;
+                case "--max-customers":
+                    maxCustomers = Long.parseLong(value);
+                    break;
+                default:
+                    usage("Unknown option " + option);
+            }
+        }
+
+        if (replayFile != null) {
+            replay(replayFile);
+            return;
+        }
+
+        if (compareBaristas != null) {
+            compare(new Scenario(arrivalRate, serviceRate, numBaristas, duration)
+                            .withServiceDistribution(serviceDistribution)
+                            .withImpatience(balkQueue, patience)
+                            .withDispatchPolicy(dispatchPolicy)
+                            .withVariateMethod(variateMethod),
+                    new Scenario(arrivalRate, serviceRate, compareBaristas, duration)
+                            .withServiceDistribution(serviceDistribution)
+                            .withImpatience(balkQueue, patience)
+                            .withDispatchPolicy(dispatchPolicy)
+                            .withVariateMethod(variateMethod),
+                    Math.max(replications, 2), targetHalfWidth, varianceReduction,
+                    seed == null ? System.nanoTime() : seed);
+            return;
+        }
+
+        if (steadyStatePrecision != null) {
+            runSteadyState(new Scenario(arrivalRate, serviceRate, numBaristas, duration)
+                            .withServiceDistribution(serviceDistribution)
+                            .withImpatience(balkQueue, patience)
+                            .withDispatchPolicy(dispatchPolicy)
+                            .withVariateMethod(variateMethod), steadyStatePrecision, maxCustomers,
+                    seed == null ? System.nanoTime() : seed);
+            return;
+        }
+
+        if (replications > 1) {
+            runReplications(new Scenario(arrivalRate, serviceRate, numBaristas, duration)
+                            .withServiceDistribution(serviceDistribution)
+                            .withImpatience(balkQueue, patience)
+                            .withDispatchPolicy(dispatchPolicy)
+                            .withVariateMethod(variateMethod), replications,
+                    seed == null ? System.nanoTime() : seed);
+            return;
+        }
+
+        CoffeeShopEngine engine;
+        SimulationCheckpoint checkpoint = null;
+        if (restoreFile != null) {
+            // A restored run keeps the parameters it was checkpointed with.
+            long restoreStart = System.nanoTime();
+            checkpoint = SimulationCheckpoint.read(Paths.get(restoreFile));
+            engine = checkpoint.restore();
+            System.out.printf("Restored %s in %.3f ms%n", checkpoint, (System.nanoTime() - restoreStart) / 1e6);
+        } else {
+            engine = seed == null ? new CoffeeShopEngine() : new CoffeeShopEngine(seed);
+            engine.setArrivalRate(arrivalRate);
+            engine.setServiceRate(serviceRate);
+            engine.setNumBaristas(numBaristas);
+            engine.setSimulationDuration(duration);
+            engine.setRecordCustomers(customerLog != null);
+            engine.setDispatchPolicy(dispatchPolicy);
+            engine.setServiceDistribution(serviceDistribution);
+            engine.setVariateMethod(variateMethod);
+            engine.setBalkQueueLength(balkQueue);
+            engine.setMeanPatience(patience);
+            if (checkpointAt != null) {
+                engine.runUntil(checkpointAt, Integer.MAX_VALUE);
+                checkpoint = SimulationCheckpoint.capture(engine);
+                if (checkpointFile != null) {
+                    checkpoint.write(Paths.get(checkpointFile));
+                    System.out.println("Wrote " + checkpoint + " to " + checkpointFile);
+                }
+            }
+        }
+
+        if (!forks.isEmpty()) {
+            if (checkpoint == null) {
+                usage("--fork-baristas needs --checkpoint-at or --restore");
+            }
+            WhatIfReport report = new WhatIfRunner().run(checkpoint, forks);
+            System.out.print(report);
+            System.out.printf("Ran %d branches in %.3f ms%n", report.getBranchCount(), report.getElapsedNanos() / 1e6);
+            return;
+        }
+
+        EventTraceWriter trace = traceFile == null ? null : new EventTraceWriter(Paths.get(traceFile));
+        engine.setTraceWriter(trace);
+        MetricsRegistry metrics = metricsFile == null ? null : new MetricsRegistry();
+        engine.setMetrics(metrics);
+
+        long start = System.nanoTime();
+        engine.runToCompletion();
+        long elapsed = System.nanoTime() - start;
+
+        if (trace != null) {
+            trace.close();
+            System.out.printf("Traced %d events to %s%n", trace.getRecordCount(), traceFile);
+        }
+
+        System.out.printf("Customers arrived: %d | Customers served: %d | %s%n",
+                engine.getCustomerCount(), engine.getServedCount(), engine.getStatistics());
+        System.out.printf("Simulated %.0f minutes in %.3f ms%n", engine.getCurrentTime(), elapsed / 1e6);
+        if (engine.getBalkQueueLength() == 0 && engine.getMeanPatience() == 0) {
+            printAnalytic(new ErlangC(engine.getArrivalRate(), engine.getServiceRate(), engine.getNumBaristas()),
+                    engine.getServiceDistribution(), engine.getAverageWaitTime(), null);
+        } else {
+            System.out.println(NO_ANALYTIC_MODEL);
+        }
+
+        if (customerLog != null) {
+            writeCustomerLog(engine, customerLog);
+        }
+        if (metrics != null) {
+            writeMetrics(metrics, metricsFile);
+        }
+    }
+
+    private static void writeMetrics(MetricsRegistry metrics, String path) throws IOException {
+        if (path.equals("-")) {
+            System.out.print(metrics.toJson());
+            return;
+        }
+        try (FileWriter writer = new FileWriter(path)) {
+            metrics.writeJson(writer);
+        }
+    }
+
+    private static void replay(String path) throws IOException {
+        long start = System.nanoTime();
+        TraceReplay replay = new TraceReplay(EventTrace.open(Paths.get(path)));
+        long elapsed = System.nanoTime() - start;
+        SimulationSnapshot result = replay.getFinalSnapshot();
+        System.out.printf("Customers arrived: %d | Customers served: %d | %s%n",
+                result.getCustomerCount(), result.getServedCount(), result.getStatistics());
+        System.out.printf("Replayed %d events (%.0f minutes) in %.3f ms%n",
+                replay.getRecordCount(), replay.getEndTime(), elapsed / 1e6);
+    }
+
+    // With a target half-width, --replications is the most that will be run.
+    private static void compare(Scenario baseline, Scenario alternative, int replications, Double targetHalfWidth,
+                                VarianceReduction method, long seed) {
+        ScenarioComparison comparison = new ScenarioComparison();
+        ComparisonReport report = targetHalfWidth == null
+                ? comparison.compare(baseline, alternative, replications, seed, method)
+                : comparison.compareToPrecision(baseline, alternative, targetHalfWidth, replications, seed, method);
+        System.out.println("Baseline:    " + baseline + " | seed " + seed);
+        System.out.println("Alternative: " + alternative);
+        System.out.println(report);
+        System.out.printf("Ran %d replications of each scenario in %.3f s%n",
+                report.getReplications(), report.getElapsedNanos() / 1e9);
+    }
+
+    private static VarianceReduction parseVarianceReduction(String value) {
+        switch (value) {
+            case "none":
+                return VarianceReduction.NONE;
+            case "crn":
+                return VarianceReduction.COMMON_RANDOM_NUMBERS;
+            case "antithetic":
+                return VarianceReduction.ANTITHETIC;
+            default:
+                usage("Unknown variance reduction " + value);
+                return null;
+        }
+    }
+
+    private static void runReplications(Scenario scenario, int replications, long seed) {
+        ReplicationReport report = new ReplicationRunner().run(scenario, replications, seed);
+        double seconds = report.getElapsedNanos() / 1e9;
+        System.out.println(scenario + " | seed " + seed);
+        System.out.println(report);
+        System.out.printf("Ran %d replications in %.3f s (%.0f replications/s on %d cores)%n",
+                replications, seconds, replications / seconds, Runtime.getRuntime().availableProcessors());
+        if (scenario.getBalkQueueLength() == 0 && scenario.getMeanPatience() == 0) {
+            printAnalytic(new ErlangC(scenario.getArrivalRate(), scenario.getServiceRate(), scenario.getNumBaristas()),
+                    scenario.getServiceDistribution(), report.getAverageWait().getMean(), report.getAverageWait());
+        } else {
+            System.out.println(NO_ANALYTIC_MODEL);
+        }
+    }
+
+    // For other service shapes Erlang C only approximates. The Allen-Cunneen correction scales
+    // its wait by (1 + cv^2) / 2, which is what the comparison then uses.
+    private static void runSteadyState(Scenario scenario, double precision, long maxCustomers, long seed) {
+        SteadyStateReport report = new SteadyStateRunner().run(scenario, new SplitMix64(seed), precision, maxCustomers);
+        System.out.println(scenario + " | seed " + seed);
+        System.out.println(report);
+        System.out.printf("Checked %d times in %.3f s%n", report.getChecks(), report.getElapsedNanos() / 1e9);
+        if (report.getMeanWait() != null && scenario.getBalkQueueLength() == 0 && scenario.getMeanPatience() == 0) {
+            printAnalytic(new ErlangC(scenario.getArrivalRate(), scenario.getServiceRate(), scenario.getNumBaristas()),
+                    scenario.getServiceDistribution(), report.getMeanWait().getMean(), report.getMeanWait());
+        }
+    }
+
+    // The verdict needs sampling error to judge against, so it is only given when the caller has
+    // a confidence interval on the wait; a single run shows just the signed difference.
+    private static void printAnalytic(ErlangC analytic, ServiceDistribution service, double simulatedWait,
+                                      ConfidenceInterval waitInterval) {
+        System.out.println("Erlang C steady state: " + analytic);
+        double cv = service.getCoefficientOfVariation();
+        if (analytic.isStable() && cv != 1) {
+            double approximateWait = analytic.getMeanWait() * (1 + cv * cv) / 2;
+            System.out.printf("Service is %s: approximate avg wait %.3f, simulated is %+.1f%% off%n",
+                    service, approximateWait, (simulatedWait / approximateWait - 1) * 100);
+        } else if (analytic.isStable() && waitInterval != null) {
+            System.out.printf("Simulated avg wait is %+.1f%% off steady state (%s)%n",
+                    (simulatedWait / analytic.getMeanWait() - 1) * 100,
+                    analytic.agreesWith(waitInterval) ? "within the 95% interval" : "outside the 95% interval");
+        } else if (analytic.isStable()) {
+            System.out.printf("Simulated avg wait is %+.1f%% off steady state%n",
+                    (simulatedWait / analytic.getMeanWait() - 1) * 100);
+        }
+    }
+
+    private static void writeCustomerLog(CoffeeShopEngine engine, String path) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(path))) {
+            writer.println("arrival_time,wait_time,service_end_time");
+            for (Customer customer : engine.getServedCustomers()) {
+                writer.printf(Locale.ROOT, "%.4f,%.4f,%.4f%n",
+                        customer.getArrivalTime(), customer.getWaitTime(), customer.getServiceEndTime());
+            }
+        }
+    }
+
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.println("Usage: CoffeeShopBatch [--arrival-rate r] [--service-rate r] [--baristas n] "
+                + "[--duration minutes] [--seed n] [--replications n] [--customer-log file] "
+                + "[--dispatch first-free|least-utilized|random] [--checkpoint-at minutes] [--checkpoint file] "
+                + "[--restore file] [--fork-baristas n,n,...] [--trace file] [--replay file] "
+                + "[--compare-baristas n] [--variance-reduction none|crn|antithetic] [--target-half-width minutes] "
+                + "[--service-distribution exponential|lognormal:cv|erlang:k|empirical:file] "
+                + "[--variates ziggurat|inversion] [--metrics file.json|-] [--balk-queue n] [--patience minutes] "
+                + "[--steady-state relative-precision] [--max-customers n]");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,84 @@
+package coffeeshop.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Command-line entry point for a chain of stores. Each store's arrival rate is the given rate
+// scaled by a random factor between 0.6 and 1.4, so some stores overflow into their neighbours.
+// Usage: CoffeeShopChain [--stores 200] [--days 7] [--arrival-rate 2.0] [--service-rate 0.6]
+//                        [--baristas 4] [--walk-time 5] [--overflow-queue 8] [--partitions n] [--seed n]
+public class CoffeeShopChain {
+    public static void main(String[] args) {
+        int storeCount = 200;
+        int days = 7;
+        double arrivalRate = 2.0;
+        double serviceRate = 0.6;
+        int baristas = 4;
+        double walkTime = 5;
+        int overflowQueue = 8;
+        int partitions = Runtime.getRuntime().availableProcessors() * 4;
+        long seed = System.nanoTime();
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--stores":
+                    storeCount = Integer.parseInt(value);
+                    break;
+                case "--days":
+                    days = Integer.parseInt(value);
+                    break;
+                case "--arrival-rate":
+                    arrivalRate = Double.parseDouble(value);
+                    break;
+                case "--service-rate":
+                    serviceRate = Double.parseDouble(value);
+                    break;
+                case "--baristas":
+                    baristas = Integer.parseInt(value);
+                    break;
+                case "--walk-time":
+                    walkTime = Double.parseDouble(value);
+                    break;
+                case "--overflow-queue":
+                    overflowQueue = Integer.parseInt(value);
+                    break;
+                case "--partitions":
+                    partitions = Integer.parseInt(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    usage("Unknown option " + option);
+            }
+        }
+        if (storeCount < 1 || days < 1) {
+            usage("Need at least one store and one day");
+        }
+
+        SplitMix64 sizing = new SplitMix64(seed);
+        List<Scenario> stores = new ArrayList<>();
+        for (int i = 0; i < storeCount; i++) {
+            double rate = arrivalRate * (0.6 + 0.8 * sizing.nextDouble());
+            stores.add(new Scenario(rate, serviceRate, baristas, days * 1440.0));
+        }
+        ChainSimulation chain = new ChainSimulation(stores, walkTime, overflowQueue);
+        ChainReport report = chain.run(seed, partitions);
+        System.out.print(report);
+        System.out.printf("Simulated %d store-days in %.2f s: %d windows, %d partitions on %d cores (seed %d)%n",
+                storeCount * days, report.getElapsedNanos() / 1e9, report.getWindows(), report.getPartitions(),
+                Runtime.getRuntime().availableProcessors(), seed);
+    }
+
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.println("Usage: CoffeeShopChain [--stores n] [--days n] [--arrival-rate r] [--service-rate r] "
+                + "[--baristas n] [--walk-time minutes] [--overflow-queue n] [--partitions n] [--seed n]");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,1086 @@
+package coffeeshop.simulation;
+
+import jdk.jfr.FlightRecorder;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+// Discrete-event core of the coffee shop model. Has no UI dependencies so it can be
+// driven either by the JavaFX front end or run headless at full speed.
+public class CoffeeShopEngine {
+    private static final EventType[] EVENT_TYPES = EventType.values();
+    private static final int CUSTOMER_SIZE = Integer.BYTES + 3 * Double.BYTES; // checkpointed id and times
+    private static final int IN_SHOP_CUSTOMER_SIZE = CUSTOMER_SIZE + 3 * Integer.BYTES; // plus slot and patience
+
+    private double arrivalRate = 0.5; // customers arriving per minute
+    private double serviceRate = 1.0; // customers served per minute
+    private int numBaristas = 1; // number of baristas
+    private double simulationDuration = 480; // 8 hours to reflect a typical work day
+    private double reportingInterval = 1.0;
+    private ArrivalProfile arrivalProfile; // overrides arrivalRate when set
+    private double currentTime = 0;
+    private double nextReportTime = 0;
+    private boolean initialized = false;
+
+    private EventList eventQueue = new EventList();
+    // Customers and baristas live in primitive arrays that are reused from one customer to the
+    // next, so a run that has reached its longest queue allocates nothing per event.
+    private final CustomerStore customers = new CustomerStore(64);
+    private final IntRingQueue customerQueue = new IntRingQueue(64); // customer store slots
+    private int abandonedInQueue = 0; // customers in customerQueue who have given up
+    private final BaristaTable baristas = new BaristaTable(16);
+    private DispatchPolicy dispatchPolicy = DispatchPolicy.FIRST_FREE;
+    private IdleBaristaIndex idleBaristas = dispatchPolicy.newIndex();
+    private List<Customer> servedCustomers; // only kept when recordCustomers is set
+    // Arrivals and service demands come from their own streams, and a customer's service demand
+    // depends only on their id. Two engines built from equal streams therefore see the same
+    // customers with the same demands whatever their staffing, which is what makes common
+    // random numbers work. Dispatch decisions draw from a third stream.
+    private final SplitMix64 random;
+    private final SplitMix64 arrivalStream;
+    private final long serviceSeed;
+    private boolean antithetic = false;
+    private ServiceDistribution serviceDistribution = ServiceDistribution.exponential();
+    private VariateMethod variateMethod = VariateMethod.ZIGGURAT;
+    private final VariateBuffer arrivalVariates;
+    private final VariateBuffer serviceVariates = new VariateBuffer(new SplitMix64(0));
+    private final VariateBuffer patienceVariates = new VariateBuffer(new SplitMix64(0)); // keyed like service
+    private TimerWheel patienceTimers = new TimerWheel(64);
+
+    private int maxQueueLength = 0;
+    private int customerCount = 0;
+    private int servedCount = 0;
+    private int busyBaristaCount = 0;
+    private int overflowThreshold = 0; // queue length that turns arrivals away, 0 for never
+    private int overflowCount = 0;
+    private int transferCount = 0;
+    private int balkQueueLength = 0; // queue length at which arrivals leave at once, 0 for never
+    private double meanPatience = 0; // mean of each waiting customer's exponential patience, 0 for unlimited
+    private int balkedCount = 0;
+    private int renegedCount = 0;
+
+    // Online accumulators keep memory constant no matter how many customers are served.
+    private final RunningStatistics waitStatistics = new RunningStatistics();
+    private final LogHistogram waitHistogram = new LogHistogram();
+    private final TimeWeightedStatistic queueLengthStatistic = new TimeWeightedStatistic();
+    private final TimeWeightedStatistic busyBaristaStatistic = new TimeWeightedStatistic();
+    private final TimeWeightedStatistic onShiftBaristaStatistic = new TimeWeightedStatistic();
+    private final double[] recentWaits = new double[5];
+    private double waitPeriodLength = 0; // per-period histograms are kept when positive
+    private final List<LogHistogram> periodWaitHistograms = new ArrayList<>();
+
+    private SimulationListener listener;
+    private EventTraceWriter trace;
+    private EngineMetrics metrics;
+    private OverflowListener overflowListener;
+    private WaitListener waitListener;
+
+    public CoffeeShopEngine() {
+        this(new SplitMix64());
+    }
+
+    public CoffeeShopEngine(long seed) {
+        this(new SplitMix64(seed));
+    }
+
+    public CoffeeShopEngine(SplitMix64 random) {
+        this(random, random.split(), random.nextLong());
+    }
+
+    private CoffeeShopEngine(SplitMix64 random, SplitMix64 arrivalStream, long serviceSeed) {
+        this.random = random;
+        this.arrivalStream = arrivalStream;
+        this.serviceSeed = serviceSeed;
+        this.arrivalVariates = new VariateBuffer(arrivalStream);
+        createBaristas();
+    }
+
+    public void setSimulationListener(SimulationListener listener) {
+        this.listener = listener;
+    }
+
+    // Records every processed event to the writer until set back to null. The writer is not
+    // part of checkpointed state.
+    public void setTraceWriter(EventTraceWriter trace) {
+        this.trace = trace;
+    }
+
+    // Not part of checkpointed state.
+    public void setWaitListener(WaitListener waitListener) {
+        this.waitListener = waitListener;
+    }
+
+    // Reports batch counts, timings and allocation to the registry until set back to null.
+    public void setMetrics(MetricsRegistry registry) {
+        this.metrics = registry == null ? null : new EngineMetrics(registry);
+    }
+
+    public boolean isAntithetic() {
+        return antithetic;
+    }
+
+    // Draws every variate from 1 - u instead of u. A run paired with an antithetic twin from the
+    // same streams tends to err in the opposite direction, so the pair's average varies less.
+    // Antithetic runs always use inversion, since a rejection sampler does not map u and 1 - u
+    // to opposite ends of the distribution.
+    public void setAntithetic(boolean antithetic) {
+        this.antithetic = antithetic;
+        configureVariates();
+    }
+
+    public VariateMethod getVariateMethod() {
+        return variateMethod;
+    }
+
+    // Runs with different methods see different customers, so compare scenarios using one method.
+    public void setVariateMethod(VariateMethod variateMethod) {
+        this.variateMethod = variateMethod;
+        configureVariates();
+    }
+
+    public ServiceDistribution getServiceDistribution() {
+        return serviceDistribution;
+    }
+
+    // Shape of the service times; their mean stays 1 / serviceRate.
+    public void setServiceDistribution(ServiceDistribution serviceDistribution) {
+        this.serviceDistribution = serviceDistribution;
+        configureVariates();
+    }
+
+    private void configureVariates() {
+        arrivalVariates.configure(ServiceDistribution.exponential(), variateMethod, antithetic);
+        serviceVariates.configure(serviceDistribution, variateMethod, antithetic);
+        patienceVariates.configure(ServiceDistribution.exponential(), variateMethod, antithetic);
+    }
+
+    public double getArrivalRate() {
+        return arrivalRate;
+    }
+
+    public void setArrivalRate(double arrivalRate) {
+        this.arrivalRate = arrivalRate;
+    }
+
+    public ArrivalProfile getArrivalProfile() {
+        return arrivalProfile;
+    }
+
+    // Makes the arrival rate vary over the day; null goes back to the constant arrival rate.
+    public void setArrivalProfile(ArrivalProfile arrivalProfile) {
+        this.arrivalProfile = arrivalProfile;
+    }
+
+    public double getServiceRate() {
+        return serviceRate;
+    }
+
+    public void setServiceRate(double serviceRate) {
+        this.serviceRate = serviceRate;
+    }
+
+    public int getNumBaristas() {
+        return numBaristas;
+    }
+
+    public void setNumBaristas(int numBaristas) {
+        this.numBaristas = numBaristas;
+        updateBaristaCount();
+    }
+
+    public DispatchPolicy getDispatchPolicy() {
+        return dispatchPolicy;
+    }
+
+    public void setDispatchPolicy(DispatchPolicy dispatchPolicy) {
+        this.dispatchPolicy = dispatchPolicy;
+        idleBaristas = dispatchPolicy.newIndex();
+        for (int i = 0; i < baristas.getOnShiftCount(); i++) {
+            int id = baristas.getOnShift(i);
+            if (!baristas.isBusy(id)) {
+                idleBaristas.add(id, baristas.getBusyTime(id));
+            }
+        }
+    }
+
+    public double getSimulationDuration() {
+        return simulationDuration;
+    }
+
+    public void setSimulationDuration(double simulationDuration) {
+        this.simulationDuration = simulationDuration;
+    }
+
+    public double getReportingInterval() {
+        return reportingInterval;
+    }
+
+    public void setReportingInterval(double reportingInterval) {
+        this.reportingInterval = reportingInterval;
+    }
+
+    public double getCurrentTime() {
+        return currentTime;
+    }
+
+    // Arrivals who find this many customers already waiting leave for another store instead of
+    // joining, and are reported to the overflow listener. Customers who have already been sent
+    // over from another store always stay. Zero, the default, turns this off.
+    public void setOverflowThreshold(int overflowThreshold) {
+        this.overflowThreshold = overflowThreshold;
+    }
+
+    public int getOverflowThreshold() {
+        return overflowThreshold;
+    }
+
+    // Not part of checkpointed state.
+    public void setOverflowListener(OverflowListener overflowListener) {
+        this.overflowListener = overflowListener;
+    }
+
+    // Arrivals turned away by a full queue; they are not counted as customers of this store.
+    public int getOverflowCount() {
+        return overflowCount;
+    }
+
+    // Customers who arrived from another store.
+    public int getTransferCount() {
+        return transferCount;
+    }
+
+    // Schedules a customer arriving from another store. The time must not be before the
+    // current time.
+    public void scheduleTransferArrival(double time) {
+        if (time < currentTime) {
+            throw new IllegalArgumentException("Transfer at " + time + " is before the current time " + currentTime);
+        }
+        if (!initialized) {
+            initialize();
+        }
+        schedule(time, EventType.TRANSFER_ARRIVAL, -1);
+    }
+
+    // Arrivals who find this many customers waiting leave at once. Zero, the default, turns
+    // balking off.
+    public void setBalkQueueLength(int balkQueueLength) {
+        this.balkQueueLength = balkQueueLength;
+    }
+
+    public int getBalkQueueLength() {
+        return balkQueueLength;
+    }
+
+    // Customers who have to wait give up and leave once their patience runs out. Patience is
+    // exponential with this mean and, like service demand, depends only on the customer's id.
+    // Zero, the default, means customers wait as long as it takes. Applies to customers who
+    // arrive from now on.
+    public void setMeanPatience(double meanPatience) {
+        this.meanPatience = meanPatience;
+    }
+
+    public double getMeanPatience() {
+        return meanPatience;
+    }
+
+    // Arrivals who left at once because the line was too long; they are not counted as customers.
+    public int getBalkedCount() {
+        return balkedCount;
+    }
+
+    // Customers who gave up waiting.
+    public int getRenegedCount() {
+        return renegedCount;
+    }
+
+    // Time of the next pending event, or infinity when there is none. Pending patience timers
+    // count from the start of their wheel bucket, so this may be slightly early.
+    public double getNextEventTime() {
+        double next = eventQueue.isEmpty() ? Double.POSITIVE_INFINITY : eventQueue.peekTime();
+        return Math.min(next, patienceTimers.nextExpiryBound());
+    }
+
+    public int getQueueLength() {
+        return customerQueue.size() - abandonedInQueue;
+    }
+
+    public int getMaxQueueLength() {
+        return maxQueueLength;
+    }
+
+    public int getCustomerCount() {
+        return customerCount;
+    }
+
+    public int getServedCount() {
+        return servedCount;
+    }
+
+    // Mean wait of every customer who has started service.
+    public double getAverageWaitTime() {
+        return waitStatistics.getCount() == 0 ? 0 : waitStatistics.getMean();
+    }
+
+    public RunningStatistics getWaitStatistics() {
+        return waitStatistics;
+    }
+
+    public LogHistogram getWaitHistogram() {
+        return waitHistogram;
+    }
+
+    public double getWaitPercentile(double quantile) {
+        return waitHistogram.quantile(quantile);
+    }
+
+    // Also keeps a wait-time histogram per period of the given length, with each customer
+    // counted in the period they arrived in. Zero turns this off.
+    public void setWaitPeriod(double minutes) {
+        waitPeriodLength = minutes;
+        periodWaitHistograms.clear();
+    }
+
+    public LogHistogram getPeriodWaitHistogram(int period) {
+        return period < periodWaitHistograms.size() ? periodWaitHistograms.get(period) : new LogHistogram();
+    }
+
+    // Arrival time of the customer at the head of the queue, or NaN when nobody is waiting.
+    public double getOldestWaitingArrivalTime() {
+        return getQueueLength() == 0 ? Double.NaN : customers.getArrivalTime(customerQueue.peek());
+    }
+
+    public double getAverageQueueLength() {
+        return queueLengthStatistic.getMean();
+    }
+
+    public boolean isRecordCustomers() {
+        return servedCustomers != null;
+    }
+
+    // Keeps every served customer for later inspection. Memory then grows with the number
+    // of customers, so this is off by default.
+    public void setRecordCustomers(boolean recordCustomers) {
+        if (recordCustomers && servedCustomers == null) {
+            servedCustomers = new ArrayList<>();
+        } else if (!recordCustomers) {
+            servedCustomers = null;
+        }
+    }
+
+    public List<Customer> getServedCustomers() {
+        if (servedCustomers == null) {
+            throw new IllegalStateException("Customer recording is not enabled");
+        }
+        return Collections.unmodifiableList(servedCustomers);
+    }
+
+    public double getCurrentUtilization() {
+        if (baristas.getOnShiftCount() == 0) {
+            return 0;
+        }
+        return (double) busyBaristaCount / baristas.getOnShiftCount() * 100;
+    }
+
+    // Time-averaged share of on-shift barista time spent serving, in percent.
+    public double getAverageUtilization() {
+        double capacity = onShiftBaristaStatistic.getArea();
+        return capacity == 0 ? 0 : busyBaristaStatistic.getArea() / capacity * 100;
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    public boolean isFinished() {
+        return initialized && (eventQueue.isEmpty() || currentTime >= simulationDuration);
+    }
+
+    public void reset() {
+        currentTime = 0;
+        customerQueue.clear();
+        abandonedInQueue = 0;
+        patienceTimers.clear();
+        customers.clear();
+        if (servedCustomers != null) {
+            servedCustomers.clear();
+        }
+        eventQueue.clear();
+        maxQueueLength = 0;
+        customerCount = 0;
+        servedCount = 0;
+        busyBaristaCount = 0;
+        overflowCount = 0;
+        transferCount = 0;
+        balkedCount = 0;
+        renegedCount = 0;
+        waitStatistics.clear();
+        waitHistogram.clear();
+        queueLengthStatistic.clear();
+        busyBaristaStatistic.clear();
+        onShiftBaristaStatistic.clear();
+        periodWaitHistograms.clear();
+        nextReportTime = 0;
+        initialized = false;
+        createBaristas();
+    }
+
+    public void initialize() {
+        eventQueue.clear();
+
+        double firstArrivalTime = nextArrivalTime(currentTime);
+        schedule(firstArrivalTime, EventType.CUSTOMER_ARRIVAL, -1);
+
+        schedule(nextReportTime, EventType.STATISTICS_REPORT, -1);
+        initialized = true;
+        if (trace != null) {
+            trace.record(currentTime, TraceEventType.STAFFING_CHANGE, -1, baristas.getOnShiftCount());
+        }
+    }
+
+    // Runs the remaining events of the day back to back, without any pacing.
+    public void runToCompletion() {
+        executeSteps(Integer.MAX_VALUE);
+    }
+
+    public int executeSteps(int maxEvents) {
+        return runUntil(Double.POSITIVE_INFINITY, maxEvents);
+    }
+
+    // Processes events up to and including the target time, at most maxEvents of them. If the
+    // target is reached the clock is moved to it even when no event falls exactly there, so a
+    // paced caller sees simulated time advance smoothly. Returns the number of events processed.
+    public int runUntil(double targetTime, int maxEvents) {
+        // Loading a JFR event class sets up half a second of JFR machinery, so events are only
+        // created once a recording has started.
+        boolean recording = FlightRecorder.isInitialized();
+        if (metrics == null && !recording) {
+            return processUntil(targetTime, maxEvents);
+        }
+        SimulationBatchEvent event = recording ? new SimulationBatchEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        long startNanos = System.nanoTime();
+        long startBytes = EngineMetrics.allocatedBytes();
+        double startTime = currentTime;
+        int startCustomers = customerCount;
+        int eventsProcessed = processUntil(targetTime, maxEvents);
+        long nanos = System.nanoTime() - startNanos;
+        long bytes = startBytes < 0 ? -1 : EngineMetrics.allocatedBytes() - startBytes;
+        if (metrics != null) {
+            metrics.recordBatch(eventsProcessed, customerCount - startCustomers, nanos, bytes,
+                    eventQueue.size(), getQueueLength(), currentTime);
+        }
+        if (event != null && event.shouldCommit()) {
+            event.events = eventsProcessed;
+            event.customers = customerCount - startCustomers;
+            event.simulatedStart = startTime;
+            event.simulatedEnd = currentTime;
+            event.eventListSize = eventQueue.size();
+            event.queueLength = getQueueLength();
+            event.allocatedBytes = bytes;
+            event.commit();
+        }
+        return eventsProcessed;
+    }
+
+    private int processUntil(double targetTime, int maxEvents) {
+        if (!initialized) {
+            initialize();
+        }
+        int eventsProcessed = 0;
+
+        while (!eventQueue.isEmpty() && currentTime < simulationDuration && eventsProcessed < maxEvents) {
+            if (!patienceTimers.isEmpty()) {
+                releaseDueTimers();
+            }
+            double nextTime = eventQueue.peekTime();
+            if (nextTime > targetTime) {
+                advanceClock(Math.min(targetTime, simulationDuration));
+                return eventsProcessed;
+            }
+            if (nextTime > simulationDuration) {
+                advanceClock(simulationDuration);
+                endTrace();
+                break;
+            }
+
+            EventType type = EVENT_TYPES[eventQueue.poll()];
+            advanceClock(eventQueue.getPolledTime());
+            processEvent(type, eventQueue.getPolledEntity());
+            eventsProcessed++;
+            if (currentTime >= simulationDuration) {
+                endTrace();
+            }
+        }
+        return eventsProcessed;
+    }
+
+    private void advanceClock(double time) {
+        double elapsed = Math.min(time, simulationDuration) - Math.min(currentTime, simulationDuration);
+        if (elapsed > 0) {
+            queueLengthStatistic.observe(getQueueLength(), elapsed);
+            busyBaristaStatistic.observe(busyBaristaCount, elapsed);
+            onShiftBaristaStatistic.observe(baristas.getOnShiftCount(), elapsed);
+        }
+        currentTime = time;
+    }
+
+    private void endTrace() {
+        if (trace != null) {
+            trace.record(currentTime, TraceEventType.END, -1, -1);
+        }
+    }
+
+    private int schedule(double time, EventType type, int entity) {
+        return eventQueue.add(time, type.ordinal(), entity);
+    }
+
+    private void processEvent(EventType type, int entity) {
+        switch (type) {
+            case CUSTOMER_ARRIVAL:
+                schedule(nextArrivalTime(currentTime), EventType.CUSTOMER_ARRIVAL, -1);
+                if (overflowThreshold > 0 && getQueueLength() >= overflowThreshold) {
+                    overflowCount++;
+                    if (overflowListener != null) {
+                        overflowListener.onOverflow(currentTime);
+                    }
+                } else if (balkQueueLength > 0 && getQueueLength() >= balkQueueLength) {
+                    balkedCount++;
+                    if (trace != null) {
+                        trace.record(currentTime, TraceEventType.CUSTOMER_BALKED, -1, -1);
+                    }
+                } else {
+                    handleCustomerArrival(customers.add(customerCount, currentTime));
+                }
+                break;
+            case TRANSFER_ARRIVAL:
+                transferCount++;
+                handleCustomerArrival(customers.add(customerCount, currentTime));
+                break;
+            case SERVICE_COMPLETION:
+                handleServiceCompletion(entity, baristas.getCustomer(entity));
+                break;
+            case STATISTICS_REPORT:
+                handleStatisticsReport();
+                break;
+            case CUSTOMER_RENEGE:
+                handleRenege(entity);
+                break;
+        }
+    }
+
+    private void handleCustomerArrival(int customer) {
+        customerQueue.add(customer);
+        customerCount++;
+        if (trace != null) {
+            trace.record(currentTime, TraceEventType.CUSTOMER_ARRIVAL, customers.getId(customer), -1);
+        }
+
+        maxQueueLength = Math.max(maxQueueLength, getQueueLength());
+
+        int idleBarista = idleBaristas.take(random);
+        if (idleBarista >= 0) {
+            startService(idleBarista, pollWaiting());
+        } else if (meanPatience > 0) {
+            startPatience(customer);
+        }
+    }
+
+    private void handleServiceCompletion(int barista, int customer) {
+        baristas.setIdle(barista, currentTime);
+        busyBaristaCount--;
+
+        if (trace != null) {
+            trace.record(currentTime, TraceEventType.SERVICE_COMPLETION, customers.getId(customer), barista);
+        }
+
+        recentWaits[servedCount % recentWaits.length] = customers.getWaitTime(customer);
+        servedCount++;
+        if (servedCustomers != null) {
+            servedCustomers.add(toCustomer(customer, currentTime));
+        }
+        customers.release(customer);
+
+        if (getQueueLength() > 0) {
+            startService(barista, pollWaiting());
+        } else {
+            idleBaristas.add(barista, baristas.getBusyTime(barista));
+        }
+    }
+
+    // The customer stays in the line, marked, until they reach its front; that keeps giving up
+    // O(1) however long the line is.
+    private void handleRenege(int customer) {
+        customers.setRenegeEvent(customer, -1);
+        customers.setAbandoned(customer);
+        abandonedInQueue++;
+        renegedCount++;
+        if (trace != null) {
+            trace.record(currentTime, TraceEventType.CUSTOMER_RENEGED, customers.getId(customer), -1);
+        }
+        purgeAbandoned();
+    }
+
+    private int pollWaiting() {
+        int customer = customerQueue.poll();
+        purgeAbandoned();
+        return customer;
+    }
+
+    // Drops customers who gave up from the front of the line, so its head is always someone
+    // still waiting.
+    private void purgeAbandoned() {
+        while (abandonedInQueue > 0 && customers.isAbandoned(customerQueue.peek())) {
+            customers.release(customerQueue.poll());
+            abandonedInQueue--;
+        }
+    }
+
+    private void startPatience(int customer) {
+        double giveUpTime = currentTime
+                + patienceVariates.get(~serviceSeed, customers.getId(customer)) * meanPatience;
+        int timer = patienceTimers.add(giveUpTime, customer);
+        customers.setPatienceTimer(customer, timer);
+        if (timer < 0) {
+            customers.setRenegeEvent(customer, schedule(giveUpTime, EventType.CUSTOMER_RENEGE, customer));
+        }
+    }
+
+    private void cancelPatience(int customer) {
+        int timer = customers.getPatienceTimer(customer);
+        if (timer >= 0) {
+            patienceTimers.cancel(timer);
+            customers.setPatienceTimer(customer, -1);
+        }
+        int renege = customers.getRenegeEvent(customer);
+        if (renege >= 0) {
+            eventQueue.cancel(renege);
+            customers.setRenegeEvent(customer, -1);
+        }
+    }
+
+    // Patience timers are nearly all cancelled when service starts, so they wait in the timer
+    // wheel, where that is O(1). Only timers whose tick comes up are moved to the event list,
+    // to fire in time order with everything else.
+    private void releaseDueTimers() {
+        while (!patienceTimers.isEmpty() && patienceTimers.nextExpiryBound() <= eventQueue.peekTime()) {
+            int due = patienceTimers.advance();
+            for (int i = 0; i < due; i++) {
+                int customer = patienceTimers.getDueEntity(i);
+                customers.setPatienceTimer(customer, -1);
+                customers.setRenegeEvent(customer,
+                        schedule(patienceTimers.getDueTime(i), EventType.CUSTOMER_RENEGE, customer));
+            }
+        }
+    }
+
+    private void handleStatisticsReport() {
+        if (trace != null) {
+            trace.record(currentTime, TraceEventType.STATISTICS_REPORT, -1, -1);
+        }
+        if (listener != null) {
+            listener.onStatisticsReport(currentTime, getQueueLength(), getRecentAverageWait(), getCurrentUtilization());
+        }
+
+        nextReportTime = currentTime + reportingInterval;
+        schedule(nextReportTime, EventType.STATISTICS_REPORT, -1);
+    }
+
+    private void startService(int barista, int customer) {
+        cancelPatience(customer);
+        double arrivalTime = customers.getArrivalTime(customer);
+        double waitTime = currentTime - arrivalTime;
+        customers.setWaitTime(customer, waitTime);
+        waitStatistics.add(waitTime);
+        waitHistogram.add(waitTime);
+        if (waitListener != null) {
+            waitListener.onWait(arrivalTime, waitTime);
+        }
+        if (waitPeriodLength > 0) {
+            int period = (int) (arrivalTime / waitPeriodLength);
+            while (periodWaitHistograms.size() <= period) {
+                periodWaitHistograms.add(new LogHistogram());
+            }
+            periodWaitHistograms.get(period).add(waitTime);
+        }
+
+        int id = customers.getId(customer);
+        double serviceTime = generateServiceTime(id);
+
+        double serviceEndTime = currentTime + serviceTime;
+        int completion = schedule(serviceEndTime, EventType.SERVICE_COMPLETION, barista);
+
+        baristas.setBusy(barista, customer, currentTime, completion);
+        busyBaristaCount++;
+        if (trace != null) {
+            trace.record(currentTime, TraceEventType.SERVICE_START, id, barista);
+        }
+    }
+
+    // With a profile, arrivals are a non-homogeneous Poisson process generated by thinning:
+    // candidates come at the profile's peak rate and each is kept with probability rate / peak.
+    private double nextArrivalTime(double from) {
+        if (arrivalProfile == null) {
+            return from + generateInterArrivalTime();
+        }
+        double peak = arrivalProfile.getMaxRate();
+        double finalRate = arrivalProfile.getRate(arrivalProfile.getPeriodCount() - 1);
+        double time = from;
+        do {
+            if (peak == 0 || (finalRate == 0 && time >= arrivalProfile.getDuration())) {
+                return Double.POSITIVE_INFINITY;
+            }
+            time += arrivalVariates.next() / peak;
+        } while (arrivalStream.nextUniform() * peak > arrivalProfile.getRateAt(time));
+        return time;
+    }
+
+    double generateInterArrivalTime() {
+        return arrivalVariates.next() / arrivalRate;
+    }
+
+    double generateServiceTime(int customerId) {
+        return serviceVariates.get(serviceSeed, customerId) / serviceRate;
+    }
+
+    private void createBaristas() {
+        baristas.clear();
+        idleBaristas.clear();
+        for (int i = 0; i < numBaristas; i++) {
+            int barista = baristas.hire();
+            baristas.addOnShift(barista);
+            idleBaristas.add(barista, 0);
+        }
+    }
+
+    private void updateBaristaCount() {
+        if (!initialized) {
+            createBaristas();
+            return;
+        }
+        int currentBaristaCount = baristas.getOnShiftCount();
+
+        if (numBaristas > currentBaristaCount) {
+            for (int i = currentBaristaCount; i < numBaristas; i++) {
+                int newBarista = baristas.hire();
+                baristas.addOnShift(newBarista);
+
+                if (getQueueLength() > 0) {
+                    startService(newBarista, pollWaiting());
+                } else {
+                    idleBaristas.add(newBarista, 0);
+                }
+            }
+        } else if (numBaristas < currentBaristaCount) {
+            // Send idle baristas home first; only interrupt a service when nobody is idle.
+            int toRemove = currentBaristaCount - numBaristas;
+            for (int i = baristas.getOnShiftCount() - 1; i >= 0 && toRemove > 0; i--) {
+                int barista = baristas.getOnShift(i);
+                if (!baristas.isBusy(barista)) {
+                    idleBaristas.remove(barista);
+                    baristas.removeOnShift(i);
+                    toRemove--;
+                }
+            }
+            for (int i = baristas.getOnShiftCount() - 1; i >= 0 && toRemove > 0; i--) {
+                int barista = baristas.getOnShift(i);
+                int customer = baristas.getCustomer(barista);
+                eventQueue.cancel(baristas.getCompletionHandle(barista));
+                baristas.setIdle(barista, currentTime);
+                busyBaristaCount--;
+                customerQueue.add(customer);
+                // Their timer was cancelled when service started; back in line, they can give up again.
+                if (meanPatience > 0) {
+                    startPatience(customer);
+                }
+                baristas.removeOnShift(i);
+                toRemove--;
+                if (trace != null) {
+                    trace.record(currentTime, TraceEventType.SERVICE_INTERRUPTED, customers.getId(customer), barista);
+                }
+            }
+        }
+        if (trace != null) {
+            trace.record(currentTime, TraceEventType.STAFFING_CHANGE, -1, baristas.getOnShiftCount());
+        }
+    }
+
+    // Mean wait of the last few customers to finish service.
+    private double getRecentAverageWait() {
+        if (servedCount == 0) {
+            return Double.NaN;
+        }
+        int count = Math.min(servedCount, recentWaits.length);
+        double recentAvgWait = 0;
+        for (int i = 0; i < count; i++) {
+            recentAvgWait += recentWaits[i];
+        }
+        return recentAvgWait / count;
+    }
+
+    // Checkpoint layout. Everything that influences future events is written: parameters, clock,
+    // the pending event heap with its handles, the queue, every barista ever hired, the idle
+    // index order, the RNG and all accumulators. The listener is not part of the state.
+    int stateSize() {
+        int size = 4 * Double.BYTES + Integer.BYTES // parameters
+                + 2 * Double.BYTES + 2 // clock, initialized, dispatch policy
+                + 10 * Integer.BYTES + Double.BYTES // counters, overflow, balking and patience settings
+                + 2 * SplitMix64.SERIALIZED_SIZE + Long.BYTES + 1 // streams, service seed, antithetic
+                + 1 + serviceDistribution.serializedSize() + VariateBuffer.SERIALIZED_SIZE // variates
+                + eventQueue.serializedSize() + patienceTimers.serializedSize()
+                + Integer.BYTES + getQueueLength() * IN_SHOP_CUSTOMER_SIZE
+                + Integer.BYTES + baristas.getHiredCount() * (1 + 2 * Double.BYTES + Integer.BYTES)
+                + Integer.BYTES + baristas.getOnShiftCount() * Integer.BYTES
+                + Integer.BYTES + idleBaristas.size() * Integer.BYTES
+                + RunningStatistics.SERIALIZED_SIZE + waitHistogram.serializedSize()
+                + 3 * TimeWeightedStatistic.SERIALIZED_SIZE
+                + recentWaits.length * Double.BYTES
+                + 1 + Double.BYTES + Integer.BYTES // arrival profile header
+                + Double.BYTES + Integer.BYTES // wait periods
+                + 1;
+        if (arrivalProfile != null) {
+            size += arrivalProfile.getPeriodCount() * Double.BYTES;
+        }
+        for (LogHistogram histogram : periodWaitHistograms) {
+            size += histogram.serializedSize();
+        }
+        size += busyBaristaCount * IN_SHOP_CUSTOMER_SIZE;
+        if (servedCustomers != null) {
+            size += Integer.BYTES + servedCustomers.size() * CUSTOMER_SIZE;
+        }
+        return size;
+    }
+
+    void writeState(ByteBuffer buffer) {
+        buffer.putDouble(arrivalRate).putDouble(serviceRate).putInt(numBaristas)
+                .putDouble(simulationDuration).putDouble(reportingInterval);
+        buffer.putDouble(currentTime).putDouble(nextReportTime)
+                .put((byte) (initialized ? 1 : 0)).put((byte) dispatchPolicy.ordinal());
+        buffer.putInt(maxQueueLength).putInt(customerCount).putInt(servedCount).putInt(busyBaristaCount);
+        buffer.putInt(overflowThreshold).putInt(overflowCount).putInt(transferCount);
+        buffer.putInt(balkQueueLength).putInt(balkedCount).putInt(renegedCount).putDouble(meanPatience);
+        random.writeTo(buffer);
+        arrivalStream.writeTo(buffer);
+        buffer.putLong(serviceSeed).put((byte) (antithetic ? 1 : 0));
+        buffer.put((byte) variateMethod.ordinal());
+        serviceDistribution.writeTo(buffer);
+        arrivalVariates.writeTo(buffer);
+        eventQueue.writeTo(buffer);
+        patienceTimers.writeTo(buffer);
+
+        // Customers who gave up are left out; their place in the line no longer matters.
+        buffer.putInt(getQueueLength());
+        for (int i = 0; i < customerQueue.size(); i++) {
+            if (!customers.isAbandoned(customerQueue.get(i))) {
+                writeCustomer(buffer, customerQueue.get(i));
+            }
+        }
+        buffer.putInt(baristas.getHiredCount());
+        for (int id = 0; id < baristas.getHiredCount(); id++) {
+            boolean busy = baristas.isBusy(id);
+            buffer.put((byte) (busy ? 1 : 0));
+            buffer.putDouble(baristas.getServiceStartTime(id)).putDouble(baristas.getBusyTime(id))
+                    .putInt(baristas.getCompletionHandle(id));
+            if (busy) {
+                writeCustomer(buffer, baristas.getCustomer(id));
+            }
+        }
+        buffer.putInt(baristas.getOnShiftCount());
+        for (int i = 0; i < baristas.getOnShiftCount(); i++) {
+            buffer.putInt(baristas.getOnShift(i));
+        }
+        int[] idle = idleBaristas.toArray();
+        buffer.putInt(idle.length);
+        for (int id : idle) {
+            buffer.putInt(id);
+        }
+
+        waitStatistics.writeTo(buffer);
+        waitHistogram.writeTo(buffer);
+        queueLengthStatistic.writeTo(buffer);
+        busyBaristaStatistic.writeTo(buffer);
+        onShiftBaristaStatistic.writeTo(buffer);
+        for (double wait : recentWaits) {
+            buffer.putDouble(wait);
+        }
+
+        buffer.put((byte) (arrivalProfile != null ? 1 : 0));
+        double[] rates = arrivalProfile == null ? new double[0] : arrivalProfile.getRates();
+        buffer.putDouble(arrivalProfile == null ? 0 : arrivalProfile.getPeriodLength()).putInt(rates.length);
+        for (double rate : rates) {
+            buffer.putDouble(rate);
+        }
+        buffer.putDouble(waitPeriodLength).putInt(periodWaitHistograms.size());
+        for (LogHistogram histogram : periodWaitHistograms) {
+            histogram.writeTo(buffer);
+        }
+
+        buffer.put((byte) (servedCustomers != null ? 1 : 0));
+        if (servedCustomers != null) {
+            buffer.putInt(servedCustomers.size());
+            for (Customer customer : servedCustomers) {
+                buffer.putInt(customer.getId()).putDouble(customer.getArrivalTime()).putDouble(customer.getWaitTime())
+                        .putDouble(customer.getServiceEndTime());
+            }
+        }
+    }
+
+    static CoffeeShopEngine readState(ByteBuffer buffer) {
+        double arrivalRate = buffer.getDouble();
+        double serviceRate = buffer.getDouble();
+        int numBaristas = buffer.getInt();
+        double simulationDuration = buffer.getDouble();
+        double reportingInterval = buffer.getDouble();
+        double currentTime = buffer.getDouble();
+        double nextReportTime = buffer.getDouble();
+        boolean initialized = buffer.get() != 0;
+        DispatchPolicy dispatchPolicy = DispatchPolicy.values()[buffer.get()];
+        int maxQueueLength = buffer.getInt();
+        int customerCount = buffer.getInt();
+        int servedCount = buffer.getInt();
+        int busyBaristaCount = buffer.getInt();
+        int overflowThreshold = buffer.getInt();
+        int overflowCount = buffer.getInt();
+        int transferCount = buffer.getInt();
+        int balkQueueLength = buffer.getInt();
+        int balkedCount = buffer.getInt();
+        int renegedCount = buffer.getInt();
+        double meanPatience = buffer.getDouble();
+
+        SplitMix64 random = SplitMix64.readFrom(buffer);
+        SplitMix64 arrivalStream = SplitMix64.readFrom(buffer);
+        CoffeeShopEngine engine = new CoffeeShopEngine(random, arrivalStream, buffer.getLong());
+        engine.antithetic = buffer.get() != 0;
+        engine.variateMethod = VariateMethod.values()[buffer.get()];
+        engine.serviceDistribution = ServiceDistribution.readFrom(buffer);
+        engine.configureVariates();
+        engine.arrivalVariates.readFrom(buffer);
+        engine.arrivalRate = arrivalRate;
+        engine.serviceRate = serviceRate;
+        engine.numBaristas = numBaristas;
+        engine.simulationDuration = simulationDuration;
+        engine.reportingInterval = reportingInterval;
+        engine.currentTime = currentTime;
+        engine.nextReportTime = nextReportTime;
+        engine.initialized = initialized;
+        engine.dispatchPolicy = dispatchPolicy;
+        engine.idleBaristas = dispatchPolicy.newIndex();
+        engine.maxQueueLength = maxQueueLength;
+        engine.customerCount = customerCount;
+        engine.servedCount = servedCount;
+        engine.busyBaristaCount = busyBaristaCount;
+        engine.overflowThreshold = overflowThreshold;
+        engine.overflowCount = overflowCount;
+        engine.transferCount = transferCount;
+        engine.balkQueueLength = balkQueueLength;
+        engine.balkedCount = balkedCount;
+        engine.renegedCount = renegedCount;
+        engine.meanPatience = meanPatience;
+        engine.eventQueue = EventList.readFrom(buffer);
+        engine.patienceTimers = TimerWheel.readFrom(buffer);
+
+        Map<Integer, Integer> slots = new HashMap<>();
+        int queued = buffer.getInt();
+        for (int i = 0; i < queued; i++) {
+            engine.customerQueue.add(engine.readCustomer(buffer, slots));
+        }
+        engine.baristas.clear();
+        int hired = buffer.getInt();
+        for (int i = 0; i < hired; i++) {
+            int barista = engine.baristas.hire();
+            boolean busy = buffer.get() != 0;
+            double startTime = buffer.getDouble();
+            double busyTime = buffer.getDouble();
+            int completionHandle = buffer.getInt();
+            int customer = busy ? engine.readCustomer(buffer, slots) : -1;
+            engine.baristas.restore(barista, customer, startTime, busyTime, completionHandle);
+        }
+        // Customers may land in different store slots, so pending patience timers are pointed at
+        // the new ones.
+        engine.eventQueue.remapEntities(EventType.CUSTOMER_RENEGE.ordinal(), slots::get);
+        engine.patienceTimers.remapEntities(slots::get);
+        int onShift = buffer.getInt();
+        for (int i = 0; i < onShift; i++) {
+            engine.baristas.addOnShift(buffer.getInt());
+        }
+        int idle = buffer.getInt();
+        for (int i = 0; i < idle; i++) {
+            int barista = buffer.getInt();
+            engine.idleBaristas.add(barista, engine.baristas.getBusyTime(barista));
+        }
+
+        engine.waitStatistics.readFrom(buffer);
+        engine.waitHistogram.readFrom(buffer);
+        engine.queueLengthStatistic.readFrom(buffer);
+        engine.busyBaristaStatistic.readFrom(buffer);
+        engine.onShiftBaristaStatistic.readFrom(buffer);
+        for (int i = 0; i < engine.recentWaits.length; i++) {
+            engine.recentWaits[i] = buffer.getDouble();
+        }
+
+        boolean hasProfile = buffer.get() != 0;
+        double periodLength = buffer.getDouble();
+        double[] rates = new double[buffer.getInt()];
+        for (int i = 0; i < rates.length; i++) {
+            rates[i] = buffer.getDouble();
+        }
+        engine.arrivalProfile = hasProfile ? new ArrivalProfile(periodLength, rates) : null;
+        engine.waitPeriodLength = buffer.getDouble();
+        int periods = buffer.getInt();
+        for (int i = 0; i < periods; i++) {
+            LogHistogram histogram = new LogHistogram();
+            histogram.readFrom(buffer);
+            engine.periodWaitHistograms.add(histogram);
+        }
+
+        if (buffer.get() != 0) {
+            int served = buffer.getInt();
+            engine.servedCustomers = new ArrayList<>(served);
+            for (int i = 0; i < served; i++) {
+                Customer customer = new Customer(buffer.getInt(), buffer.getDouble());
+                customer.setWaitTime(buffer.getDouble());
+                customer.setServiceEndTime(buffer.getDouble());
+                engine.servedCustomers.add(customer);
+            }
+        }
+        return engine;
+    }
+
+    // Customers still in the shop have no service end time yet; the field keeps the layout
+    // shared with served customers. Their store slot and patience handles follow.
+    private void writeCustomer(ByteBuffer buffer, int slot) {
+        buffer.putInt(customers.getId(slot)).putDouble(customers.getArrivalTime(slot))
+                .putDouble(customers.getWaitTime(slot)).putDouble(0);
+        buffer.putInt(slot).putInt(customers.getPatienceTimer(slot)).putInt(customers.getRenegeEvent(slot));
+    }
+
+    // Records in the map which new slot each saved slot was given.
+    private int readCustomer(ByteBuffer buffer, Map<Integer, Integer> slots) {
+        int slot = customers.add(buffer.getInt(), buffer.getDouble());
+        customers.setWaitTime(slot, buffer.getDouble());
+        buffer.getDouble();
+        slots.put(buffer.getInt(), slot);
+        customers.setPatienceTimer(slot, buffer.getInt());
+        customers.setRenegeEvent(slot, buffer.getInt());
+        return slot;
+    }
+
+    // A served customer as an object, for the optional per-customer log.
+    private Customer toCustomer(int slot, double serviceEndTime) {
+        Customer customer = new Customer(customers.getId(slot), customers.getArrivalTime(slot));
+        customer.setWaitTime(customers.getWaitTime(slot));
+        customer.setServiceEndTime(serviceEndTime);
+        return customer;
+    }
+
+    public SimulationSnapshot snapshot() {
+        return new SimulationSnapshot(currentTime, customerCount, servedCount, getQueueLength(), maxQueueLength,
+                getAverageWaitTime(), getWaitPercentile(0.5), getWaitPercentile(0.9), getWaitPercentile(0.99),
+                getCurrentUtilization(), getAverageUtilization(), isFinished(), balkedCount, renegedCount);
+    }
+
+    public String getStatistics() {
+        return snapshot().getStatistics();
+    }
+}
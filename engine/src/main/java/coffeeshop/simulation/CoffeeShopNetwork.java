@@ -0,0 +1,67 @@
+package coffeeshop.simulation;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+// Command-line entry point for a shop modelled as a network of stations. Without --network it
+// runs the built-in order, pay, brew and pickup layout (QueueingNetwork.coffeeShop), whose
+// arrival rate --arrival-rate sets; a network file declares its own arrivals.
+// Usage: CoffeeShopNetwork [--network file] [--arrival-rate 2.0] [--duration 480] [--seed n]
+public class CoffeeShopNetwork {
+    public static void main(String[] args) {
+        String networkFile = null;
+        double arrivalRate = 2.0;
+        double duration = 480;
+        long seed = System.nanoTime();
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--network":
+                    networkFile = value;
+                    break;
+                case "--arrival-rate":
+                    arrivalRate = Double.parseDouble(value);
+                    break;
+                case "--duration":
+                    duration = Double.parseDouble(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    usage("Unknown option " + option);
+            }
+        }
+
+        QueueingNetwork network = null;
+        try {
+            network = networkFile == null ? QueueingNetwork.coffeeShop(arrivalRate)
+                    : QueueingNetwork.read(Paths.get(networkFile));
+        } catch (IOException | IllegalArgumentException e) {
+            usage("Cannot load network: " + e.getMessage());
+        }
+        if (network.getTotalArrivalRate() == 0) {
+            usage("The network has no arrivals");
+        }
+
+        NetworkSimulation simulation = new NetworkSimulation(network, new SplitMix64(seed), duration);
+        long start = System.nanoTime();
+        simulation.runToCompletion();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.print(simulation.getReport());
+        System.out.printf("Simulated %.0f min of %d stations: %d events in %.2f s (%.1f M events/s, seed %d)%n",
+                duration, network.getStationCount(), simulation.getEventCount(), seconds,
+                simulation.getEventCount() / seconds / 1e6, seed);
+    }
+
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.println("Usage: CoffeeShopNetwork [--network file] [--arrival-rate r] [--duration minutes] [--seed n]");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,73 @@
+package coffeeshop.simulation;
+
+// Command-line entry point for the process-based model, where customers can balk at a long
+// line and renege once their patience runs out.
+// Usage: CoffeeShopProcesses [--arrival-rate 2.0] [--service-rate 1.0] [--baristas 3] [--duration 480]
+//                            [--balk-queue n] [--patience minutes] [--pay-time minutes] [--seed n]
+public class CoffeeShopProcesses {
+    public static void main(String[] args) {
+        double arrivalRate = 2.0;
+        double serviceRate = 1.0;
+        int baristas = 3;
+        double duration = 480;
+        int balkQueue = 0;
+        double patience = 0;
+        double payTime = 0;
+        long seed = System.nanoTime();
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--arrival-rate":
+                    arrivalRate = Double.parseDouble(value);
+                    break;
+                case "--service-rate":
+                    serviceRate = Double.parseDouble(value);
+                    break;
+                case "--baristas":
+                    baristas = Integer.parseInt(value);
+                    break;
+                case "--duration":
+                    duration = Double.parseDouble(value);
+                    break;
+                case "--balk-queue":
+                    balkQueue = Integer.parseInt(value);
+                    break;
+                case "--patience":
+                    patience = Double.parseDouble(value);
+                    break;
+                case "--pay-time":
+                    payTime = Double.parseDouble(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    usage("Unknown option " + option);
+            }
+        }
+
+        ProcessShop shop = new ProcessShop(new Scenario(arrivalRate, serviceRate, baristas, duration));
+        shop.setBalkQueueLength(balkQueue);
+        shop.setMeanPatience(patience);
+        shop.setPayTime(payTime);
+        shop.run(new SplitMix64(seed));
+        ProcessScheduler scheduler = shop.getScheduler();
+        System.out.println(shop.getStatistics());
+        System.out.printf("Simulated %.0f minutes in %.2f s: %d wake-ups, at most %d live processes on %s threads "
+                        + "(seed %d)%n",
+                duration, shop.getElapsedNanos() / 1e9, scheduler.getWakeUpCount(), scheduler.getMaxLiveCount(),
+                ProcessScheduler.usesVirtualThreads() ? "virtual" : "platform", seed);
+    }
+
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.println("Usage: CoffeeShopProcesses [--arrival-rate r] [--service-rate r] [--baristas n] "
+                + "[--duration minutes] [--balk-queue n] [--patience minutes] [--pay-time minutes] [--seed n]");
+        System.exit(2);
+    }
+}
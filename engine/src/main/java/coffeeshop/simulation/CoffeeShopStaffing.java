@@ -0,0 +1,67 @@
+package coffeeshop.simulation;
+
+// Command-line entry point for the staffing optimizer. The profile lists hourly arrival rates
+// in customers per minute from opening time.
+// Usage: CoffeeShopStaffing --profile 0.5,1.5,2.5,1.0,... [--service-rate 1.0] [--sla-quantile 0.9]
+//                           [--sla-wait 4] [--replications 10:160] [--seed n]
+public class CoffeeShopStaffing {
+    public static void main(String[] args) {
+        ArrivalProfile profile = null;
+        double serviceRate = 1.0;
+        double quantile = 0.9;
+        double maxWait = 4;
+        int initialReplications = 10;
+        int maxReplications = 160;
+        long seed = System.nanoTime();
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--profile":
+                    profile = ArrivalProfile.parseHourly(value);
+                    break;
+                case "--service-rate":
+                    serviceRate = Double.parseDouble(value);
+                    break;
+                case "--sla-quantile":
+                    quantile = Double.parseDouble(value);
+                    break;
+                case "--sla-wait":
+                    maxWait = Double.parseDouble(value);
+                    break;
+                case "--replications":
+                    String[] bounds = value.split(":");
+                    initialReplications = Integer.parseInt(bounds[0]);
+                    maxReplications = Integer.parseInt(bounds[bounds.length - 1]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    usage("Unknown option " + option);
+            }
+        }
+        if (profile == null) {
+            usage("--profile is required");
+        }
+
+        StaffingOptimizer optimizer = new StaffingOptimizer();
+        optimizer.setReplications(initialReplications, maxReplications);
+        StaffingPlan plan = optimizer.optimize(profile, serviceRate, new ServiceLevel(quantile, maxWait), seed);
+        System.out.println(plan);
+        System.out.printf("Searched with %d period simulations in %.2f s on %d cores (seed %d)%n",
+                plan.getSimulatedPeriods(), plan.getElapsedNanos() / 1e9,
+                Runtime.getRuntime().availableProcessors(), seed);
+    }
+
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.println("Usage: CoffeeShopStaffing --profile r1,r2,... [--service-rate r] [--sla-quantile q] "
+                + "[--sla-wait minutes] [--replications initial:max] [--seed n]");
+        System.exit(2);
+    }
+}
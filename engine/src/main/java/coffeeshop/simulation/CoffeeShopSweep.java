@@ -0,0 +1,82 @@
+package coffeeshop.simulation;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Command-line entry point for a multi-core grid sweep. Ranges are "value" or "min:max:steps";
+// the barista range is "n" or "min:max".
+// Usage: CoffeeShopSweep [--arrival-rate 0.1:2.0:20] [--service-rate 0.5:3.0:20] [--baristas 1:5]
+//                        [--replications 30] [--duration 480] [--seed n] [--output sweep.csv]
+public class CoffeeShopSweep {
+    public static void main(String[] args) throws IOException {
+        ParameterRange arrivalRates = new ParameterRange(0.1, 2.0, 20);
+        ParameterRange serviceRates = new ParameterRange(0.5, 3.0, 20);
+        int minBaristas = 1;
+        int maxBaristas = 5;
+        int replications = 30;
+        double duration = 480;
+        long seed = System.nanoTime();
+        String output = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--arrival-rate":
+                    arrivalRates = ParameterRange.parse(value);
+                    break;
+                case "--service-rate":
+                    serviceRates = ParameterRange.parse(value);
+                    break;
+                case "--baristas":
+                    String[] bounds = value.split(":");
+                    minBaristas = Integer.parseInt(bounds[0]);
+                    maxBaristas = Integer.parseInt(bounds[bounds.length - 1]);
+                    break;
+                case "--replications":
+                    replications = Integer.parseInt(value);
+                    break;
+                case "--duration":
+                    duration = Double.parseDouble(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "--output":
+                    output = value;
+                    break;
+                default:
+                    usage("Unknown option " + option);
+            }
+        }
+
+        ParameterSweep sweep = new ParameterSweep(arrivalRates, serviceRates, minBaristas, maxBaristas,
+                replications, duration);
+        Writer writer = output == null ? new OutputStreamWriter(System.out) : new FileWriter(output);
+        AtomicInteger completed = new AtomicInteger();
+
+        long start = System.nanoTime();
+        try (CsvSweepWriter csv = new CsvSweepWriter(writer)) {
+            sweep.run(seed, cell -> {
+                csv.onCellCompleted(cell);
+                completed.incrementAndGet();
+            });
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Swept %d cells x %d replications in %.2f s on %d cores (seed %d)%n",
+                completed.get(), replications, seconds, Runtime.getRuntime().availableProcessors(), seed);
+    }
+
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.println("Usage: CoffeeShopSweep [--arrival-rate min:max:steps] [--service-rate min:max:steps] "
+                + "[--baristas min:max] [--replications n] [--duration minutes] [--seed n] [--output file]");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,85 @@
+package coffeeshop.simulation;
+
+// Average wait of a baseline and an alternative scenario, the difference between them, and how
+// much the variance reduction method narrowed that difference's confidence interval.
+public final class ComparisonReport {
+    private final VarianceReduction method;
+    private final int replications;
+    private final ConfidenceInterval baselineWait;
+    private final ConfidenceInterval alternativeWait;
+    private final ConfidenceInterval difference;
+    private final double varianceReductionFactor;
+    private final long elapsedNanos;
+
+    public ComparisonReport(VarianceReduction method, double[] baselineWaits, double[] alternativeWaits,
+                            long elapsedNanos) {
+        this.method = method;
+        this.replications = baselineWaits.length;
+        this.elapsedNanos = elapsedNanos;
+        baselineWait = ConfidenceInterval.of95(baselineWaits);
+        alternativeWait = ConfidenceInterval.of95(alternativeWaits);
+
+        // Antithetic twins are averaged first; each pair is one independent observation.
+        int step = method == VarianceReduction.ANTITHETIC ? 2 : 1;
+        double[] differences = new double[replications / step];
+        for (int i = 0; i < differences.length; i++) {
+            double sum = 0;
+            for (int j = i * step; j < (i + 1) * step; j++) {
+                sum += alternativeWaits[j] - baselineWaits[j];
+            }
+            differences[i] = sum / step;
+        }
+        difference = ConfidenceInterval.of95(differences);
+
+        // Every run on its own is still a valid independent replication of its scenario, so the
+        // per-scenario variances give what the difference's variance would have been with
+        // independent streams at the same number of runs.
+        double independentVariance = (square(baselineWait.getStandardDeviation())
+                + square(alternativeWait.getStandardDeviation())) / replications;
+        double actualVariance = square(difference.getStandardDeviation()) / differences.length;
+        varianceReductionFactor = independentVariance / actualVariance;
+    }
+
+    public VarianceReduction getMethod() {
+        return method;
+    }
+
+    public int getReplications() {
+        return replications;
+    }
+
+    public ConfidenceInterval getBaselineWait() {
+        return baselineWait;
+    }
+
+    public ConfidenceInterval getAlternativeWait() {
+        return alternativeWait;
+    }
+
+    // Alternative minus baseline.
+    public ConfidenceInterval getDifference() {
+        return difference;
+    }
+
+    // Variance of the estimated difference with independent streams divided by its variance
+    // under this report's method, at the same number of runs. Also roughly how many times more
+    // replications independent streams would need for the same interval width.
+    public double getVarianceReductionFactor() {
+        return varianceReductionFactor;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    private static double square(double x) {
+        return x * x;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Replications: %d (%s) | Avg wait: baseline %s min, alternative %s min | "
+                        + "Difference: %s min | Variance reduction factor: %.1f",
+                replications, method, baselineWait, alternativeWait, difference, varianceReductionFactor);
+    }
+}
@@ -0,0 +1,84 @@
+package coffeeshop.simulation;
+
+// Student-t confidence interval for the mean of independent, identically distributed samples.
+public final class ConfidenceInterval {
+    // Two-sided 95% critical values for 1..30 degrees of freedom.
+    private static final double[] T_95 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042
+    };
+    private static final double Z_975 = 1.959964;
+
+    private final double mean;
+    private final double standardDeviation;
+    private final double halfWidth;
+    private final int sampleCount;
+
+    private ConfidenceInterval(double mean, double standardDeviation, double halfWidth, int sampleCount) {
+        this.mean = mean;
+        this.standardDeviation = standardDeviation;
+        this.halfWidth = halfWidth;
+        this.sampleCount = sampleCount;
+    }
+
+    public static ConfidenceInterval of95(double[] samples) {
+        int n = samples.length;
+        if (n == 0) {
+            return new ConfidenceInterval(Double.NaN, Double.NaN, Double.NaN, 0);
+        }
+        double mean = 0;
+        double m2 = 0;
+        for (int i = 0; i < n; i++) {
+            double delta = samples[i] - mean;
+            mean += delta / (i + 1);
+            m2 += delta * (samples[i] - mean);
+        }
+        if (n == 1) {
+            return new ConfidenceInterval(mean, Double.NaN, Double.POSITIVE_INFINITY, 1);
+        }
+        double standardDeviation = Math.sqrt(m2 / (n - 1));
+        double halfWidth = tCritical95(n - 1) * standardDeviation / Math.sqrt(n);
+        return new ConfidenceInterval(mean, standardDeviation, halfWidth, n);
+    }
+
+    static double tCritical95(int degreesOfFreedom) {
+        if (degreesOfFreedom <= T_95.length) {
+            return T_95[degreesOfFreedom - 1];
+        }
+        // Cornish-Fisher expansion around the normal quantile; accurate to 3 decimals past 30 df.
+        double z = Z_975;
+        double df = degreesOfFreedom;
+        return z + (z * z * z + z) / (4 * df)
+                + (5 * Math.pow(z, 5) + 16 * z * z * z + 3 * z) / (96 * df * df);
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    public double getHalfWidth() {
+        return halfWidth;
+    }
+
+    public double getLower() {
+        return mean - halfWidth;
+    }
+
+    public double getUpper() {
+        return mean + halfWidth;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.3f +/- %.3f", mean, halfWidth);
+    }
+}
@@ -0,0 +1,49 @@
+package coffeeshop.simulation;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Locale;
+
+// Streams one CSV row per finished sweep cell. Rows are flushed as they arrive so partial
+// results survive an interrupted sweep.
+public class CsvSweepWriter implements SweepListener, Closeable {
+    private static final String HEADER = "arrival_rate,service_rate,baristas,replications,"
+            + "avg_wait_mean,avg_wait_ci,max_queue_mean,max_queue_ci,utilization_mean,utilization_ci";
+
+    private final BufferedWriter writer;
+
+    public CsvSweepWriter(Writer writer) {
+        this.writer = new BufferedWriter(writer);
+        writeLine(HEADER);
+    }
+
+    @Override
+    public void onCellCompleted(SweepCell cell) {
+        Scenario scenario = cell.getScenario();
+        ReplicationReport report = cell.getReport();
+        writeLine(String.format(Locale.ROOT, "%.4f,%.4f,%d,%d,%.4f,%.4f,%.4f,%.4f,%.4f,%.4f",
+                scenario.getArrivalRate(), scenario.getServiceRate(), scenario.getNumBaristas(),
+                report.getReplicationCount(),
+                report.getAverageWait().getMean(), report.getAverageWait().getHalfWidth(),
+                report.getMaxQueueLength().getMean(), report.getMaxQueueLength().getHalfWidth(),
+                report.getUtilization().getMean(), report.getUtilization().getHalfWidth()));
+    }
+
+    private synchronized void writeLine(String line) {
+        try {
+            writer.write(line);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,42 @@
+package coffeeshop.simulation;
+
+public class Customer {
+    private final int id;
+    private final double arrivalTime;
+    private double waitTime;
+    private double serviceEndTime;
+
+    public Customer(double arrivalTime) {
+        this(-1, arrivalTime);
+    }
+
+    public Customer(int id, double arrivalTime) {
+        this.id = id;
+        this.arrivalTime = arrivalTime;
+    }
+
+    // Sequential in order of arrival within a run, or -1 when not assigned.
+    public int getId() {
+        return id;
+    }
+
+    public double getArrivalTime() {
+        return arrivalTime;
+    }
+
+    public void setWaitTime(double waitTime) {
+        this.waitTime = waitTime;
+    }
+
+    public double getWaitTime() {
+        return waitTime;
+    }
+
+    public void setServiceEndTime(double serviceEndTime) {
+        this.serviceEndTime = serviceEndTime;
+    }
+
+    public double getServiceEndTime() {
+        return serviceEndTime;
+    }
+}
@@ -0,0 +1,115 @@
+package coffeeshop.simulation;
+
+import java.util.Arrays;
+
+// The customers currently in the shop, as parallel primitive arrays indexed by slot. A slot
+// is taken on arrival and given back when service ends (or, for a customer who gave up waiting,
+// when they reach the front of the line), so the arrays only grow to the most
+// customers ever in the shop at once and a run in steady state allocates nothing.
+final class CustomerStore {
+    private int[] ids;
+    private double[] arrivalTimes;
+    private double[] waitTimes;
+    private int[] patienceTimers; // timer wheel handle, -1 when not in the wheel
+    private int[] renegeEvents; // event list handle, -1 when not on the event list
+    private boolean[] abandoned;
+    private int[] freeSlots;
+    private int freeCount = 0;
+    private int slotLimit = 0; // slots below this have been handed out at least once
+
+    CustomerStore(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        ids = new int[capacity];
+        arrivalTimes = new double[capacity];
+        waitTimes = new double[capacity];
+        patienceTimers = new int[capacity];
+        renegeEvents = new int[capacity];
+        abandoned = new boolean[capacity];
+        freeSlots = new int[capacity];
+    }
+
+    int add(int id, double arrivalTime) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotLimit == ids.length) {
+                grow();
+            }
+            slot = slotLimit++;
+        }
+        ids[slot] = id;
+        arrivalTimes[slot] = arrivalTime;
+        waitTimes[slot] = 0;
+        patienceTimers[slot] = -1;
+        renegeEvents[slot] = -1;
+        abandoned[slot] = false;
+        return slot;
+    }
+
+    void release(int slot) {
+        freeSlots[freeCount++] = slot;
+    }
+
+    // Customers currently holding a slot.
+    int size() {
+        return slotLimit - freeCount;
+    }
+
+    int getId(int slot) {
+        return ids[slot];
+    }
+
+    double getArrivalTime(int slot) {
+        return arrivalTimes[slot];
+    }
+
+    double getWaitTime(int slot) {
+        return waitTimes[slot];
+    }
+
+    void setWaitTime(int slot, double waitTime) {
+        waitTimes[slot] = waitTime;
+    }
+
+    int getPatienceTimer(int slot) {
+        return patienceTimers[slot];
+    }
+
+    void setPatienceTimer(int slot, int handle) {
+        patienceTimers[slot] = handle;
+    }
+
+    int getRenegeEvent(int slot) {
+        return renegeEvents[slot];
+    }
+
+    void setRenegeEvent(int slot, int handle) {
+        renegeEvents[slot] = handle;
+    }
+
+    // Gave up waiting but is still in the line until polled.
+    boolean isAbandoned(int slot) {
+        return abandoned[slot];
+    }
+
+    void setAbandoned(int slot) {
+        abandoned[slot] = true;
+    }
+
+    void clear() {
+        freeCount = 0;
+        slotLimit = 0;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        arrivalTimes = Arrays.copyOf(arrivalTimes, capacity);
+        waitTimes = Arrays.copyOf(waitTimes, capacity);
+        patienceTimers = Arrays.copyOf(patienceTimers, capacity);
+        renegeEvents = Arrays.copyOf(renegeEvents, capacity);
+        abandoned = Arrays.copyOf(abandoned, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+}
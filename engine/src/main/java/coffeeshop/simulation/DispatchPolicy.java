@@ -0,0 +1,30 @@
+package coffeeshop.simulation;
+
+// How an arriving customer picks among idle baristas.
+public enum DispatchPolicy {
+    FIRST_FREE("First free"),
+    LEAST_UTILIZED("Least utilized"),
+    RANDOM("Random");
+
+    private final String label;
+
+    DispatchPolicy(String label) {
+        this.label = label;
+    }
+
+    IdleBaristaIndex newIndex() {
+        switch (this) {
+            case LEAST_UTILIZED:
+                return new IdleBaristaIndex.LeastUtilized();
+            case RANDOM:
+                return new IdleBaristaIndex.RandomPick();
+            default:
+                return new IdleBaristaIndex.FirstFree();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
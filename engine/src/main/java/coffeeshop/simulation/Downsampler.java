@@ -0,0 +1,76 @@
+package coffeeshop.simulation;
+
+// Largest-Triangle-Three-Buckets downsampling (Steinarsson, 2013). Keeps the first and last
+// point and, from each bucket in between, the point forming the largest triangle with the
+// previously kept point and the average of the next bucket, which preserves the visual
+// shape of a series with far fewer points.
+public final class Downsampler {
+    private Downsampler() {
+    }
+
+    // Downsamples points [from, to) of the series into at most threshold points written to
+    // outX/outY, returning the number written.
+    public static int lttb(TimeSeriesBuffer series, int from, int to, int threshold, double[] outX, double[] outY) {
+        int count = to - from;
+        if (count <= 0) {
+            return 0;
+        }
+        if (threshold >= count || threshold < 3) {
+            int n = Math.min(count, outX.length);
+            for (int i = 0; i < n; i++) {
+                outX[i] = series.getX(from + i);
+                outY[i] = series.getY(from + i);
+            }
+            return n;
+        }
+
+        double bucketSize = (double) (count - 2) / (threshold - 2);
+        int kept = 0;
+        int selected = from;
+        outX[kept] = series.getX(selected);
+        outY[kept] = series.getY(selected);
+        kept++;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int nextStart = from + 1 + (int) ((bucket + 1) * bucketSize);
+            int nextEnd = Math.min(from + 1 + (int) ((bucket + 2) * bucketSize), to);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += series.getX(i);
+                avgY += series.getY(i);
+            }
+            int nextCount = nextEnd - nextStart;
+            if (nextCount > 0) {
+                avgX /= nextCount;
+                avgY /= nextCount;
+            } else {
+                avgX = series.getX(to - 1);
+                avgY = series.getY(to - 1);
+            }
+
+            int bucketStart = from + 1 + (int) (bucket * bucketSize);
+            int bucketEnd = nextStart;
+            double pointX = series.getX(selected);
+            double pointY = series.getY(selected);
+            double maxArea = -1;
+            int best = bucketStart;
+            for (int i = bucketStart; i < bucketEnd; i++) {
+                double area = Math.abs((pointX - avgX) * (series.getY(i) - pointY)
+                        - (pointX - series.getX(i)) * (avgY - pointY));
+                if (area > maxArea) {
+                    maxArea = area;
+                    best = i;
+                }
+            }
+            selected = best;
+            outX[kept] = series.getX(selected);
+            outY[kept] = series.getY(selected);
+            kept++;
+        }
+
+        outX[kept] = series.getX(to - 1);
+        outY[kept] = series.getY(to - 1);
+        return kept + 1;
+    }
+}
@@ -0,0 +1,70 @@
+package coffeeshop.simulation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+// The engine's instruments in a registry, resolved once so a batch costs a few adds. Only
+// batch boundaries are measured; nothing is added to the per-event path.
+final class EngineMetrics {
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private final MetricsRegistry.Counter events;
+    private final MetricsRegistry.Counter customers;
+    private final MetricsRegistry.Counter allocatedBytes;
+    private final MetricsRegistry.Timer batches;
+    private final MetricsRegistry.Gauge eventListSize;
+    private final MetricsRegistry.Gauge queueLength;
+    private final MetricsRegistry.Gauge simulatedTime;
+    private final MetricsRegistry.Gauge eventsPerSecond;
+    private final MetricsRegistry.Gauge bytesPerCustomer;
+
+    EngineMetrics(MetricsRegistry registry) {
+        events = registry.counter("engine.events");
+        customers = registry.counter("engine.customers");
+        allocatedBytes = registry.counter("engine.allocatedBytes");
+        batches = registry.timer("engine.batch");
+        eventListSize = registry.gauge("engine.eventListSize");
+        queueLength = registry.gauge("engine.queueLength");
+        simulatedTime = registry.gauge("engine.simulatedTime");
+        eventsPerSecond = registry.gauge("engine.eventsPerSecond");
+        bytesPerCustomer = registry.gauge("engine.bytesPerCustomer");
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+            if (counter.isThreadAllocatedMemorySupported() && counter.isThreadAllocatedMemoryEnabled()) {
+                return counter;
+            }
+        }
+        return null;
+    }
+
+    // Bytes allocated so far by the calling thread, or -1 where the JVM cannot tell.
+    static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // eventsPerSecond is over engine time only, so it excludes pacing sleeps and UI work.
+    void recordBatch(int batchEvents, int batchCustomers, long nanos, long batchBytes,
+                     int pendingEvents, int queued, double time) {
+        events.add(batchEvents);
+        customers.add(batchCustomers);
+        batches.record(nanos);
+        eventListSize.set(pendingEvents);
+        queueLength.set(queued);
+        simulatedTime.set(time);
+        long busyNanos = batches.getTotalNanos();
+        if (busyNanos > 0) {
+            eventsPerSecond.set(events.get() * 1e9 / busyNanos);
+        }
+        if (batchBytes >= 0) {
+            allocatedBytes.add(batchBytes);
+            long arrived = customers.get();
+            if (arrived > 0) {
+                bytesPerCustomer.set((double) allocatedBytes.get() / arrived);
+            }
+        }
+    }
+}
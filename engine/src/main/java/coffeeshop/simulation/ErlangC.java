@@ -0,0 +1,132 @@
+package coffeeshop.simulation;
+
+// Closed-form steady-state results for the M/M/c queue the engine simulates: Poisson arrivals,
+// exponential service and c identical baristas serving one FIFO queue. Computing them takes
+// O(c) arithmetic, so they can be refreshed on every slider move. When the offered load is at
+// or above capacity there is no steady state and the waiting measures are infinite.
+public final class ErlangC {
+    private final double arrivalRate;
+    private final double serviceRate;
+    private final int servers;
+    private final double utilization;
+    private final double waitProbability;
+    private final double drainRate; // c * mu - lambda, the decay rate of the waiting time tail
+
+    public ErlangC(double arrivalRate, double serviceRate, int servers) {
+        if (arrivalRate <= 0 || serviceRate <= 0) {
+            throw new IllegalArgumentException("Arrival and service rates must be positive");
+        }
+        if (servers < 1) {
+            throw new IllegalArgumentException("At least one server is required");
+        }
+        this.arrivalRate = arrivalRate;
+        this.serviceRate = serviceRate;
+        this.servers = servers;
+        double offeredLoad = arrivalRate / serviceRate;
+        this.utilization = offeredLoad / servers;
+        this.drainRate = servers * serviceRate - arrivalRate;
+        this.waitProbability = utilization >= 1 ? 1 : erlangC(offeredLoad, servers, utilization);
+    }
+
+    // Erlang B by its stable recurrence, then converted to Erlang C. Avoids the factorials and
+    // powers of the textbook formula, which overflow long before 200 servers.
+    private static double erlangC(double offeredLoad, int servers, double utilization) {
+        double blocking = 1;
+        for (int k = 1; k <= servers; k++) {
+            blocking = offeredLoad * blocking / (k + offeredLoad * blocking);
+        }
+        return blocking / (1 - utilization * (1 - blocking));
+    }
+
+    // Fewest servers whose steady state meets "the given quantile of waits is at most maxWait".
+    public static int requiredServers(double arrivalRate, double serviceRate, double quantile, double maxWait) {
+        if (arrivalRate <= 0) {
+            return 1;
+        }
+        int servers = Math.max(1, (int) Math.floor(arrivalRate / serviceRate));
+        while (new ErlangC(arrivalRate, serviceRate, servers).getWaitPercentile(quantile) > maxWait) {
+            servers++;
+        }
+        return servers;
+    }
+
+    public boolean isStable() {
+        return utilization < 1;
+    }
+
+    public double getArrivalRate() {
+        return arrivalRate;
+    }
+
+    public double getServiceRate() {
+        return serviceRate;
+    }
+
+    public int getServers() {
+        return servers;
+    }
+
+    // Long-run fraction of barista time spent serving; above 1 when overloaded.
+    public double getUtilization() {
+        return utilization;
+    }
+
+    // Probability that an arriving customer has to queue.
+    public double getWaitProbability() {
+        return waitProbability;
+    }
+
+    public double getMeanWait() {
+        return isStable() ? waitProbability / drainRate : Double.POSITIVE_INFINITY;
+    }
+
+    public double getMeanQueueLength() {
+        return arrivalRate * getMeanWait();
+    }
+
+    public double getMeanTimeInSystem() {
+        return getMeanWait() + 1 / serviceRate;
+    }
+
+    // P(wait > t) = C * exp(-(c mu - lambda) t).
+    public double getWaitExceedanceProbability(double minutes) {
+        if (!isStable()) {
+            return 1;
+        }
+        return minutes < 0 ? 1 : waitProbability * Math.exp(-drainRate * minutes);
+    }
+
+    // Wait not exceeded by the given fraction of customers; zero when at least that fraction
+    // is served without queueing.
+    public double getWaitPercentile(double quantile) {
+        if (!isStable()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (quantile <= 1 - waitProbability) {
+            return 0;
+        }
+        return Math.log(waitProbability / (1 - quantile)) / drainRate;
+    }
+
+    // Whether the steady-state mean wait lies inside a confidence interval on the simulated one,
+    // built from independent replications or batch means. A single run has no sampling error
+    // to judge against, so it gets no verdict. Always false for an unstable system.
+    public boolean agreesWith(ConfidenceInterval simulatedMeanWait) {
+        if (!isStable()) {
+            return false;
+        }
+        double meanWait = getMeanWait();
+        return meanWait >= simulatedMeanWait.getLower() && meanWait <= simulatedMeanWait.getUpper();
+    }
+
+    @Override
+    public String toString() {
+        if (!isStable()) {
+            return String.format("Utilization: %.1f%% | Unstable: the queue grows without bound", utilization * 100);
+        }
+        return String.format("Utilization: %.1f%% | P(wait): %.3f | Avg wait: %.2f min | Avg queue: %.2f | "
+                        + "p50/p90/p99 wait: %.2f/%.2f/%.2f min",
+                utilization * 100, waitProbability, getMeanWait(), getMeanQueueLength(),
+                getWaitPercentile(0.5), getWaitPercentile(0.9), getWaitPercentile(0.99));
+    }
+}
@@ -0,0 +1,269 @@
+package coffeeshop.simulation;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+// Future-event list stored as a 4-ary min-heap over parallel primitive arrays, so
+// scheduling and dispatching an event allocates nothing. Events with equal times are
+// dispatched in the order they were scheduled.
+//
+// add() returns a handle that can cancel or reschedule the event in O(log n). A handle is
+// valid until its event is polled or cancelled; after that it may be reused.
+final class EventList {
+    private static final int ARITY = 4;
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private double[] times;
+    private long[] sequence;
+    private int[] types;
+    private int[] entities;
+    private int[] handles;
+    private int size = 0;
+    private long nextSequence = 0;
+
+    private int[] handlePositions; // heap index of each live handle, -1 when free
+    private int[] freeHandles;
+    private int freeHandleCount = 0;
+    private int handleLimit = 0; // handles below this have been issued at least once
+
+    private double polledTime;
+    private int polledEntity;
+
+    public EventList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public EventList(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        times = new double[capacity];
+        sequence = new long[capacity];
+        types = new int[capacity];
+        entities = new int[capacity];
+        handles = new int[capacity];
+        handlePositions = new int[capacity];
+        freeHandles = new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+        nextSequence = 0;
+        freeHandleCount = 0;
+        handleLimit = 0;
+    }
+
+    public double peekTime() {
+        if (size == 0) {
+            throw new IllegalStateException("Event list is empty");
+        }
+        return times[0];
+    }
+
+    public int add(double time, int type, int entity) {
+        if (size == times.length) {
+            grow();
+        }
+        int handle = freeHandleCount > 0 ? freeHandles[--freeHandleCount] : handleLimit++;
+        siftUp(size, time, nextSequence++, type, entity, handle);
+        size++;
+        return handle;
+    }
+
+    // Removes the earliest event and returns its type; its time and entity are then
+    // available from getPolledTime() and getPolledEntity().
+    public int poll() {
+        if (size == 0) {
+            throw new IllegalStateException("Event list is empty");
+        }
+        int type = types[0];
+        polledTime = times[0];
+        polledEntity = entities[0];
+        removeAt(0);
+        return type;
+    }
+
+    public double getPolledTime() {
+        return polledTime;
+    }
+
+    public int getPolledEntity() {
+        return polledEntity;
+    }
+
+    public boolean isScheduled(int handle) {
+        return handle >= 0 && handle < handleLimit && handlePositions[handle] >= 0;
+    }
+
+    public double getTime(int handle) {
+        return times[position(handle)];
+    }
+
+    public void cancel(int handle) {
+        removeAt(position(handle));
+    }
+
+    // Moves the event to a new time. It is ordered after any event already scheduled for
+    // that time, as if it had just been added.
+    public void reschedule(int handle, double time) {
+        int index = position(handle);
+        double oldTime = times[index];
+        long seq = nextSequence++;
+        if (time < oldTime) {
+            siftUp(index, time, seq, types[index], entities[index], handle);
+        } else {
+            siftDown(index, time, seq, types[index], entities[index], handle);
+        }
+    }
+
+    // Passes the entity of every pending event of the given type through the mapping, for
+    // owners whose entity numbers change when they are restored.
+    void remapEntities(int type, IntUnaryOperator mapping) {
+        for (int i = 0; i < size; i++) {
+            if (types[i] == type) {
+                entities[i] = mapping.applyAsInt(entities[i]);
+            }
+        }
+    }
+
+    int serializedSize() {
+        return 4 * Integer.BYTES + Long.BYTES
+                + size * (Double.BYTES + Long.BYTES + 3 * Integer.BYTES)
+                + freeHandleCount * Integer.BYTES;
+    }
+
+    // Writes the heap exactly as laid out, so a restored list dispatches in the same order
+    // and every outstanding handle stays valid.
+    void writeTo(ByteBuffer buffer) {
+        buffer.putInt(size).putLong(nextSequence).putInt(handleLimit).putInt(freeHandleCount)
+                .putInt(times.length);
+        for (int i = 0; i < size; i++) {
+            buffer.putDouble(times[i]).putLong(sequence[i]).putInt(types[i]).putInt(entities[i]).putInt(handles[i]);
+        }
+        for (int i = 0; i < freeHandleCount; i++) {
+            buffer.putInt(freeHandles[i]);
+        }
+    }
+
+    static EventList readFrom(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        long nextSequence = buffer.getLong();
+        int handleLimit = buffer.getInt();
+        int freeHandleCount = buffer.getInt();
+        EventList list = new EventList(buffer.getInt());
+        Arrays.fill(list.handlePositions, 0, handleLimit, -1);
+        for (int i = 0; i < size; i++) {
+            list.set(i, buffer.getDouble(), buffer.getLong(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+        }
+        for (int i = 0; i < freeHandleCount; i++) {
+            list.freeHandles[i] = buffer.getInt();
+        }
+        list.size = size;
+        list.nextSequence = nextSequence;
+        list.handleLimit = handleLimit;
+        list.freeHandleCount = freeHandleCount;
+        return list;
+    }
+
+    private int position(int handle) {
+        if (!isScheduled(handle)) {
+            throw new IllegalArgumentException("Event handle " + handle + " is not scheduled");
+        }
+        return handlePositions[handle];
+    }
+
+    private void removeAt(int index) {
+        int handle = handles[index];
+        handlePositions[handle] = -1;
+        freeHandles[freeHandleCount++] = handle;
+
+        size--;
+        if (index == size) {
+            return;
+        }
+        double time = times[size];
+        long seq = sequence[size];
+        int type = types[size];
+        int entity = entities[size];
+        int movedHandle = handles[size];
+        if (index > 0 && before(time, seq, times[(index - 1) / ARITY], sequence[(index - 1) / ARITY])) {
+            siftUp(index, time, seq, type, entity, movedHandle);
+        } else {
+            siftDown(index, time, seq, type, entity, movedHandle);
+        }
+    }
+
+    private void siftUp(int index, double time, long seq, int type, int entity, int handle) {
+        while (index > 0) {
+            int parent = (index - 1) / ARITY;
+            if (!before(time, seq, times[parent], sequence[parent])) {
+                break;
+            }
+            move(parent, index);
+            index = parent;
+        }
+        set(index, time, seq, type, entity, handle);
+    }
+
+    private void siftDown(int index, double time, long seq, int type, int entity, int handle) {
+        while (true) {
+            int firstChild = index * ARITY + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int smallest = firstChild;
+            int lastChild = Math.min(firstChild + ARITY, size);
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                if (before(times[child], sequence[child], times[smallest], sequence[smallest])) {
+                    smallest = child;
+                }
+            }
+            if (!before(times[smallest], sequence[smallest], time, seq)) {
+                break;
+            }
+            move(smallest, index);
+            index = smallest;
+        }
+        set(index, time, seq, type, entity, handle);
+    }
+
+    private static boolean before(double time, long seq, double otherTime, long otherSeq) {
+        return time < otherTime || (time == otherTime && seq < otherSeq);
+    }
+
+    private void move(int from, int to) {
+        times[to] = times[from];
+        sequence[to] = sequence[from];
+        types[to] = types[from];
+        entities[to] = entities[from];
+        handles[to] = handles[from];
+        handlePositions[handles[to]] = to;
+    }
+
+    private void set(int index, double time, long seq, int type, int entity, int handle) {
+        times[index] = time;
+        sequence[index] = seq;
+        types[index] = type;
+        entities[index] = entity;
+        handles[index] = handle;
+        handlePositions[handle] = index;
+    }
+
+    private void grow() {
+        int capacity = times.length * 2;
+        times = Arrays.copyOf(times, capacity);
+        sequence = Arrays.copyOf(sequence, capacity);
+        types = Arrays.copyOf(types, capacity);
+        entities = Arrays.copyOf(entities, capacity);
+        handles = Arrays.copyOf(handles, capacity);
+        handlePositions = Arrays.copyOf(handlePositions, capacity);
+        freeHandles = Arrays.copyOf(freeHandles, capacity);
+    }
+}
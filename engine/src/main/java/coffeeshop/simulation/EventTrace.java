@@ -0,0 +1,79 @@
+package coffeeshop.simulation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Read-only view of a trace written by EventTraceWriter. Blocks are mapped straight from the
+// file, so opening a trace costs nothing per record and any record can be read directly.
+public final class EventTrace {
+    private static final TraceEventType[] TYPES = TraceEventType.values();
+
+    private final MappedByteBuffer[] blocks;
+    private final long size;
+
+    private EventTrace(MappedByteBuffer[] blocks, long size) {
+        this.blocks = blocks;
+        this.size = size;
+    }
+
+    public static EventTrace open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(EventTraceWriter.HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < EventTraceWriter.HEADER_SIZE
+                    || header.getInt() != EventTraceWriter.MAGIC) {
+                throw new IOException("Not an event trace: " + path);
+            }
+            int version = header.getInt();
+            if (version != EventTraceWriter.VERSION) {
+                throw new IOException("Unsupported event trace version " + version);
+            }
+            if (header.getInt() != EventTraceWriter.BLOCK_RECORDS) {
+                throw new IOException("Unsupported event trace block size");
+            }
+            header.getInt();
+            long size = header.getLong();
+
+            int blockCount = (int) ((size + EventTraceWriter.BLOCK_RECORDS - 1) / EventTraceWriter.BLOCK_RECORDS);
+            MappedByteBuffer[] blocks = new MappedByteBuffer[blockCount];
+            for (int b = 0; b < blockCount; b++) {
+                long offset = EventTraceWriter.HEADER_SIZE + (long) b * EventTraceWriter.BLOCK_SIZE;
+                blocks[b] = channel.map(FileChannel.MapMode.READ_ONLY, offset, EventTraceWriter.BLOCK_SIZE);
+            }
+            return new EventTrace(blocks, size);
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public double getTime(long record) {
+        return block(record).getDouble(slot(record) * Double.BYTES);
+    }
+
+    public TraceEventType getType(long record) {
+        return TYPES[block(record).get(EventTraceWriter.TYPES_OFFSET + slot(record))];
+    }
+
+    public int getCustomer(long record) {
+        return block(record).getInt(EventTraceWriter.CUSTOMERS_OFFSET + slot(record) * Integer.BYTES);
+    }
+
+    public int getBarista(long record) {
+        return block(record).getInt(EventTraceWriter.BARISTAS_OFFSET + slot(record) * Integer.BYTES);
+    }
+
+    private MappedByteBuffer block(long record) {
+        return blocks[(int) (record / EventTraceWriter.BLOCK_RECORDS)];
+    }
+
+    private static int slot(long record) {
+        return (int) (record % EventTraceWriter.BLOCK_RECORDS);
+    }
+}
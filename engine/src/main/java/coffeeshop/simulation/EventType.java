@@ -0,0 +1,9 @@
+package coffeeshop.simulation;
+
+enum EventType {
+    CUSTOMER_ARRIVAL,
+    SERVICE_COMPLETION,
+    STATISTICS_REPORT,
+    TRANSFER_ARRIVAL, // a customer sent over from another store
+    CUSTOMER_RENEGE // a waiting customer's patience has run out
+}
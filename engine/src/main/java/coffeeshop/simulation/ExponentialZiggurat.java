@@ -0,0 +1,54 @@
+package coffeeshop.simulation;
+
+// Standard exponential variates by the ziggurat method of Marsaglia and Tsang (2000), with 256
+// layers. One 64-bit draw picks a layer with its low 8 bits and a position with its high 53;
+// about 98.9% of draws land inside the layer's rectangle and return after one multiply. The
+// rest take the exact wedge test or, in the base layer, the memoryless tail.
+final class ExponentialZiggurat {
+    private static final int LAYERS = 256;
+    private static final double R = 7.69711747013104972; // start of the tail
+    private static final double V = 3.949659822581572e-3; // area of each layer
+    private static final double UNIT = 0x1.0p-53;
+
+    private static final long[] K = new long[LAYERS]; // u < K[i] means inside layer i's rectangle
+    private static final double[] W = new double[LAYERS]; // layer width scaled by 2^-53
+    private static final double[] F = new double[LAYERS + 1]; // density at each layer's edge
+
+    static {
+        double[] x = new double[LAYERS + 1];
+        x[0] = V / Math.exp(-R);
+        x[1] = R;
+        for (int i = 1; i < LAYERS - 1; i++) {
+            x[i + 1] = -Math.log(V / x[i] + Math.exp(-x[i]));
+        }
+        x[LAYERS] = 0;
+        for (int i = 0; i < LAYERS; i++) {
+            K[i] = (long) (x[i + 1] / x[i] * 0x1.0p53);
+            W[i] = x[i] * UNIT;
+        }
+        for (int i = 0; i <= LAYERS; i++) {
+            F[i] = Math.exp(-x[i]);
+        }
+    }
+
+    private ExponentialZiggurat() {
+    }
+
+    static double sample(SplitMix64 random) {
+        while (true) {
+            long bits = random.nextLong();
+            int layer = (int) bits & (LAYERS - 1);
+            long u = bits >>> 11;
+            if (u < K[layer]) {
+                return u * W[layer];
+            }
+            if (layer == 0) {
+                return R - Math.log(random.nextUniform());
+            }
+            double x = u * W[layer];
+            if (F[layer] + random.nextDouble() * (F[layer + 1] - F[layer]) < Math.exp(-x)) {
+                return x;
+            }
+        }
+    }
+}
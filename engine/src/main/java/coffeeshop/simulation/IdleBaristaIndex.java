@@ -0,0 +1,287 @@
+package coffeeshop.simulation;
+
+import java.util.Arrays;
+
+// Set of idle barista ids that hands out the next barista to serve without scanning the
+// whole staff. Each dispatch policy keeps its own structure.
+abstract class IdleBaristaIndex {
+    // busyTime is the barista's accumulated busy time, which some policies order by.
+    public abstract void add(int id, double busyTime);
+
+    public abstract void remove(int id);
+
+    // Removes and returns the barista chosen by the policy, or -1 if nobody is idle.
+    public abstract int take(SplitMix64 random);
+
+    public abstract int size();
+
+    // Ids in internal order. Adding them back in this order to an empty index of the same
+    // policy rebuilds an identical structure, which keeps restored runs deterministic.
+    public abstract int[] toArray();
+
+    public abstract void clear();
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // Lowest idle id first, from a bitset. take() skips 64 ids per word.
+    static final class FirstFree extends IdleBaristaIndex {
+        private long[] words = new long[1];
+        private int size = 0;
+
+        @Override
+        public void add(int id, double busyTime) {
+            int word = id >>> 6;
+            if (word >= words.length) {
+                words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+            }
+            if ((words[word] & (1L << id)) == 0) {
+                words[word] |= 1L << id;
+                size++;
+            }
+        }
+
+        @Override
+        public void remove(int id) {
+            int word = id >>> 6;
+            if (word < words.length && (words[word] & (1L << id)) != 0) {
+                words[word] &= ~(1L << id);
+                size--;
+            }
+        }
+
+        @Override
+        public int take(SplitMix64 random) {
+            if (size == 0) {
+                return -1;
+            }
+            for (int word = 0; word < words.length; word++) {
+                if (words[word] != 0) {
+                    int id = (word << 6) + Long.numberOfTrailingZeros(words[word]);
+                    words[word] &= words[word] - 1;
+                    size--;
+                    return id;
+                }
+            }
+            throw new IllegalStateException("Idle index size is out of sync");
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int[] toArray() {
+            int[] ids = new int[size];
+            int n = 0;
+            for (int word = 0; word < words.length; word++) {
+                long bits = words[word];
+                while (bits != 0) {
+                    ids[n++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                }
+            }
+            return ids;
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(words, 0);
+            size = 0;
+        }
+    }
+
+    // Idle barista with the least accumulated busy time first. Busy time does not change
+    // while a barista is idle, so a binary heap keyed at insertion stays valid.
+    static final class LeastUtilized extends IdleBaristaIndex {
+        private int[] heap = new int[16];
+        private double[] keys = new double[16];
+        private int[] positions = new int[16]; // heap slot per id, -1 when absent
+        private int size = 0;
+
+        LeastUtilized() {
+            Arrays.fill(positions, -1);
+        }
+
+        @Override
+        public void add(int id, double busyTime) {
+            ensureId(id);
+            if (positions[id] >= 0) {
+                return;
+            }
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            siftUp(size++, id, busyTime);
+        }
+
+        @Override
+        public void remove(int id) {
+            if (id < positions.length && positions[id] >= 0) {
+                removeAt(positions[id]);
+            }
+        }
+
+        @Override
+        public int take(SplitMix64 random) {
+            if (size == 0) {
+                return -1;
+            }
+            int id = heap[0];
+            removeAt(0);
+            return id;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int[] toArray() {
+            return Arrays.copyOf(heap, size);
+        }
+
+        @Override
+        public void clear() {
+            for (int i = 0; i < size; i++) {
+                positions[heap[i]] = -1;
+            }
+            size = 0;
+        }
+
+        private void removeAt(int index) {
+            positions[heap[index]] = -1;
+            size--;
+            if (index == size) {
+                return;
+            }
+            int id = heap[size];
+            double key = keys[size];
+            if (index > 0 && key < keys[(index - 1) / 2]) {
+                siftUp(index, id, key);
+            } else {
+                siftDown(index, id, key);
+            }
+        }
+
+        private void siftUp(int index, int id, double key) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                place(index, heap[parent], keys[parent]);
+                index = parent;
+            }
+            place(index, id, key);
+        }
+
+        private void siftDown(int index, int id, double key) {
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                place(index, heap[child], keys[child]);
+                index = child;
+            }
+            place(index, id, key);
+        }
+
+        private void place(int index, int id, double key) {
+            heap[index] = id;
+            keys[index] = key;
+            positions[id] = index;
+        }
+
+        private void ensureId(int id) {
+            if (id >= positions.length) {
+                int oldLength = positions.length;
+                positions = Arrays.copyOf(positions, Math.max(id + 1, oldLength * 2));
+                Arrays.fill(positions, oldLength, positions.length, -1);
+            }
+        }
+    }
+
+    // Uniformly random idle barista, from a dense array with swap-remove.
+    static final class RandomPick extends IdleBaristaIndex {
+        private int[] ids = new int[16];
+        private int[] positions = new int[16]; // slot in ids per id, -1 when absent
+        private int size = 0;
+
+        RandomPick() {
+            Arrays.fill(positions, -1);
+        }
+
+        @Override
+        public void add(int id, double busyTime) {
+            if (id >= positions.length) {
+                int oldLength = positions.length;
+                positions = Arrays.copyOf(positions, Math.max(id + 1, oldLength * 2));
+                Arrays.fill(positions, oldLength, positions.length, -1);
+            }
+            if (positions[id] >= 0) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size] = id;
+            positions[id] = size++;
+        }
+
+        @Override
+        public void remove(int id) {
+            if (id < positions.length && positions[id] >= 0) {
+                removeAt(positions[id]);
+            }
+        }
+
+        @Override
+        public int take(SplitMix64 random) {
+            if (size == 0) {
+                return -1;
+            }
+            int id = ids[random.nextInt(size)];
+            removeAt(positions[id]);
+            return id;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        @Override
+        public void clear() {
+            for (int i = 0; i < size; i++) {
+                positions[ids[i]] = -1;
+            }
+            size = 0;
+        }
+
+        private void removeAt(int slot) {
+            positions[ids[slot]] = -1;
+            size--;
+            if (slot != size) {
+                ids[slot] = ids[size];
+                positions[ids[slot]] = slot;
+            }
+        }
+    }
+}
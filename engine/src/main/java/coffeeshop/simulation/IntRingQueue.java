@@ -0,0 +1,75 @@
+package coffeeshop.simulation;
+
+// FIFO queue of ints in a circular array that doubles when full, so adding and polling
+// allocate nothing once the queue has reached its longest length.
+final class IntRingQueue {
+    private int[] elements;
+    private int head = 0;
+    private int size = 0;
+
+    IntRingQueue(int initialCapacity) {
+        elements = new int[Integer.highestOneBit(Math.max(initialCapacity, 2) - 1) << 1];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void add(int value) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) & (elements.length - 1)] = value;
+        size++;
+    }
+
+    int poll() {
+        if (size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        int value = elements[head];
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return value;
+    }
+
+    // Takes from the tail instead, for last-in first-out service.
+    int pollLast() {
+        if (size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        size--;
+        return elements[(head + size) & (elements.length - 1)];
+    }
+
+    int peek() {
+        if (size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        return elements[head];
+    }
+
+    // The index-th element from the head.
+    int get(int index) {
+        return elements[(head + index) & (elements.length - 1)];
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    // Unrolls the ring so it starts at index 0 of the larger array.
+    private void grow() {
+        int[] grown = new int[elements.length * 2];
+        int firstPart = elements.length - head;
+        System.arraycopy(elements, head, grown, 0, firstPart);
+        System.arraycopy(elements, 0, grown, firstPart, head);
+        elements = grown;
+        head = 0;
+    }
+}
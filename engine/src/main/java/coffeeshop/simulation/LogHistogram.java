@@ -0,0 +1,118 @@
+package coffeeshop.simulation;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Fixed-size histogram with logarithmically spaced buckets, giving percentiles with bounded
+// relative error in constant memory. Values below the lowest bound (including zero waits)
+// share one bucket and are reported as zero.
+public final class LogHistogram {
+    private static final double DEFAULT_MIN = 1e-3;
+    private static final double DEFAULT_MAX = 1e4;
+    private static final int DEFAULT_BUCKETS_PER_DECADE = 100; // about 2.3% relative error
+
+    private final double minValue;
+    private final double logMin;
+    private final double bucketsPerDecade;
+    private final long[] counts;
+    private long totalCount = 0;
+
+    public LogHistogram() {
+        this(DEFAULT_MIN, DEFAULT_MAX, DEFAULT_BUCKETS_PER_DECADE);
+    }
+
+    public LogHistogram(double minValue, double maxValue, int bucketsPerDecade) {
+        if (minValue <= 0 || maxValue <= minValue) {
+            throw new IllegalArgumentException("Histogram bounds must satisfy 0 < min < max");
+        }
+        this.minValue = minValue;
+        this.logMin = Math.log10(minValue);
+        this.bucketsPerDecade = bucketsPerDecade;
+        int buckets = (int) Math.ceil((Math.log10(maxValue) - logMin) * bucketsPerDecade);
+        // Bucket 0 is the underflow bucket, the last one catches overflow.
+        counts = new long[buckets + 2];
+    }
+
+    public void add(double value) {
+        counts[bucketOf(value)]++;
+        totalCount++;
+    }
+
+    public void merge(LogHistogram other) {
+        if (other.counts.length != counts.length || other.minValue != minValue) {
+            throw new IllegalArgumentException("Histograms have different layouts");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+    }
+
+    int serializedSize() {
+        return Integer.BYTES + Long.BYTES + counts.length * Long.BYTES;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.putInt(counts.length);
+        buffer.putLong(totalCount);
+        for (long count : counts) {
+            buffer.putLong(count);
+        }
+    }
+
+    // Only restores into a histogram with the same bucket layout it was written from.
+    void readFrom(ByteBuffer buffer) {
+        int buckets = buffer.getInt();
+        if (buckets != counts.length) {
+            throw new IllegalStateException("Histogram layout mismatch: " + buckets + " != " + counts.length);
+        }
+        totalCount = buffer.getLong();
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buffer.getLong();
+        }
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    // Returns the value at the given quantile (0..1), or NaN if nothing has been recorded.
+    public double quantile(double q) {
+        if (totalCount == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) Math.ceil(q * totalCount);
+        if (rank < 1) {
+            rank = 1;
+        }
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return representative(i);
+            }
+        }
+        return representative(counts.length - 1);
+    }
+
+    private int bucketOf(double value) {
+        if (!(value >= minValue)) {
+            return 0;
+        }
+        int bucket = (int) ((Math.log10(value) - logMin) * bucketsPerDecade) + 1;
+        return Math.min(bucket, counts.length - 1);
+    }
+
+    // Geometric midpoint of the bucket's bounds.
+    private double representative(int bucket) {
+        if (bucket == 0) {
+            return 0;
+        }
+        return Math.pow(10, logMin + (bucket - 0.5) / bucketsPerDecade);
+    }
+}
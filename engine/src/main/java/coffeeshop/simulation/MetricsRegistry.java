@@ -0,0 +1,170 @@
+package coffeeshop.simulation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Named counters, gauges and timers about the simulator itself rather than the simulated shop.
+// Instruments are looked up once and then updated without locking, so a producer on the
+// simulation thread and a reader on the UI thread never wait for each other. Names are
+// dotted, e.g. "engine.events", and listed in sorted order.
+public final class MetricsRegistry {
+    private final Map<String, Object> metrics = new ConcurrentSkipListMap<>();
+
+    public Counter counter(String name) {
+        return register(name, new Counter(), Counter.class);
+    }
+
+    public Gauge gauge(String name) {
+        return register(name, new Gauge(), Gauge.class);
+    }
+
+    public Timer timer(String name) {
+        return register(name, new Timer(), Timer.class);
+    }
+
+    private <T> T register(String name, T metric, Class<T> type) {
+        Object existing = metrics.putIfAbsent(name, metric);
+        if (existing == null) {
+            return metric;
+        }
+        if (!type.isInstance(existing)) {
+            throw new IllegalArgumentException(name + " is already registered as a "
+                    + existing.getClass().getSimpleName());
+        }
+        return type.cast(existing);
+    }
+
+    // One line per metric, for a diagnostics pane or a log.
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, Object> entry : metrics.entrySet()) {
+            text.append(String.format(Locale.ROOT, "%-28s %s%n", entry.getKey(), entry.getValue()));
+        }
+        return text.toString();
+    }
+
+    // {"name": value, ...} with counters and gauges as numbers and timers as objects. A gauge
+    // holding NaN or an infinity is written as null, as JSON has no number for it.
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{");
+        String separator = "\n";
+        for (Map.Entry<String, Object> entry : metrics.entrySet()) {
+            json.append(separator).append("  \"").append(entry.getKey()).append("\": ");
+            Object metric = entry.getValue();
+            if (metric instanceof Timer) {
+                ((Timer) metric).appendJson(json);
+            } else if (metric instanceof Gauge) {
+                ((Gauge) metric).appendJson(json);
+            } else {
+                json.append(metric);
+            }
+            separator = ",\n";
+        }
+        return json.append("\n}\n").toString();
+    }
+
+    public void writeJson(Writer writer) throws IOException {
+        writer.write(toJson());
+        writer.flush();
+    }
+
+    public static final class Counter {
+        private final LongAdder count = new LongAdder();
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long amount) {
+            count.add(amount);
+        }
+
+        public long get() {
+            return count.sum();
+        }
+
+        @Override
+        public String toString() {
+            return Long.toString(get());
+        }
+    }
+
+    // Last value set, e.g. a queue length sampled at the end of a batch.
+    public static final class Gauge {
+        private volatile double value;
+
+        public void set(double value) {
+            this.value = value;
+        }
+
+        public double get() {
+            return value;
+        }
+
+        void appendJson(StringBuilder json) {
+            double v = value;
+            json.append(Double.isFinite(v) ? format(v) : "null");
+        }
+
+        @Override
+        public String toString() {
+            return format(value);
+        }
+
+        private static String format(double v) {
+            return v == Math.rint(v) && Math.abs(v) < 1e15 ? Long.toString((long) v)
+                    : String.format(Locale.ROOT, "%.6g", v);
+        }
+    }
+
+    // Count, total and maximum of recorded durations.
+    public static final class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        public void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            long max = maxNanos.get();
+            while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+                max = maxNanos.get();
+            }
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public double getMeanNanos() {
+            long n = getCount();
+            return n == 0 ? 0 : (double) getTotalNanos() / n;
+        }
+
+        void appendJson(StringBuilder json) {
+            json.append(String.format(Locale.ROOT, "{\"count\": %d, \"totalMillis\": %.3f, "
+                            + "\"meanMicros\": %.3f, \"maxMicros\": %.3f}",
+                    getCount(), getTotalNanos() / 1e6, getMeanNanos() / 1e3, getMaxNanos() / 1e3));
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "count=%d total=%.1f ms mean=%.1f us max=%.1f us",
+                    getCount(), getTotalNanos() / 1e6, getMeanNanos() / 1e3, getMaxNanos() / 1e3);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package coffeeshop.simulation;
+
+// Results of a network run, station by station and resource by resource, with the station or
+// resource that is busiest relative to its size named as the bottleneck.
+public final class NetworkReport {
+    private final String[] stationNames;
+    private final int[] servers;
+    private final long[] visits;
+    private final long[] completions;
+    private final long[] resourceWaits;
+    private final double[] averageWaits;
+    private final double[] averageQueueLengths;
+    private final double[] maxQueueLengths;
+    private final double[] utilizations;
+    private final String[] resourceNames;
+    private final int[] capacities;
+    private final double[] resourceUtilizations;
+    private final double time;
+    private final long events;
+    private final long arrivals;
+    private final long departures;
+    private final double averageTimeInShop;
+    private final double averageInShop;
+
+    NetworkReport(QueueingNetwork network, double time, long events, long arrivals, long[] visits,
+                  long[] completions, long[] resourceWaits, RunningStatistics[] waits,
+                  TimeWeightedStatistic[] queueLengths, TimeWeightedStatistic[] busyServers,
+                  TimeWeightedStatistic[] unitsInUse, RunningStatistics sojournTimes, TimeWeightedStatistic inShop) {
+        int stationCount = network.getStationCount();
+        stationNames = new String[stationCount];
+        servers = new int[stationCount];
+        averageWaits = new double[stationCount];
+        averageQueueLengths = new double[stationCount];
+        maxQueueLengths = new double[stationCount];
+        utilizations = new double[stationCount];
+        for (int station = 0; station < stationCount; station++) {
+            stationNames[station] = network.getStationName(station);
+            servers[station] = network.getServers(station);
+            averageWaits[station] = waits[station].getCount() == 0 ? 0 : waits[station].getMean();
+            averageQueueLengths[station] = queueLengths[station].getMean();
+            maxQueueLengths[station] = queueLengths[station].getMax();
+            utilizations[station] = busyServers[station].getMean() / servers[station];
+        }
+        int resourceCount = network.getResourceCount();
+        resourceNames = new String[resourceCount];
+        capacities = new int[resourceCount];
+        resourceUtilizations = new double[resourceCount];
+        for (int resource = 0; resource < resourceCount; resource++) {
+            resourceNames[resource] = network.getResourceName(resource);
+            capacities[resource] = network.getCapacity(resource);
+            resourceUtilizations[resource] = unitsInUse[resource].getMean() / capacities[resource];
+        }
+        this.visits = visits.clone();
+        this.completions = completions.clone();
+        this.resourceWaits = resourceWaits.clone();
+        this.time = time;
+        this.events = events;
+        this.arrivals = arrivals;
+        this.departures = sojournTimes.getCount();
+        this.averageTimeInShop = sojournTimes.getCount() == 0 ? 0 : sojournTimes.getMean();
+        this.averageInShop = inShop.getMean();
+    }
+
+    public int getStationCount() {
+        return stationNames.length;
+    }
+
+    public String getStationName(int station) {
+        return stationNames[station];
+    }
+
+    public long getVisits(int station) {
+        return visits[station];
+    }
+
+    public long getCompletions(int station) {
+        return completions[station];
+    }
+
+    // Completed services per minute.
+    public double getThroughput(int station) {
+        return time == 0 ? 0 : completions[station] / time;
+    }
+
+    // Fraction of the station's servers busy on average.
+    public double getUtilization(int station) {
+        return utilizations[station];
+    }
+
+    public double getAverageWait(int station) {
+        return averageWaits[station];
+    }
+
+    public double getAverageQueueLength(int station) {
+        return averageQueueLengths[station];
+    }
+
+    public double getMaxQueueLength(int station) {
+        return maxQueueLengths[station];
+    }
+
+    // Customers who found a server free but had to wait for a unit of the station's resource.
+    public long getResourceWaits(int station) {
+        return resourceWaits[station];
+    }
+
+    public int getResourceCount() {
+        return resourceNames.length;
+    }
+
+    public String getResourceName(int resource) {
+        return resourceNames[resource];
+    }
+
+    // Fraction of the resource's units in use on average.
+    public double getResourceUtilization(int resource) {
+        return resourceUtilizations[resource];
+    }
+
+    public double getSimulatedTime() {
+        return time;
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    public long getArrivals() {
+        return arrivals;
+    }
+
+    public long getDepartures() {
+        return departures;
+    }
+
+    public double getAverageTimeInShop() {
+        return averageTimeInShop;
+    }
+
+    public double getAverageInShop() {
+        return averageInShop;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%-16s %7s %9s %10s %6s %9s %9s %9s %10s%n", "Station", "Servers", "Visits",
+                "Per min", "Busy", "Avg wait", "Avg queue", "Max queue", "Res. waits"));
+        String bottleneck = null;
+        double highest = -1;
+        for (int station = 0; station < stationNames.length; station++) {
+            text.append(String.format("%-16s %7d %9d %10.3f %5.1f%% %9.3f %9.2f %9.0f %10d%n",
+                    stationNames[station], servers[station], visits[station], getThroughput(station),
+                    utilizations[station] * 100, averageWaits[station], averageQueueLengths[station],
+                    maxQueueLengths[station], resourceWaits[station]));
+            if (utilizations[station] > highest) {
+                highest = utilizations[station];
+                bottleneck = "station " + stationNames[station];
+            }
+        }
+        for (int resource = 0; resource < resourceNames.length; resource++) {
+            text.append(String.format("Resource %s: %d units, %.1f%% in use%n", resourceNames[resource],
+                    capacities[resource], resourceUtilizations[resource] * 100));
+            if (resourceUtilizations[resource] > highest) {
+                highest = resourceUtilizations[resource];
+                bottleneck = "resource " + resourceNames[resource];
+            }
+        }
+        text.append(String.format("Arrivals: %d | Left: %d | Avg time in shop: %.2f min | Avg in shop: %.2f%n",
+                arrivals, departures, averageTimeInShop, averageInShop));
+        text.append(String.format("Bottleneck: %s at %.1f%%%n", bottleneck, highest * 100));
+        return text.toString();
+    }
+}
@@ -0,0 +1,324 @@
+package coffeeshop.simulation;
+
+import java.util.Arrays;
+
+// Event-driven run of a queueing network. There are only two kinds of event: an arrival from
+// outside, and a service completion whose entity is the customer's slot. A customer's slot
+// records the station they are at, so every event finds its station with one array read, and
+// the next station is one alias-table draw. Stations live in parallel primitive arrays indexed
+// by station, each with its own ring-buffer queue and its own stream of service variates.
+//
+// A service needs a free server at the station and, if the station uses a shared resource, a
+// free unit of it for as long as the service lasts. When a service ends, the freed server
+// goes to the station's own queue. A freed resource unit goes to the next station, in
+// round-robin order over every station sharing the resource, that has someone waiting and a
+// server free, so a station with many servers cannot starve a small one of the resource.
+//
+// Queue lengths and busy servers are time-averaged lazily: a station's averages are brought
+// up to date only when one of its counts changes, so an event costs the same however many
+// stations the network has.
+public class NetworkSimulation {
+    private static final int EXTERNAL_ARRIVAL = 0;
+    private static final int SERVICE_END = 1;
+
+    private final QueueingNetwork network;
+    private final EventList events = new EventList(1024);
+    private final double duration;
+    private double currentTime = 0;
+    private boolean initialized = false;
+    private long eventCount = 0;
+
+    private final SplitMix64 routingRandom;
+    private final VariateBuffer interarrivals;
+    private final double meanInterarrival;
+    private final AliasTable entries;
+
+    // By station
+    private final int[] servers;
+    private final int[] busy;
+    private final double[] meanServiceTimes;
+    private final boolean[] lastInFirstOut;
+    private final int[] stationResources;
+    private final IntRingQueue[] queues;
+    private final VariateBuffer[] serviceTimes;
+    private final AliasTable[] routes;
+    private final long[] visits;
+    private final long[] completions;
+    private final long[] resourceWaits; // customers who found a server free but no resource unit
+    private final RunningStatistics[] waits;
+    private final TimeWeightedStatistic[] queueLengths;
+    private final TimeWeightedStatistic[] busyServers;
+    private final double[] lastChanges;
+
+    // By resource
+    private final int[] capacities;
+    private final int[] inUse;
+    private final int[][] sharers; // stations that use each resource
+    private final int[] nextSharer;
+    private final TimeWeightedStatistic[] unitsInUse;
+    private final double[] resourceLastChanges;
+
+    // By customer slot
+    private int[] customerStations = new int[256];
+    private double[] entryTimes = new double[256];
+    private double[] queuedSince = new double[256];
+    private int freeSlot = -1; // free slots are chained through customerStations
+    private int slotLimit = 0;
+
+    private long arrivals = 0;
+    private int inSystem = 0;
+    private final RunningStatistics sojournTimes = new RunningStatistics();
+    private final TimeWeightedStatistic inSystemStatistic = new TimeWeightedStatistic();
+    private double inSystemLastChange = 0;
+
+    public NetworkSimulation(QueueingNetwork network, SplitMix64 stream, double duration) {
+        int stationCount = network.getStationCount();
+        if (stationCount == 0) {
+            throw new IllegalArgumentException("The network has no stations");
+        }
+        if (!(duration > 0)) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        this.network = network;
+        this.duration = duration;
+        routingRandom = stream.split();
+        interarrivals = new VariateBuffer(stream.split());
+        meanInterarrival = 1 / network.getTotalArrivalRate();
+        entries = network.entryTable();
+
+        servers = new int[stationCount];
+        busy = new int[stationCount];
+        meanServiceTimes = new double[stationCount];
+        lastInFirstOut = new boolean[stationCount];
+        stationResources = new int[stationCount];
+        queues = new IntRingQueue[stationCount];
+        serviceTimes = new VariateBuffer[stationCount];
+        routes = new AliasTable[stationCount];
+        visits = new long[stationCount];
+        completions = new long[stationCount];
+        resourceWaits = new long[stationCount];
+        waits = new RunningStatistics[stationCount];
+        queueLengths = new TimeWeightedStatistic[stationCount];
+        busyServers = new TimeWeightedStatistic[stationCount];
+        lastChanges = new double[stationCount];
+        for (int station = 0; station < stationCount; station++) {
+            servers[station] = network.getServers(station);
+            meanServiceTimes[station] = 1 / network.getServiceRate(station);
+            lastInFirstOut[station] = network.getDiscipline(station) == QueueDiscipline.LIFO;
+            stationResources[station] = network.getStationResource(station);
+            queues[station] = new IntRingQueue(64);
+            serviceTimes[station] = new VariateBuffer(stream.split());
+            serviceTimes[station].configure(network.getDistribution(station), VariateMethod.ZIGGURAT, false);
+            routes[station] = network.routingTable(station);
+            waits[station] = new RunningStatistics();
+            queueLengths[station] = new TimeWeightedStatistic();
+            busyServers[station] = new TimeWeightedStatistic();
+        }
+
+        int resourceCount = network.getResourceCount();
+        capacities = new int[resourceCount];
+        inUse = new int[resourceCount];
+        sharers = new int[resourceCount][];
+        nextSharer = new int[resourceCount];
+        unitsInUse = new TimeWeightedStatistic[resourceCount];
+        resourceLastChanges = new double[resourceCount];
+        for (int resource = 0; resource < resourceCount; resource++) {
+            capacities[resource] = network.getCapacity(resource);
+            int count = 0;
+            int[] users = new int[stationCount];
+            for (int station = 0; station < stationCount; station++) {
+                if (stationResources[station] == resource) {
+                    users[count++] = station;
+                }
+            }
+            sharers[resource] = Arrays.copyOf(users, count);
+            unitsInUse[resource] = new TimeWeightedStatistic();
+        }
+    }
+
+    public QueueingNetwork getNetwork() {
+        return network;
+    }
+
+    public double getCurrentTime() {
+        return currentTime;
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    public boolean isFinished() {
+        return currentTime >= duration;
+    }
+
+    public void runToCompletion() {
+        executeSteps(Integer.MAX_VALUE);
+    }
+
+    // Processes at most maxEvents events and returns how many it processed.
+    public int executeSteps(int maxEvents) {
+        if (!initialized) {
+            initialized = true;
+            events.add(interarrivals.next() * meanInterarrival, EXTERNAL_ARRIVAL, -1);
+        }
+        int processed = 0;
+        while (processed < maxEvents && currentTime < duration && !events.isEmpty()) {
+            if (events.peekTime() > duration) {
+                currentTime = duration;
+                break;
+            }
+            int type = events.poll();
+            currentTime = events.getPolledTime();
+            switch (type) {
+                case EXTERNAL_ARRIVAL:
+                    events.add(currentTime + interarrivals.next() * meanInterarrival, EXTERNAL_ARRIVAL, -1);
+                    arrive(entries.sample(routingRandom), newCustomer());
+                    break;
+                case SERVICE_END:
+                    finishService(events.getPolledEntity());
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown event type " + type);
+            }
+            processed++;
+        }
+        eventCount += processed;
+        return processed;
+    }
+
+    private int newCustomer() {
+        int slot;
+        if (freeSlot >= 0) {
+            slot = freeSlot;
+            freeSlot = customerStations[slot];
+        } else {
+            if (slotLimit == customerStations.length) {
+                int capacity = slotLimit * 2;
+                customerStations = Arrays.copyOf(customerStations, capacity);
+                entryTimes = Arrays.copyOf(entryTimes, capacity);
+                queuedSince = Arrays.copyOf(queuedSince, capacity);
+            }
+            slot = slotLimit++;
+        }
+        entryTimes[slot] = currentTime;
+        arrivals++;
+        updateInSystem(1);
+        return slot;
+    }
+
+    private void arrive(int station, int customer) {
+        customerStations[customer] = station;
+        queuedSince[customer] = currentTime;
+        visits[station]++;
+        int resource = stationResources[station];
+        if (busy[station] < servers[station]) {
+            if (resource < 0 || inUse[resource] < capacities[resource]) {
+                startService(station, customer);
+                return;
+            }
+            resourceWaits[station]++;
+        }
+        touch(station);
+        queues[station].add(customer);
+    }
+
+    private void startService(int station, int customer) {
+        touch(station);
+        busy[station]++;
+        int resource = stationResources[station];
+        if (resource >= 0) {
+            touchResource(resource);
+            inUse[resource]++;
+        }
+        waits[station].add(currentTime - queuedSince[customer]);
+        events.add(currentTime + serviceTimes[station].next() * meanServiceTimes[station], SERVICE_END, customer);
+    }
+
+    private void finishService(int customer) {
+        int station = customerStations[customer];
+        completions[station]++;
+        touch(station);
+        busy[station]--;
+        int resource = stationResources[station];
+        if (resource >= 0) {
+            touchResource(resource);
+            inUse[resource]--;
+        }
+        // Those already waiting are served before the finished customer moves on, so a
+        // customer routed straight back cannot jump the queue.
+        if (resource >= 0) {
+            wakeSharer(resource);
+        } else if (!queues[station].isEmpty()) {
+            startService(station, take(station));
+        }
+
+        int next = routes[station].sample(routingRandom);
+        if (next >= 0) {
+            arrive(next, customer);
+        } else {
+            sojournTimes.add(currentTime - entryTimes[customer]);
+            updateInSystem(-1);
+            customerStations[customer] = freeSlot;
+            freeSlot = customer;
+        }
+    }
+
+    // Hands a freed resource unit to the next station in turn that can use it, which may be
+    // the one that freed it.
+    private void wakeSharer(int resource) {
+        int[] stations = sharers[resource];
+        for (int i = 0; i < stations.length; i++) {
+            int candidate = nextSharer[resource];
+            nextSharer[resource] = candidate + 1 == stations.length ? 0 : candidate + 1;
+            int station = stations[candidate];
+            if (!queues[station].isEmpty() && busy[station] < servers[station]) {
+                startService(station, take(station));
+                return;
+            }
+        }
+    }
+
+    private int take(int station) {
+        return lastInFirstOut[station] ? queues[station].pollLast() : queues[station].poll();
+    }
+
+    private void touch(int station) {
+        double span = currentTime - lastChanges[station];
+        if (span > 0) {
+            queueLengths[station].observe(queues[station].size(), span);
+            busyServers[station].observe(busy[station], span);
+            lastChanges[station] = currentTime;
+        }
+    }
+
+    private void touchResource(int resource) {
+        double span = currentTime - resourceLastChanges[resource];
+        if (span > 0) {
+            unitsInUse[resource].observe(inUse[resource], span);
+            resourceLastChanges[resource] = currentTime;
+        }
+    }
+
+    private void updateInSystem(int change) {
+        double span = currentTime - inSystemLastChange;
+        if (span > 0) {
+            inSystemStatistic.observe(inSystem, span);
+            inSystemLastChange = currentTime;
+        }
+        inSystem += change;
+    }
+
+    // Results up to the current time. Brings every average up to date first.
+    public NetworkReport getReport() {
+        for (int station = 0; station < servers.length; station++) {
+            touch(station);
+        }
+        for (int resource = 0; resource < capacities.length; resource++) {
+            touchResource(resource);
+        }
+        updateInSystem(0);
+        return new NetworkReport(network, currentTime, eventCount, arrivals, visits, completions, resourceWaits,
+                waits, queueLengths, busyServers, unitsInUse, sojournTimes, inSystemStatistic);
+    }
+}
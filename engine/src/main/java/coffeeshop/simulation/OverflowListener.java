@@ -0,0 +1,7 @@
+package coffeeshop.simulation;
+
+// Told about each arriving customer who finds the queue full and leaves for another store.
+// Called on the engine's thread; implementations must not block or touch other engines.
+public interface OverflowListener {
+    void onOverflow(double time);
+}
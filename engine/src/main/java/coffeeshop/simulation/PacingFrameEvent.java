@@ -0,0 +1,29 @@
+package coffeeshop.simulation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Engine work done in one paced frame. Frames whose duration approaches the 12 ms budget, or
+// that fell behind, mean the run is engine-bound.
+@Name("coffeeshop.PacingFrame")
+@Label("Pacing Frame")
+@Category({"Coffee Shop", "Pacing"})
+@Description("Engine work done in one frame of the paced simulation thread")
+@StackTrace(false)
+final class PacingFrameEvent extends jdk.jfr.Event {
+    @Label("Mode")
+    String mode;
+
+    @Label("Events")
+    int events;
+
+    @Label("Simulated Minutes")
+    double simulatedMinutes;
+
+    @Label("Fell Behind")
+    @Description("The frame ran out of budget before reaching its real-time target")
+    boolean fellBehind;
+}
@@ -0,0 +1,8 @@
+package coffeeshop.simulation;
+
+public enum PacingMode {
+    // Simulated time follows the wall clock at a configurable ratio.
+    REAL_TIME,
+    // Events are processed as fast as possible, yielding once per frame.
+    MAX_SPEED
+}
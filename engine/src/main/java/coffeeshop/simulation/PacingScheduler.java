@@ -0,0 +1,167 @@
+package coffeeshop.simulation;
+
+import jdk.jfr.FlightRecorder;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Drives an engine from a single long-lived frame tick on the simulation thread. In real-time
+// mode each frame advances the engine to anchor + elapsed wall time x ratio, so simulated
+// time flows at a steady rate however many events that takes; in max-speed mode each frame
+// spends a fixed work budget. Mode, ratio and pause changes take effect on the next frame
+// without touching the executor.
+public class PacingScheduler {
+    private static final long FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+    private static final long WORK_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(12);
+    private static final int EVENTS_PER_CHUNK = 4096;
+
+    private final CoffeeShopEngine engine;
+    private final Runnable afterFrame;
+    private final ScheduledFuture<?> frameTick;
+
+    private volatile PacingMode mode = PacingMode.REAL_TIME;
+    private volatile double simMinutesPerSecond = 20; // one simulated minute per 50 ms
+    private volatile boolean running = false;
+    private volatile boolean anchorStale = true;
+    private volatile boolean fellBehind = false; // written on the simulation thread, read by the UI
+
+    // Touched only on the simulation thread.
+    private double anchorSimTime;
+    private long anchorWallNanos;
+    private volatile MetricsRegistry.Timer frameWork;
+    private volatile MetricsRegistry.Counter framesBehind;
+    private volatile MetricsRegistry.Gauge frameLoad;
+
+    // afterFrame runs on the simulation thread after every frame while running, including the
+    // one that finds the run finished, whether or not the engine advanced.
+    public PacingScheduler(CoffeeShopEngine engine, ScheduledExecutorService executor, Runnable afterFrame) {
+        this.engine = engine;
+        this.afterFrame = afterFrame;
+        frameTick = executor.scheduleAtFixedRate(this::frame, 0, FRAME_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    public PacingMode getMode() {
+        return mode;
+    }
+
+    public void setMode(PacingMode mode) {
+        this.mode = mode;
+        anchorStale = true;
+    }
+
+    public double getSimMinutesPerSecond() {
+        return simMinutesPerSecond;
+    }
+
+    public void setSimMinutesPerSecond(double simMinutesPerSecond) {
+        if (simMinutesPerSecond <= 0) {
+            throw new IllegalArgumentException("Pacing ratio must be positive");
+        }
+        this.simMinutesPerSecond = simMinutesPerSecond;
+        anchorStale = true;
+    }
+
+    // Frame work time is the engine-bound signal: frameLoad near WORK_BUDGET_NANOS / FRAME_NANOS
+    // (0.75) or a rising framesBehind count means the engine cannot go any faster.
+    public void setMetrics(MetricsRegistry registry) {
+        framesBehind = registry.counter("pacing.framesBehind");
+        frameLoad = registry.gauge("pacing.frameLoad");
+        frameWork = registry.timer("pacing.frameWork");
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // True when the last real-time frame could not keep up with the requested ratio.
+    public boolean isFallingBehind() {
+        return fellBehind;
+    }
+
+    public void resume() {
+        anchorStale = true;
+        running = true;
+    }
+
+    public void pause() {
+        running = false;
+    }
+
+    public void shutdown() {
+        running = false;
+        frameTick.cancel(false);
+    }
+
+    private void frame() {
+        if (!running) {
+            return;
+        }
+        if (engine.isFinished()) {
+            running = false;
+            afterFrame.run();
+            return;
+        }
+
+        long frameStart = System.nanoTime();
+        if (anchorStale) {
+            anchorStale = false;
+            anchorSimTime = engine.getCurrentTime();
+            anchorWallNanos = frameStart;
+        }
+
+        PacingFrameEvent event = FlightRecorder.isInitialized() ? new PacingFrameEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        double frameSimStart = engine.getCurrentTime();
+        int events = 0;
+        PacingMode mode = this.mode;
+        if (mode == PacingMode.MAX_SPEED) {
+            do {
+                events += engine.executeSteps(EVENTS_PER_CHUNK);
+            } while (!engine.isFinished() && System.nanoTime() - frameStart < WORK_BUDGET_NANOS);
+        } else {
+            double target = anchorSimTime + (frameStart - anchorWallNanos) / 1e9 * simMinutesPerSecond;
+            fellBehind = false;
+            while (true) {
+                int chunk = engine.runUntil(target, EVENTS_PER_CHUNK);
+                events += chunk;
+                if (chunk < EVENTS_PER_CHUNK) {
+                    break;
+                }
+                if (System.nanoTime() - frameStart >= WORK_BUDGET_NANOS) {
+                    // Drop the backlog instead of bursting later: the run continues from here
+                    // at the requested ratio, just later than the wall clock promised. The
+                    // anchor moves to the end of this frame, so the next frame gets a full
+                    // frame's worth of simulated time rather than none.
+                    fellBehind = true;
+                    anchorSimTime = engine.getCurrentTime();
+                    anchorWallNanos = System.nanoTime();
+                    break;
+                }
+            }
+        }
+        recordFrame(event, mode, events, frameSimStart, System.nanoTime() - frameStart);
+        afterFrame.run();
+    }
+
+    private void recordFrame(PacingFrameEvent event, PacingMode mode, int events, double frameSimStart, long nanos) {
+        boolean behind = mode == PacingMode.REAL_TIME && fellBehind;
+        MetricsRegistry.Timer frameWork = this.frameWork;
+        if (frameWork != null) {
+            frameWork.record(nanos);
+            frameLoad.set((double) nanos / FRAME_NANOS);
+            if (behind) {
+                framesBehind.increment();
+            }
+        }
+        if (event != null && event.shouldCommit()) {
+            event.mode = mode.name();
+            event.events = events;
+            event.simulatedMinutes = engine.getCurrentTime() - frameSimStart;
+            event.fellBehind = behind;
+            event.commit();
+        }
+    }
+}
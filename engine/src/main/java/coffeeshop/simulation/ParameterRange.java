@@ -0,0 +1,56 @@
+package coffeeshop.simulation;
+
+// Evenly spaced values from min to max inclusive.
+public final class ParameterRange {
+    private final double min;
+    private final double max;
+    private final int steps;
+
+    public ParameterRange(double min, double max, int steps) {
+        if (steps < 1) {
+            throw new IllegalArgumentException("A range needs at least one step");
+        }
+        if (steps == 1 && min != max) {
+            throw new IllegalArgumentException("A single-step range must have min == max");
+        }
+        this.min = min;
+        this.max = max;
+        this.steps = steps;
+    }
+
+    public static ParameterRange of(double value) {
+        return new ParameterRange(value, value, 1);
+    }
+
+    // Parses "value" or "min:max:steps".
+    public static ParameterRange parse(String text) {
+        String[] parts = text.split(":");
+        if (parts.length == 1) {
+            return of(Double.parseDouble(parts[0]));
+        }
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Expected value or min:max:steps but got " + text);
+        }
+        return new ParameterRange(Double.parseDouble(parts[0]), Double.parseDouble(parts[1]),
+                Integer.parseInt(parts[2]));
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    public double value(int step) {
+        if (steps == 1) {
+            return min;
+        }
+        return min + (max - min) * step / (steps - 1);
+    }
+}
@@ -0,0 +1,119 @@
+package coffeeshop.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+// Runs a replicated experiment at every point of an arrivalRate x serviceRate x numBaristas
+// grid. Each grid point is a separate fork-join task so idle workers steal whole cells, and
+// results are handed to the listener as soon as a cell finishes.
+public class ParameterSweep {
+    private final ParameterRange arrivalRates;
+    private final ParameterRange serviceRates;
+    private final int minBaristas;
+    private final int maxBaristas;
+    private final int replications;
+    private final double simulationDuration;
+
+    public ParameterSweep(ParameterRange arrivalRates, ParameterRange serviceRates, int minBaristas, int maxBaristas,
+                          int replications, double simulationDuration) {
+        if (minBaristas < 1 || maxBaristas < minBaristas) {
+            throw new IllegalArgumentException("Invalid barista range " + minBaristas + ".." + maxBaristas);
+        }
+        if (replications < 1) {
+            throw new IllegalArgumentException("At least one replication is required");
+        }
+        this.arrivalRates = arrivalRates;
+        this.serviceRates = serviceRates;
+        this.minBaristas = minBaristas;
+        this.maxBaristas = maxBaristas;
+        this.replications = replications;
+        this.simulationDuration = simulationDuration;
+    }
+
+    public ParameterRange getArrivalRates() {
+        return arrivalRates;
+    }
+
+    public ParameterRange getServiceRates() {
+        return serviceRates;
+    }
+
+    public int getMinBaristas() {
+        return minBaristas;
+    }
+
+    public int getMaxBaristas() {
+        return maxBaristas;
+    }
+
+    public int getBaristaSteps() {
+        return maxBaristas - minBaristas + 1;
+    }
+
+    public int getCellCount() {
+        return arrivalRates.getSteps() * serviceRates.getSteps() * getBaristaSteps();
+    }
+
+    public int getReplications() {
+        return replications;
+    }
+
+    public Scenario scenario(int arrivalIndex, int serviceIndex, int baristaIndex) {
+        return new Scenario(arrivalRates.value(arrivalIndex), serviceRates.value(serviceIndex),
+                minBaristas + baristaIndex, simulationDuration);
+    }
+
+    public void run(long masterSeed, SweepListener listener) {
+        run(ForkJoinPool.commonPool(), masterSeed, listener);
+    }
+
+    // Blocks until every cell has completed. Seeds are assigned per cell in grid order
+    // before any task starts, so the results are independent of scheduling.
+    public void run(ForkJoinPool pool, long masterSeed, SweepListener listener) {
+        SplitMix64 master = new SplitMix64(masterSeed);
+        List<CellTask> tasks = new ArrayList<>(getCellCount());
+        for (int b = 0; b < getBaristaSteps(); b++) {
+            for (int a = 0; a < arrivalRates.getSteps(); a++) {
+                for (int s = 0; s < serviceRates.getSteps(); s++) {
+                    tasks.add(new CellTask(a, s, b, master.nextLong(), listener));
+                }
+            }
+        }
+        pool.submit(() -> ForkJoinTask.invokeAll(tasks)).join();
+    }
+
+    private final class CellTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int arrivalIndex;
+        private final int serviceIndex;
+        private final int baristaIndex;
+        private final long seed;
+        private final SweepListener listener;
+
+        CellTask(int arrivalIndex, int serviceIndex, int baristaIndex, long seed, SweepListener listener) {
+            this.arrivalIndex = arrivalIndex;
+            this.serviceIndex = serviceIndex;
+            this.baristaIndex = baristaIndex;
+            this.seed = seed;
+            this.listener = listener;
+        }
+
+        @Override
+        protected void compute() {
+            Scenario scenario = scenario(arrivalIndex, serviceIndex, baristaIndex);
+            SplitMix64[] streams = ReplicationRunner.streams(seed, replications);
+            ReplicationResult[] results = new ReplicationResult[replications];
+
+            long start = System.nanoTime();
+            for (int i = 0; i < replications; i++) {
+                results[i] = ReplicationRunner.runReplication(scenario, streams[i]);
+            }
+            ReplicationReport report = new ReplicationReport(scenario, results, System.nanoTime() - start);
+            listener.onCellCompleted(new SweepCell(arrivalIndex, serviceIndex, baristaIndex, report));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package coffeeshop.simulation;
+
+import java.util.Arrays;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+// Runs simulation processes: model code written as a sequence of waits ("hold for two
+// minutes", "wait until served or give up") instead of events and callbacks. Each process has
+// its own thread, virtual where the runtime provides them (Java 21 and later), but only one
+// thread runs at a time. The scheduler hands a baton to the process whose wake-up is next on
+// the event list and takes it back when that process waits again or finishes. Wake-ups at equal
+// times happen in the order they were scheduled and all processes draw from one random stream
+// in that order, so a run is as deterministic under a fixed seed as the event-driven engine.
+//
+// A process gets its thread when it first wakes up, so processes that have been started but
+// not reached their start time cost only their object.
+public class ProcessScheduler implements AutoCloseable {
+    static final int WAKE_UP = 0;
+    static final int TIMEOUT = 1;
+
+    private static final ThreadFactory VIRTUAL_THREADS = virtualThreadFactory();
+    private static final long PLATFORM_STACK_SIZE = 256 * 1024;
+
+    private final EventList events = new EventList();
+    private final SplitMix64 random;
+    private final Semaphore baton = new Semaphore(0);
+    private SimulationProcess[] processes = new SimulationProcess[64];
+    private int[] freeIds = new int[64];
+    private int freeIdCount = 0;
+    private int idLimit = 0;
+    private int liveCount = 0;
+    private int maxLiveCount = 0;
+    private long wakeUpCount = 0;
+    private double currentTime = 0;
+    private Throwable failure;
+
+    public ProcessScheduler(SplitMix64 random) {
+        this.random = random;
+    }
+
+    public static boolean usesVirtualThreads() {
+        return VIRTUAL_THREADS != null;
+    }
+
+    public double getCurrentTime() {
+        return currentTime;
+    }
+
+    public SplitMix64 getRandom() {
+        return random;
+    }
+
+    // Processes started and not yet finished, including those not yet at their start time.
+    public int getLiveCount() {
+        return liveCount;
+    }
+
+    public int getMaxLiveCount() {
+        return maxLiveCount;
+    }
+
+    public long getWakeUpCount() {
+        return wakeUpCount;
+    }
+
+    // Starts the process after the given delay. May be called from the driving thread or from
+    // inside a running process.
+    public void start(SimulationProcess process, double delay) {
+        if (delay < 0) {
+            throw new IllegalArgumentException("Delay must not be negative");
+        }
+        int id = freeIdCount > 0 ? freeIds[--freeIdCount] : idLimit++;
+        if (id == processes.length) {
+            processes = Arrays.copyOf(processes, id * 2);
+        }
+        process.attach(this, id);
+        processes[id] = process;
+        liveCount++;
+        maxLiveCount = Math.max(maxLiveCount, liveCount);
+        process.setWakeUp(events.add(currentTime + delay, WAKE_UP, id));
+    }
+
+    // Wakes processes in time order until the next wake-up is after the given time, then moves
+    // the clock to that time.
+    public void run(double until) {
+        while (!events.isEmpty() && events.peekTime() <= until) {
+            int type = events.poll();
+            currentTime = events.getPolledTime();
+            wakeUpCount++;
+            transfer(processes[events.getPolledEntity()], type == TIMEOUT);
+        }
+        if (until != Double.POSITIVE_INFINITY) {
+            currentTime = Math.max(currentTime, until);
+        }
+    }
+
+    // Ends every process that is still waiting. Each is woken in turn and unwinds out of the
+    // wait it is blocked in, so no threads are left parked behind the scheduler.
+    @Override
+    public void close() {
+        events.clear();
+        for (int id = 0; id < idLimit; id++) {
+            SimulationProcess process = processes[id];
+            if (process == null) {
+                continue;
+            }
+            if (process.hasThread()) {
+                process.kill();
+                transfer(process, false);
+            } else {
+                finish(process);
+            }
+        }
+    }
+
+    int schedule(double delay, int type, SimulationProcess process) {
+        return events.add(currentTime + delay, type, process.getId());
+    }
+
+    void cancel(int handle) {
+        events.cancel(handle);
+    }
+
+    // Called on a process's thread: gives the baton back and blocks until the process is woken.
+    void suspend(SimulationProcess process) {
+        baton.release();
+        process.awaitResume();
+    }
+
+    private void transfer(SimulationProcess process, boolean timedOut) {
+        process.wake(timedOut);
+        if (process.hasThread()) {
+            process.resume();
+        } else {
+            process.startThread(newThread(process));
+        }
+        baton.acquireUninterruptibly();
+        if (process.isFinished()) {
+            finish(process);
+        }
+        if (failure != null) {
+            Throwable cause = failure;
+            failure = null;
+            throw new IllegalStateException("Process failed at " + currentTime, cause);
+        }
+    }
+
+    private void finish(SimulationProcess process) {
+        int id = process.getId();
+        processes[id] = null;
+        if (freeIdCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIdCount * 2);
+        }
+        freeIds[freeIdCount++] = id;
+        liveCount--;
+    }
+
+    private Thread newThread(SimulationProcess process) {
+        Runnable body = () -> {
+            try {
+                process.execute();
+            } catch (Throwable t) {
+                failure = t;
+            } finally {
+                process.markFinished();
+                baton.release();
+            }
+        };
+        if (VIRTUAL_THREADS != null) {
+            return VIRTUAL_THREADS.newThread(body);
+        }
+        Thread thread = new Thread(null, body, "simulation-process-" + process.getId(), PLATFORM_STACK_SIZE);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    // Thread.ofVirtual() is looked up reflectively because the engine is compiled for Java 11.
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null; // before Java 21, or a preview build run without --enable-preview
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package coffeeshop.simulation;
+
+import java.util.ArrayDeque;
+
+// The coffee shop written as processes instead of events. A customer arrives, balks if the
+// line is already too long, waits until a barista takes them or their patience runs out, pays
+// and leaves. A barista takes the next customer in line, makes the order, hands it over and
+// waits for another customer when the line is empty. Each of those is one method below.
+//
+// Customers who renege stay in the line object and are skipped when a barista reaches them,
+// so giving up costs nothing however long the line is.
+public class ProcessShop {
+    private final double arrivalRate;
+    private final double serviceRate;
+    private final int numBaristas;
+    private final double simulationDuration;
+    private int balkQueueLength = 0; // 0 for customers who never balk
+    private double meanPatience = 0; // 0 for customers who wait as long as it takes
+    private double payTime = 0;
+
+    private ProcessScheduler scheduler;
+    private final ArrayDeque<CustomerProcess> line = new ArrayDeque<>();
+    private final ArrayDeque<BaristaProcess> idleBaristas = new ArrayDeque<>();
+    private final RunningStatistics waitStatistics = new RunningStatistics();
+    private final RunningStatistics timeInShopStatistics = new RunningStatistics();
+    private int waitingCount = 0;
+    private int maxWaitingCount = 0;
+    private int arrivalCount = 0;
+    private int balkedCount = 0;
+    private int renegedCount = 0;
+    private int servedCount = 0;
+    private double busyTime = 0;
+    private long elapsedNanos = 0;
+
+    public ProcessShop(Scenario scenario) {
+        this.arrivalRate = scenario.getArrivalRate();
+        this.serviceRate = scenario.getServiceRate();
+        this.numBaristas = scenario.getNumBaristas();
+        this.simulationDuration = scenario.getSimulationDuration();
+    }
+
+    // Arrivals who find this many customers waiting leave at once.
+    public void setBalkQueueLength(int balkQueueLength) {
+        this.balkQueueLength = balkQueueLength;
+    }
+
+    // Each customer's patience is exponential with this mean; once it runs out they leave
+    // the line.
+    public void setMeanPatience(double meanPatience) {
+        this.meanPatience = meanPatience;
+    }
+
+    // Time at the register after the order is handed over; no barista is needed for it.
+    public void setPayTime(double payTime) {
+        this.payTime = payTime;
+    }
+
+    // Simulates the day from an empty shop. Customers still in the shop at closing time are
+    // ended with the scheduler.
+    public void run(SplitMix64 random) {
+        long start = System.nanoTime();
+        try (ProcessScheduler processes = new ProcessScheduler(random)) {
+            scheduler = processes;
+            for (int i = 0; i < numBaristas; i++) {
+                processes.start(new BaristaProcess(), 0);
+            }
+            processes.start(new ArrivalProcess(), 0);
+            processes.run(simulationDuration);
+        }
+        elapsedNanos = System.nanoTime() - start;
+    }
+
+    public ProcessScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public int getArrivalCount() {
+        return arrivalCount;
+    }
+
+    public int getBalkedCount() {
+        return balkedCount;
+    }
+
+    public int getRenegedCount() {
+        return renegedCount;
+    }
+
+    public int getServedCount() {
+        return servedCount;
+    }
+
+    public int getMaxQueueLength() {
+        return maxWaitingCount;
+    }
+
+    public double getAverageWaitTime() {
+        return waitStatistics.getMean();
+    }
+
+    public double getAverageTimeInShop() {
+        return timeInShopStatistics.getMean();
+    }
+
+    public double getAverageUtilization() {
+        return busyTime / (numBaristas * simulationDuration) * 100;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public String getStatistics() {
+        return String.format("Arrivals: %d | Served: %d | Balked: %d | Reneged: %d | Avg wait: %.2f min | "
+                        + "Avg time in shop: %.2f min | Max queue: %d | Utilization: %.1f%%",
+                arrivalCount, servedCount, balkedCount, renegedCount, getAverageWaitTime(), getAverageTimeInShop(),
+                maxWaitingCount, getAverageUtilization());
+    }
+
+    private final class ArrivalProcess extends SimulationProcess {
+        @Override
+        protected void run() {
+            while (true) {
+                hold(ExponentialZiggurat.sample(random()) / arrivalRate);
+                if (now() >= simulationDuration) {
+                    return;
+                }
+                scheduler().start(new CustomerProcess(), 0);
+            }
+        }
+    }
+
+    private final class CustomerProcess extends SimulationProcess {
+        private boolean reneged = false;
+
+        @Override
+        protected void run() {
+            double arrivalTime = now();
+            arrivalCount++;
+            if (balkQueueLength > 0 && waitingCount >= balkQueueLength) {
+                balkedCount++;
+                return;
+            }
+            line.add(this);
+            waitingCount++;
+            maxWaitingCount = Math.max(maxWaitingCount, waitingCount);
+            BaristaProcess idle = idleBaristas.poll();
+            if (idle != null) {
+                idle.activate();
+            }
+
+            boolean taken = true;
+            if (meanPatience > 0) {
+                taken = passivate(ExponentialZiggurat.sample(random()) * meanPatience);
+            } else {
+                passivate();
+            }
+            if (!taken) {
+                reneged = true;
+                waitingCount--;
+                renegedCount++;
+                return;
+            }
+            waitStatistics.add(now() - arrivalTime);
+
+            passivate(); // until the order is handed over
+            if (payTime > 0) {
+                hold(payTime);
+            }
+            timeInShopStatistics.add(now() - arrivalTime);
+        }
+    }
+
+    private final class BaristaProcess extends SimulationProcess {
+        @Override
+        protected void run() {
+            while (true) {
+                CustomerProcess customer = line.poll();
+                while (customer != null && customer.reneged) {
+                    customer = line.poll();
+                }
+                if (customer == null) {
+                    idleBaristas.add(this);
+                    passivate();
+                    continue;
+                }
+                waitingCount--;
+                customer.activate();
+                double serviceTime = ExponentialZiggurat.sample(random()) / serviceRate;
+                busyTime += Math.max(0, Math.min(now() + serviceTime, simulationDuration) - now());
+                hold(serviceTime);
+                servedCount++;
+                customer.activate();
+            }
+        }
+    }
+}
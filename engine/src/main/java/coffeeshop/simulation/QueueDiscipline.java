@@ -0,0 +1,8 @@
+package coffeeshop.simulation;
+
+// Order in which a station takes waiting customers.
+public enum QueueDiscipline {
+    FIFO,
+    // Newest first, like a pickup counter where the latest cup is put down in front.
+    LIFO
+}
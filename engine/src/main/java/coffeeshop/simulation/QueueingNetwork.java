@@ -0,0 +1,345 @@
+package coffeeshop.simulation;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Layout of a shop as a network of stations: where customers come in, how many servers each
+// station has, how long it takes them and in what order they take customers, which shared
+// resource each service needs a unit of, and where customers go next. Routes out of a station
+// are probabilities; whatever they leave short of 1 is the chance of leaving the shop.
+// Stations and resources are numbered in the order they are added.
+public final class QueueingNetwork {
+    private final List<String> stationNames = new ArrayList<>();
+    private final List<Integer> servers = new ArrayList<>();
+    private final List<Double> serviceRates = new ArrayList<>();
+    private final List<ServiceDistribution> distributions = new ArrayList<>();
+    private final List<QueueDiscipline> disciplines = new ArrayList<>();
+    private final List<Integer> stationResources = new ArrayList<>();
+    private final List<List<Integer>> routeTargets = new ArrayList<>();
+    private final List<List<Double>> routeProbabilities = new ArrayList<>();
+    private final List<String> resourceNames = new ArrayList<>();
+    private final List<Integer> capacities = new ArrayList<>();
+    private double[] arrivalRates = new double[0]; // external arrivals per minute, by station
+
+    public int addResource(String name, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Resource " + name + " needs at least one unit");
+        }
+        if (resourceNames.contains(name)) {
+            throw new IllegalArgumentException("Duplicate resource " + name);
+        }
+        resourceNames.add(name);
+        capacities.add(capacity);
+        return resourceNames.size() - 1;
+    }
+
+    // resource is -1 when the station needs nothing but a free server.
+    public int addStation(String name, int serverCount, double serviceRate, ServiceDistribution distribution,
+                          QueueDiscipline discipline, int resource) {
+        if (serverCount < 1) {
+            throw new IllegalArgumentException("Station " + name + " needs at least one server");
+        }
+        if (!(serviceRate > 0)) {
+            throw new IllegalArgumentException("Station " + name + " needs a positive service rate");
+        }
+        if (resource < -1 || resource >= resourceNames.size()) {
+            throw new IllegalArgumentException("Unknown resource " + resource);
+        }
+        if (stationNames.contains(name)) {
+            throw new IllegalArgumentException("Duplicate station " + name);
+        }
+        stationNames.add(name);
+        servers.add(serverCount);
+        serviceRates.add(serviceRate);
+        distributions.add(distribution);
+        disciplines.add(discipline);
+        stationResources.add(resource);
+        routeTargets.add(new ArrayList<>());
+        routeProbabilities.add(new ArrayList<>());
+        return stationNames.size() - 1;
+    }
+
+    // Customers from outside arrive at the station as a Poisson stream at this rate.
+    public void addArrivals(int station, double rate) {
+        checkStation(station);
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException("Arrival rate must be positive");
+        }
+        if (arrivalRates.length < stationNames.size()) {
+            double[] grown = new double[stationNames.size()];
+            System.arraycopy(arrivalRates, 0, grown, 0, arrivalRates.length);
+            arrivalRates = grown;
+        }
+        arrivalRates[station] += rate;
+    }
+
+    public void addRoute(int from, int to, double probability) {
+        checkStation(from);
+        checkStation(to);
+        if (!(probability > 0)) {
+            throw new IllegalArgumentException("Route probability must be positive");
+        }
+        double total = probability;
+        for (double existing : routeProbabilities.get(from)) {
+            total += existing;
+        }
+        if (total > 1 + 1e-9) {
+            throw new IllegalArgumentException("Routes out of " + stationNames.get(from) + " add up to more than 1");
+        }
+        routeTargets.get(from).add(to);
+        routeProbabilities.get(from).add(probability);
+    }
+
+    public int getStationCount() {
+        return stationNames.size();
+    }
+
+    public int getResourceCount() {
+        return resourceNames.size();
+    }
+
+    public int getStation(String name) {
+        int station = stationNames.indexOf(name);
+        if (station < 0) {
+            throw new IllegalArgumentException("Unknown station " + name);
+        }
+        return station;
+    }
+
+    public int getResource(String name) {
+        int resource = resourceNames.indexOf(name);
+        if (resource < 0) {
+            throw new IllegalArgumentException("Unknown resource " + name);
+        }
+        return resource;
+    }
+
+    public String getStationName(int station) {
+        return stationNames.get(station);
+    }
+
+    public String getResourceName(int resource) {
+        return resourceNames.get(resource);
+    }
+
+    public int getServers(int station) {
+        return servers.get(station);
+    }
+
+    public double getServiceRate(int station) {
+        return serviceRates.get(station);
+    }
+
+    public ServiceDistribution getDistribution(int station) {
+        return distributions.get(station);
+    }
+
+    public QueueDiscipline getDiscipline(int station) {
+        return disciplines.get(station);
+    }
+
+    public int getStationResource(int station) {
+        return stationResources.get(station);
+    }
+
+    public int getCapacity(int resource) {
+        return capacities.get(resource);
+    }
+
+    public double getArrivalRate(int station) {
+        return station < arrivalRates.length ? arrivalRates[station] : 0;
+    }
+
+    public double getTotalArrivalRate() {
+        double total = 0;
+        for (double rate : arrivalRates) {
+            total += rate;
+        }
+        return total;
+    }
+
+    // Where a customer who finishes at the station goes: a station index, or -1 to leave.
+    AliasTable routingTable(int station) {
+        List<Integer> targets = routeTargets.get(station);
+        List<Double> probabilities = routeProbabilities.get(station);
+        int count = targets.size();
+        double exit = 1;
+        for (double probability : probabilities) {
+            exit -= probability;
+        }
+        boolean exits = exit > 1e-9;
+        int[] outcomes = new int[count + (exits ? 1 : 0)];
+        double[] weights = new double[outcomes.length];
+        for (int i = 0; i < count; i++) {
+            outcomes[i] = targets.get(i);
+            weights[i] = probabilities.get(i);
+        }
+        if (exits) {
+            outcomes[count] = -1;
+            weights[count] = exit;
+        }
+        return new AliasTable(outcomes, weights);
+    }
+
+    // The station each outside arrival goes to, weighted by the stations' arrival rates.
+    AliasTable entryTable() {
+        List<Integer> stations = new ArrayList<>();
+        List<Double> rates = new ArrayList<>();
+        for (int station = 0; station < arrivalRates.length; station++) {
+            if (arrivalRates[station] > 0) {
+                stations.add(station);
+                rates.add(arrivalRates[station]);
+            }
+        }
+        if (stations.isEmpty()) {
+            throw new IllegalStateException("No station has arrivals from outside");
+        }
+        int[] outcomes = new int[stations.size()];
+        double[] weights = new double[outcomes.length];
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = stations.get(i);
+            weights[i] = rates.get(i);
+        }
+        return new AliasTable(outcomes, weights);
+    }
+
+    // Mean visits per outside arrival to each station, from the traffic equations
+    // v = e + v P, where e is each station's share of outside arrivals. Solved by iterating,
+    // which converges whenever every customer eventually leaves.
+    public double[] visitRatios() {
+        int count = stationNames.size();
+        double total = getTotalArrivalRate();
+        double[] visits = new double[count];
+        for (int iteration = 0; iteration < 10_000; iteration++) {
+            double[] next = new double[count];
+            for (int station = 0; station < count; station++) {
+                next[station] += total > 0 ? getArrivalRate(station) / total : 0;
+                List<Integer> targets = routeTargets.get(station);
+                for (int i = 0; i < targets.size(); i++) {
+                    next[targets.get(i)] += visits[station] * routeProbabilities.get(station).get(i);
+                }
+            }
+            double change = 0;
+            for (int station = 0; station < count; station++) {
+                change = Math.max(change, Math.abs(next[station] - visits[station]));
+            }
+            visits = next;
+            if (change < 1e-12) {
+                break;
+            }
+        }
+        return visits;
+    }
+
+    // The order, pay, brew and pickup counters of a shop with two espresso machines, shared
+    // by espresso drinks and tea. Drip coffee needs no machine.
+    public static QueueingNetwork coffeeShop(double arrivalRate) {
+        QueueingNetwork network = new QueueingNetwork();
+        int machines = network.addResource("espresso-machine", 2);
+        int order = network.addStation("order", 2, 1.5, ServiceDistribution.exponential(), QueueDiscipline.FIFO, -1);
+        int pay = network.addStation("pay", 2, 2.0, ServiceDistribution.lognormal(0.5), QueueDiscipline.FIFO, -1);
+        int espresso = network.addStation("espresso", 3, 0.8, ServiceDistribution.erlang(4), QueueDiscipline.FIFO,
+                machines);
+        int tea = network.addStation("tea", 1, 2.0, ServiceDistribution.exponential(), QueueDiscipline.FIFO, machines);
+        int drip = network.addStation("drip", 1, 2.0, ServiceDistribution.exponential(), QueueDiscipline.FIFO, -1);
+        int pickup = network.addStation("pickup", 1, 4.0, ServiceDistribution.exponential(), QueueDiscipline.LIFO,
+                -1);
+        network.addArrivals(order, arrivalRate);
+        network.addRoute(order, pay, 1);
+        network.addRoute(pay, espresso, 0.6);
+        network.addRoute(pay, tea, 0.1);
+        network.addRoute(pay, drip, 0.3);
+        network.addRoute(espresso, pickup, 1);
+        network.addRoute(tea, pickup, 1);
+        network.addRoute(drip, pickup, 1);
+        return network;
+    }
+
+    // Reads a network from a text file, one declaration per line; # starts a comment.
+    //   resource <name> <units>
+    //   station <name> servers=<n> rate=<per minute> [distribution=<spec>] [discipline=fifo|lifo]
+    //           [resource=<name>]
+    //   arrivals <station> <per minute>
+    //   route <from> <to> <probability> [<to> <probability> ...]
+    // Names must be declared before they are used. The distribution spec is as for
+    // --service-distribution.
+    public static QueueingNetwork read(Path file) throws IOException {
+        QueueingNetwork network = new QueueingNetwork();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file)) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            String[] words = (comment < 0 ? line : line.substring(0, comment)).trim().split("\\s+");
+            if (words[0].isEmpty()) {
+                continue;
+            }
+            try {
+                network.declare(words);
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                throw new IOException(file + ":" + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return network;
+    }
+
+    private void declare(String[] words) throws IOException {
+        switch (words[0].toLowerCase(Locale.ROOT)) {
+            case "resource":
+                addResource(words[1], Integer.parseInt(words[2]));
+                break;
+            case "station":
+                Map<String, String> settings = new HashMap<>();
+                for (int i = 2; i < words.length; i++) {
+                    int equals = words[i].indexOf('=');
+                    if (equals < 0) {
+                        throw new IllegalArgumentException("Expected key=value, got " + words[i]);
+                    }
+                    settings.put(words[i].substring(0, equals).toLowerCase(Locale.ROOT),
+                            words[i].substring(equals + 1));
+                }
+                String servers = settings.remove("servers");
+                String rate = settings.remove("rate");
+                if (servers == null || rate == null) {
+                    throw new IllegalArgumentException("Station " + words[1] + " needs servers= and rate=");
+                }
+                String distribution = settings.remove("distribution");
+                String discipline = settings.remove("discipline");
+                String resource = settings.remove("resource");
+                if (!settings.isEmpty()) {
+                    throw new IllegalArgumentException("Unknown station settings " + settings.keySet());
+                }
+                addStation(words[1], Integer.parseInt(servers), Double.parseDouble(rate),
+                        distribution == null ? ServiceDistribution.exponential() : ServiceDistribution.parse(distribution),
+                        discipline == null ? QueueDiscipline.FIFO
+                                : QueueDiscipline.valueOf(discipline.toUpperCase(Locale.ROOT)),
+                        resource == null ? -1 : getResource(resource));
+                break;
+            case "arrivals":
+                addArrivals(getStation(words[1]), Double.parseDouble(words[2]));
+                break;
+            case "route":
+                if (words.length < 4 || words.length % 2 != 0) {
+                    throw new IllegalArgumentException("Expected route <from> <to> <probability> ...");
+                }
+                int from = getStation(words[1]);
+                for (int i = 2; i < words.length; i += 2) {
+                    addRoute(from, getStation(words[i]), Double.parseDouble(words[i + 1]));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown declaration " + words[0]);
+        }
+    }
+
+    private void checkStation(int station) {
+        if (station < 0 || station >= stationNames.size()) {
+            throw new IllegalArgumentException("Unknown station " + station);
+        }
+    }
+}
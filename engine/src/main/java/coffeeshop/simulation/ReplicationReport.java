@@ -0,0 +1,63 @@
+package coffeeshop.simulation;
+
+// Per-replication results of one scenario together with 95% confidence intervals.
+public final class ReplicationReport {
+    private final Scenario scenario;
+    private final ReplicationResult[] results;
+    private final ConfidenceInterval averageWait;
+    private final ConfidenceInterval maxQueueLength;
+    private final ConfidenceInterval utilization;
+    private final long elapsedNanos;
+
+    public ReplicationReport(Scenario scenario, ReplicationResult[] results, long elapsedNanos) {
+        this.scenario = scenario;
+        this.results = results.clone();
+        this.elapsedNanos = elapsedNanos;
+
+        double[] waits = new double[results.length];
+        double[] queues = new double[results.length];
+        double[] utilizations = new double[results.length];
+        for (int i = 0; i < results.length; i++) {
+            waits[i] = results[i].getAverageWait();
+            queues[i] = results[i].getMaxQueueLength();
+            utilizations[i] = results[i].getUtilization();
+        }
+        averageWait = ConfidenceInterval.of95(waits);
+        maxQueueLength = ConfidenceInterval.of95(queues);
+        utilization = ConfidenceInterval.of95(utilizations);
+    }
+
+    public Scenario getScenario() {
+        return scenario;
+    }
+
+    public int getReplicationCount() {
+        return results.length;
+    }
+
+    public ReplicationResult getResult(int replication) {
+        return results[replication];
+    }
+
+    public ConfidenceInterval getAverageWait() {
+        return averageWait;
+    }
+
+    public ConfidenceInterval getMaxQueueLength() {
+        return maxQueueLength;
+    }
+
+    public ConfidenceInterval getUtilization() {
+        return utilization;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Replications: %d | Avg wait: %s min | Max queue: %s | Utilization: %s%%",
+                results.length, averageWait, maxQueueLength, utilization);
+    }
+}
@@ -0,0 +1,37 @@
+package coffeeshop.simulation;
+
+// Summary outputs of one independent run of a scenario.
+public final class ReplicationResult {
+    private final double averageWait;
+    private final int maxQueueLength;
+    private final double utilization;
+    private final int customersServed;
+
+    public ReplicationResult(double averageWait, int maxQueueLength, double utilization, int customersServed) {
+        this.averageWait = averageWait;
+        this.maxQueueLength = maxQueueLength;
+        this.utilization = utilization;
+        this.customersServed = customersServed;
+    }
+
+    public static ReplicationResult of(CoffeeShopEngine engine) {
+        return new ReplicationResult(engine.getAverageWaitTime(), engine.getMaxQueueLength(),
+                engine.getAverageUtilization(), engine.getServedCount());
+    }
+
+    public double getAverageWait() {
+        return averageWait;
+    }
+
+    public int getMaxQueueLength() {
+        return maxQueueLength;
+    }
+
+    public double getUtilization() {
+        return utilization;
+    }
+
+    public int getCustomersServed() {
+        return customersServed;
+    }
+}
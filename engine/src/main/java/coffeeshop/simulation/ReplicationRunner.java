@@ -0,0 +1,47 @@
+package coffeeshop.simulation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Runs independent replications of a scenario across a fork-join pool. Every replication
+// gets its own SplitMix64 stream split from the master seed before any work is scheduled,
+// so results do not depend on thread count or scheduling order.
+public class ReplicationRunner {
+    private final ForkJoinPool pool;
+
+    public ReplicationRunner() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ReplicationRunner(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public ReplicationReport run(Scenario scenario, int replications, long masterSeed) {
+        if (replications < 1) {
+            throw new IllegalArgumentException("At least one replication is required");
+        }
+        SplitMix64[] streams = streams(masterSeed, replications);
+        ReplicationResult[] results = new ReplicationResult[replications];
+
+        long start = System.nanoTime();
+        pool.submit(() -> IntStream.range(0, replications).parallel()
+                .forEach(i -> results[i] = runReplication(scenario, streams[i]))).join();
+        return new ReplicationReport(scenario, results, System.nanoTime() - start);
+    }
+
+    public static ReplicationResult runReplication(Scenario scenario, SplitMix64 stream) {
+        CoffeeShopEngine engine = scenario.newEngine(stream);
+        engine.runToCompletion();
+        return ReplicationResult.of(engine);
+    }
+
+    public static SplitMix64[] streams(long masterSeed, int count) {
+        SplitMix64 master = new SplitMix64(masterSeed);
+        SplitMix64[] streams = new SplitMix64[count];
+        for (int i = 0; i < count; i++) {
+            streams[i] = master.split();
+        }
+        return streams;
+    }
+}
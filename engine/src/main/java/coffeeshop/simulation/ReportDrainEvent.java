@@ -0,0 +1,22 @@
+package coffeeshop.simulation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One pull of chart reports by the UI. A large count per drain means reports pile up between
+// UI pulses; a growing dropped count means the UI is not keeping up at all.
+@Name("coffeeshop.ReportDrain")
+@Label("Report Drain")
+@Category({"Coffee Shop", "UI"})
+@Description("Chart reports handed from the simulation thread to the UI in one pulse")
+@StackTrace(false)
+final class ReportDrainEvent extends jdk.jfr.Event {
+    @Label("Reports")
+    int reports;
+
+    @Label("Dropped Total")
+    long dropped;
+}
@@ -0,0 +1,75 @@
+package coffeeshop.simulation;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded single-producer/single-consumer queue of statistics reports held in primitive
+// arrays. The engine thread offers without ever blocking; when the consumer falls a full
+// buffer behind, new reports are dropped and counted rather than stalling the simulation.
+// Each report carries the epoch it was made in, so the consumer can skip reports from before
+// a reset without the reset itself having to fit in the buffer.
+final class ReportRingBuffer {
+    private final int mask;
+    private final long[] epochs;
+    private final double[] times;
+    private final int[] queueLengths;
+    private final double[] recentWaits;
+    private final double[] utilizations;
+    private final AtomicLong head = new AtomicLong(); // next slot to read
+    private final AtomicLong tail = new AtomicLong(); // next slot to write
+    private volatile long dropped = 0; // written by the producer only
+
+    public ReportRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        mask = capacity - 1;
+        epochs = new long[capacity];
+        times = new double[capacity];
+        queueLengths = new int[capacity];
+        recentWaits = new double[capacity];
+        utilizations = new double[capacity];
+    }
+
+    // Producer side only.
+    public boolean offer(long epoch, double time, int queueLength, double recentWait, double utilization) {
+        long t = tail.get();
+        if (t - head.get() > mask) {
+            dropped++;
+            return false;
+        }
+        int slot = (int) (t & mask);
+        epochs[slot] = epoch;
+        times[slot] = time;
+        queueLengths[slot] = queueLength;
+        recentWaits[slot] = recentWait;
+        utilizations[slot] = utilization;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    // Consumer side only. Hands the listener every available report made in the given epoch and
+    // returns how many. Older reports are discarded; a report from a later epoch stops the drain
+    // and is left for the next one, which the caller starts after handling that reset.
+    public int drain(long epoch, SimulationListener listener) {
+        long h = head.get();
+        long t = tail.get();
+        int drained = 0;
+        long i = h;
+        for (; i < t; i++) {
+            int slot = (int) (i & mask);
+            if (epochs[slot] > epoch) {
+                break;
+            }
+            if (epochs[slot] == epoch) {
+                listener.onStatisticsReport(times[slot], queueLengths[slot], recentWaits[slot], utilizations[slot]);
+                drained++;
+            }
+        }
+        head.lazySet(i);
+        return drained;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+}
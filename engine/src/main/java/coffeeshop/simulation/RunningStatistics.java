@@ -0,0 +1,93 @@
+package coffeeshop.simulation;
+
+import java.nio.ByteBuffer;
+
+// Constant-memory count, mean, variance, min and max using Welford's online update.
+public final class RunningStatistics {
+    static final int SERIALIZED_SIZE = Long.BYTES + 4 * Double.BYTES;
+
+    private long count = 0;
+    private double mean = 0;
+    private double m2 = 0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    // Chan et al. parallel combination, so per-thread accumulators can be merged.
+    public void merge(RunningStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            min = other.min;
+            max = other.max;
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void clear() {
+        count = 0;
+        mean = 0;
+        m2 = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.putLong(count).putDouble(mean).putDouble(m2).putDouble(min).putDouble(max);
+    }
+
+    void readFrom(ByteBuffer buffer) {
+        count = buffer.getLong();
+        mean = buffer.getDouble();
+        m2 = buffer.getDouble();
+        min = buffer.getDouble();
+        max = buffer.getDouble();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    public double getVariance() {
+        return count < 2 ? Double.NaN : m2 / (count - 1);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+}
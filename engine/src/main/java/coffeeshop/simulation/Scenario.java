@@ -0,0 +1,136 @@
+package coffeeshop.simulation;
+
+import java.util.Locale;
+
+// Immutable set of model parameters from which independent engines can be built.
+public final class Scenario {
+    private final double arrivalRate;
+    private final double serviceRate;
+    private final int numBaristas;
+    private final double simulationDuration;
+    private final ServiceDistribution serviceDistribution;
+    private final int balkQueueLength;
+    private final double meanPatience;
+    private final DispatchPolicy dispatchPolicy;
+    private final VariateMethod variateMethod;
+
+    public Scenario(double arrivalRate, double serviceRate, int numBaristas, double simulationDuration) {
+        this(arrivalRate, serviceRate, numBaristas, simulationDuration, ServiceDistribution.exponential(), 0, 0,
+                DispatchPolicy.FIRST_FREE, VariateMethod.ZIGGURAT);
+    }
+
+    private Scenario(double arrivalRate, double serviceRate, int numBaristas, double simulationDuration,
+                     ServiceDistribution serviceDistribution, int balkQueueLength, double meanPatience,
+                     DispatchPolicy dispatchPolicy, VariateMethod variateMethod) {
+        if (arrivalRate <= 0 || serviceRate <= 0) {
+            throw new IllegalArgumentException("Arrival and service rates must be positive");
+        }
+        if (numBaristas < 1) {
+            throw new IllegalArgumentException("At least one barista is required");
+        }
+        if (balkQueueLength < 0 || meanPatience < 0) {
+            throw new IllegalArgumentException("Balking queue length and patience must not be negative");
+        }
+        this.arrivalRate = arrivalRate;
+        this.serviceRate = serviceRate;
+        this.numBaristas = numBaristas;
+        this.simulationDuration = simulationDuration;
+        this.serviceDistribution = serviceDistribution;
+        this.balkQueueLength = balkQueueLength;
+        this.meanPatience = meanPatience;
+        this.dispatchPolicy = dispatchPolicy;
+        this.variateMethod = variateMethod;
+    }
+
+    public Scenario withServiceDistribution(ServiceDistribution serviceDistribution) {
+        return new Scenario(arrivalRate, serviceRate, numBaristas, simulationDuration, serviceDistribution,
+                balkQueueLength, meanPatience, dispatchPolicy, variateMethod);
+    }
+
+    // Customers balk at a line of balkQueueLength and renege after exponential patience with
+    // the given mean; zero turns either off.
+    public Scenario withImpatience(int balkQueueLength, double meanPatience) {
+        return new Scenario(arrivalRate, serviceRate, numBaristas, simulationDuration, serviceDistribution,
+                balkQueueLength, meanPatience, dispatchPolicy, variateMethod);
+    }
+
+    public Scenario withDispatchPolicy(DispatchPolicy dispatchPolicy) {
+        return new Scenario(arrivalRate, serviceRate, numBaristas, simulationDuration, serviceDistribution,
+                balkQueueLength, meanPatience, dispatchPolicy, variateMethod);
+    }
+
+    // Scenarios compared against each other should use the same method, or they see different customers.
+    public Scenario withVariateMethod(VariateMethod variateMethod) {
+        return new Scenario(arrivalRate, serviceRate, numBaristas, simulationDuration, serviceDistribution,
+                balkQueueLength, meanPatience, dispatchPolicy, variateMethod);
+    }
+
+    public double getArrivalRate() {
+        return arrivalRate;
+    }
+
+    public double getServiceRate() {
+        return serviceRate;
+    }
+
+    public int getNumBaristas() {
+        return numBaristas;
+    }
+
+    public double getSimulationDuration() {
+        return simulationDuration;
+    }
+
+    public ServiceDistribution getServiceDistribution() {
+        return serviceDistribution;
+    }
+
+    public int getBalkQueueLength() {
+        return balkQueueLength;
+    }
+
+    public double getMeanPatience() {
+        return meanPatience;
+    }
+
+    public DispatchPolicy getDispatchPolicy() {
+        return dispatchPolicy;
+    }
+
+    public VariateMethod getVariateMethod() {
+        return variateMethod;
+    }
+
+    public CoffeeShopEngine newEngine(SplitMix64 random) {
+        CoffeeShopEngine engine = new CoffeeShopEngine(random);
+        engine.setArrivalRate(arrivalRate);
+        engine.setServiceRate(serviceRate);
+        engine.setNumBaristas(numBaristas);
+        engine.setSimulationDuration(simulationDuration);
+        engine.setServiceDistribution(serviceDistribution);
+        engine.setBalkQueueLength(balkQueueLength);
+        engine.setMeanPatience(meanPatience);
+        engine.setDispatchPolicy(dispatchPolicy);
+        engine.setVariateMethod(variateMethod);
+        return engine;
+    }
+
+    @Override
+    public String toString() {
+        String text = String.format("arrivalRate=%.3f serviceRate=%.3f baristas=%d duration=%.0f service=%s",
+                arrivalRate, serviceRate, numBaristas, simulationDuration, serviceDistribution);
+        if (balkQueueLength > 0) {
+            text += " balkQueue=" + balkQueueLength;
+        }
+        if (meanPatience > 0) {
+            text += String.format(" patience=%.2f", meanPatience);
+        }
+        if (dispatchPolicy != DispatchPolicy.FIRST_FREE) {
+            text += " dispatch=" + dispatchPolicy;
+        }
+        if (variateMethod != VariateMethod.ZIGGURAT) {
+            text += " variates=" + variateMethod.name().toLowerCase(Locale.ROOT);
+        }
+        return text;
+    }
+}
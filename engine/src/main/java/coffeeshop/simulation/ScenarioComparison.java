@@ -0,0 +1,96 @@
+package coffeeshop.simulation;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Estimates how much the average wait changes between a baseline and an alternative scenario.
+// With common random numbers, replication i of both scenarios starts from the same streams, so
+// they see the same customers and the difference reflects the change rather than luck. With
+// antithetic pairs, replications come in pairs drawn from u and 1 - u.
+public class ScenarioComparison {
+    private static final int INITIAL_REPLICATIONS = 10;
+
+    private final ForkJoinPool pool;
+
+    public ScenarioComparison() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ScenarioComparison(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public ComparisonReport compare(Scenario baseline, Scenario alternative, int replications, long seed,
+                                    VarianceReduction method) {
+        int n = replicationCount(replications, method);
+        double[] baselineWaits = new double[n];
+        double[] alternativeWaits = new double[n];
+        long start = System.nanoTime();
+        run(baseline, alternative, seed, method, 0, n, baselineWaits, alternativeWaits);
+        return new ComparisonReport(method, baselineWaits, alternativeWaits, System.nanoTime() - start);
+    }
+
+    // Adds replications, doubling each round, until the 95% confidence interval of the difference
+    // is no wider than targetHalfWidth either side or maxReplications is reached. Replications
+    // from earlier rounds are kept, so the total cost is that of the final count.
+    public ComparisonReport compareToPrecision(Scenario baseline, Scenario alternative, double targetHalfWidth,
+                                               int maxReplications, long seed, VarianceReduction method) {
+        int max = replicationCount(maxReplications, method);
+        int n = Math.min(replicationCount(INITIAL_REPLICATIONS, method), max);
+        double[] baselineWaits = new double[0];
+        double[] alternativeWaits = new double[0];
+        int done = 0;
+        long start = System.nanoTime();
+        while (true) {
+            baselineWaits = Arrays.copyOf(baselineWaits, n);
+            alternativeWaits = Arrays.copyOf(alternativeWaits, n);
+            run(baseline, alternative, seed, method, done, n, baselineWaits, alternativeWaits);
+            done = n;
+            ComparisonReport report = new ComparisonReport(method, baselineWaits, alternativeWaits,
+                    System.nanoTime() - start);
+            if (report.getDifference().getHalfWidth() <= targetHalfWidth || n == max) {
+                return report;
+            }
+            n = Math.min(max, n * 2);
+        }
+    }
+
+    // Runs replications [from, to) of both scenarios. Stream k of each master seed is the same
+    // however many replications are requested, so later rounds extend earlier ones.
+    private void run(Scenario baseline, Scenario alternative, long seed, VarianceReduction method, int from, int to,
+                     double[] baselineWaits, double[] alternativeWaits) {
+        SplitMix64 master = new SplitMix64(seed);
+        long baselineSeed = master.nextLong();
+        long alternativeSeed = method == VarianceReduction.NONE ? master.nextLong() : baselineSeed;
+        boolean paired = method == VarianceReduction.ANTITHETIC;
+        int streamCount = paired ? to / 2 : to;
+        SplitMix64[] baselineStreams = ReplicationRunner.streams(baselineSeed, streamCount);
+        SplitMix64[] alternativeStreams = ReplicationRunner.streams(alternativeSeed, streamCount);
+
+        pool.submit(() -> IntStream.range(from, to).parallel().forEach(i -> {
+            int stream = paired ? i / 2 : i;
+            boolean antithetic = paired && (i & 1) == 1;
+            baselineWaits[i] = averageWait(baseline, baselineStreams[stream], paired, antithetic);
+            alternativeWaits[i] = averageWait(alternative, alternativeStreams[stream], paired, antithetic);
+        })).join();
+    }
+
+    // Both halves of an antithetic pair must draw by inversion, or they are not mirror images.
+    private static double averageWait(Scenario scenario, SplitMix64 stream, boolean paired, boolean antithetic) {
+        CoffeeShopEngine engine = scenario.newEngine(stream.copy());
+        if (paired) {
+            engine.setVariateMethod(VariateMethod.INVERSION);
+        }
+        engine.setAntithetic(antithetic);
+        engine.runToCompletion();
+        return engine.getAverageWaitTime();
+    }
+
+    private static int replicationCount(int replications, VarianceReduction method) {
+        if (replications < 2) {
+            throw new IllegalArgumentException("At least two replications are required");
+        }
+        return method == VarianceReduction.ANTITHETIC ? (replications + 1) & ~1 : replications;
+    }
+}
@@ -0,0 +1,333 @@
+package coffeeshop.simulation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Shape of the service-time distribution. Every shape has mean 1 and the engine divides by
+// the service rate, so the rate slider keeps meaning what it says whatever the shape.
+//
+// sample() must draw from nothing but the given generator, so a customer's demand stays a
+// function of their id. With inversion set, each variate is a monotone function of its
+// uniforms, flipped to 1 - u when antithetic, which is what antithetic pairs need.
+public abstract class ServiceDistribution {
+    private static final byte EXPONENTIAL = 0;
+    private static final byte LOGNORMAL = 1;
+    private static final byte ERLANG = 2;
+    private static final byte EMPIRICAL = 3;
+
+    private static final ServiceDistribution EXPONENTIAL_SHAPE = new Exponential();
+
+    abstract double sample(SplitMix64 random, boolean inversion, boolean antithetic);
+
+    public abstract double getCoefficientOfVariation();
+
+    abstract int serializedSize();
+
+    abstract void writeTo(ByteBuffer buffer);
+
+    public static ServiceDistribution exponential() {
+        return EXPONENTIAL_SHAPE;
+    }
+
+    public static ServiceDistribution lognormal(double coefficientOfVariation) {
+        return new Lognormal(coefficientOfVariation);
+    }
+
+    public static ServiceDistribution erlang(int shape) {
+        return new Erlang(shape);
+    }
+
+    // Resamples the observed service times by interpolating their empirical quantiles. Only
+    // the shape is kept; the times are rescaled to mean 1.
+    public static ServiceDistribution empirical(double... samples) {
+        return new Empirical(samples);
+    }
+
+    // Parses "exponential", "lognormal:cv", "erlang:k" or "empirical:file", where the file
+    // holds one observed service time per line.
+    public static ServiceDistribution parse(String spec) throws IOException {
+        int colon = spec.indexOf(':');
+        String kind = (colon < 0 ? spec : spec.substring(0, colon)).trim().toLowerCase(Locale.ROOT);
+        String argument = colon < 0 ? null : spec.substring(colon + 1).trim();
+        if (kind.equals("exponential") && argument == null) {
+            return exponential();
+        }
+        if (argument == null) {
+            throw new IllegalArgumentException("Service distribution " + kind + " needs a parameter");
+        }
+        switch (kind) {
+            case "lognormal":
+                return lognormal(Double.parseDouble(argument));
+            case "erlang":
+                return erlang(Integer.parseInt(argument));
+            case "empirical":
+                return empirical(readSamples(argument));
+            default:
+                throw new IllegalArgumentException("Unknown service distribution " + spec);
+        }
+    }
+
+    private static double[] readSamples(String path) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(path));
+        double[] samples = new double[lines.size()];
+        int n = 0;
+        for (String line : lines) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                samples[n++] = Double.parseDouble(line);
+            }
+        }
+        return Arrays.copyOf(samples, n);
+    }
+
+    static ServiceDistribution readFrom(ByteBuffer buffer) {
+        byte kind = buffer.get();
+        switch (kind) {
+            case EXPONENTIAL:
+                return exponential();
+            case LOGNORMAL:
+                return lognormal(buffer.getDouble());
+            case ERLANG:
+                return erlang(buffer.getInt());
+            case EMPIRICAL:
+                double[] quantiles = new double[buffer.getInt()];
+                for (int i = 0; i < quantiles.length; i++) {
+                    quantiles[i] = buffer.getDouble();
+                }
+                return new Empirical(quantiles);
+            default:
+                throw new IllegalArgumentException("Unknown service distribution kind " + kind);
+        }
+    }
+
+    static double exponential(SplitMix64 random, boolean inversion, boolean antithetic) {
+        if (!inversion) {
+            return ExponentialZiggurat.sample(random);
+        }
+        double u = random.nextUniform();
+        return -Math.log(antithetic ? 1 - u : u);
+    }
+
+    static final class Exponential extends ServiceDistribution {
+        @Override
+        double sample(SplitMix64 random, boolean inversion, boolean antithetic) {
+            return exponential(random, inversion, antithetic);
+        }
+
+        @Override
+        public double getCoefficientOfVariation() {
+            return 1;
+        }
+
+        @Override
+        int serializedSize() {
+            return 1;
+        }
+
+        @Override
+        void writeTo(ByteBuffer buffer) {
+            buffer.put(EXPONENTIAL);
+        }
+
+        @Override
+        public String toString() {
+            return "exponential";
+        }
+    }
+
+    // exp(mu + sigma Z) with sigma^2 = ln(1 + cv^2) and mu = -sigma^2 / 2 has mean 1. Z comes
+    // from inverting the normal distribution, which keeps the path free of rejection loops.
+    static final class Lognormal extends ServiceDistribution {
+        private final double coefficientOfVariation;
+        private final double mu;
+        private final double sigma;
+
+        Lognormal(double coefficientOfVariation) {
+            if (!(coefficientOfVariation > 0)) {
+                throw new IllegalArgumentException("Coefficient of variation must be positive");
+            }
+            this.coefficientOfVariation = coefficientOfVariation;
+            double variance = Math.log1p(coefficientOfVariation * coefficientOfVariation);
+            this.sigma = Math.sqrt(variance);
+            this.mu = -variance / 2;
+        }
+
+        @Override
+        double sample(SplitMix64 random, boolean inversion, boolean antithetic) {
+            double u = random.nextUniform();
+            return Math.exp(mu + sigma * inverseNormal(antithetic ? 1 - u : u));
+        }
+
+        @Override
+        public double getCoefficientOfVariation() {
+            return coefficientOfVariation;
+        }
+
+        @Override
+        int serializedSize() {
+            return 1 + Double.BYTES;
+        }
+
+        @Override
+        void writeTo(ByteBuffer buffer) {
+            buffer.put(LOGNORMAL).putDouble(coefficientOfVariation);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "lognormal(cv=%.3g)", coefficientOfVariation);
+        }
+    }
+
+    // Sum of k unit exponentials over k. Inversion takes one logarithm of the product of the
+    // uniforms, in runs short enough that the product cannot underflow.
+    static final class Erlang extends ServiceDistribution {
+        private static final int PRODUCT_RUN = 16;
+
+        private final int shape;
+
+        Erlang(int shape) {
+            if (shape < 1) {
+                throw new IllegalArgumentException("Erlang shape must be at least 1");
+            }
+            this.shape = shape;
+        }
+
+        @Override
+        double sample(SplitMix64 random, boolean inversion, boolean antithetic) {
+            double sum = 0;
+            if (!inversion) {
+                for (int i = 0; i < shape; i++) {
+                    sum += ExponentialZiggurat.sample(random);
+                }
+                return sum / shape;
+            }
+            for (int i = 0; i < shape; i += PRODUCT_RUN) {
+                double product = 1;
+                int end = Math.min(shape, i + PRODUCT_RUN);
+                for (int j = i; j < end; j++) {
+                    double u = random.nextUniform();
+                    product *= antithetic ? 1 - u : u;
+                }
+                sum -= Math.log(product);
+            }
+            return sum / shape;
+        }
+
+        @Override
+        public double getCoefficientOfVariation() {
+            return 1 / Math.sqrt(shape);
+        }
+
+        @Override
+        int serializedSize() {
+            return 1 + Integer.BYTES;
+        }
+
+        @Override
+        void writeTo(ByteBuffer buffer) {
+            buffer.put(ERLANG).putInt(shape);
+        }
+
+        @Override
+        public String toString() {
+            return "erlang(k=" + shape + ")";
+        }
+    }
+
+    // Piecewise-linear inverse of the empirical distribution: u picks a position between the
+    // sorted samples and the two neighbours are interpolated. Scaled so that mean is 1.
+    static final class Empirical extends ServiceDistribution {
+        private final double[] quantiles;
+        private final double coefficientOfVariation;
+
+        Empirical(double[] samples) {
+            if (samples.length < 2) {
+                throw new IllegalArgumentException("At least two service time samples are required");
+            }
+            double[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            if (!(sorted[0] >= 0) || Double.isInfinite(sorted[sorted.length - 1])) {
+                throw new IllegalArgumentException("Service time samples must be finite and non-negative");
+            }
+            // Mean and second moment of the interpolated distribution, segment by segment.
+            double mean = 0;
+            double secondMoment = 0;
+            for (int i = 1; i < sorted.length; i++) {
+                double a = sorted[i - 1];
+                double b = sorted[i];
+                mean += (a + b) / 2;
+                secondMoment += (a * a + a * b + b * b) / 3;
+            }
+            mean /= sorted.length - 1;
+            secondMoment /= sorted.length - 1;
+            if (!(mean > 0)) {
+                throw new IllegalArgumentException("Service time samples must not all be zero");
+            }
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] /= mean;
+            }
+            this.quantiles = sorted;
+            this.coefficientOfVariation = Math.sqrt(Math.max(0, secondMoment / (mean * mean) - 1));
+        }
+
+        @Override
+        double sample(SplitMix64 random, boolean inversion, boolean antithetic) {
+            double u = random.nextUniform();
+            double position = (antithetic ? 1 - u : u) * (quantiles.length - 1);
+            int index = (int) position;
+            double fraction = position - index;
+            return quantiles[index] + fraction * (quantiles[index + 1] - quantiles[index]);
+        }
+
+        @Override
+        public double getCoefficientOfVariation() {
+            return coefficientOfVariation;
+        }
+
+        @Override
+        int serializedSize() {
+            return 1 + Integer.BYTES + quantiles.length * Double.BYTES;
+        }
+
+        @Override
+        void writeTo(ByteBuffer buffer) {
+            buffer.put(EMPIRICAL).putInt(quantiles.length);
+            for (double quantile : quantiles) {
+                buffer.putDouble(quantile);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "empirical(%d samples, cv=%.3g)", quantiles.length,
+                    coefficientOfVariation);
+        }
+    }
+
+    // Acklam's rational approximation to the standard normal quantile, relative error below
+    // 1.2e-9 over (0, 1).
+    static double inverseNormal(double p) {
+        if (p < 0.02425) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((-7.784894002430293e-03 * q - 3.223964580411365e-01) * q - 2.400758277161838e+00) * q
+                    - 2.549732539343734e+00) * q + 4.374664141464968e+00) * q + 2.938163982698783e+00)
+                    / ((((7.784695709041462e-03 * q + 3.224671290700398e-01) * q + 2.445134137142996e+00) * q
+                    + 3.754408661907416e+00) * q + 1);
+        }
+        if (p > 1 - 0.02425) {
+            return -inverseNormal(1 - p);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((-3.969683028665376e+01 * r + 2.209460984245205e+02) * r - 2.759285104469687e+02) * r
+                + 1.383577518672690e+02) * r - 3.066479806614716e+01) * r + 2.506628277459239e+00) * q
+                / (((((-5.447609879822406e+01 * r + 1.615858368580409e+02) * r - 1.556989798598866e+02) * r
+                + 6.680131188771972e+01) * r - 1.328068155288572e+01) * r + 1);
+    }
+}
@@ -0,0 +1,31 @@
+package coffeeshop.simulation;
+
+// A wait-time target such as "90% of customers wait at most 4 minutes".
+public final class ServiceLevel {
+    private final double quantile;
+    private final double maxWait;
+
+    public ServiceLevel(double quantile, double maxWait) {
+        if (quantile <= 0 || quantile >= 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        if (maxWait < 0) {
+            throw new IllegalArgumentException("Maximum wait cannot be negative");
+        }
+        this.quantile = quantile;
+        this.maxWait = maxWait;
+    }
+
+    public double getQuantile() {
+        return quantile;
+    }
+
+    public double getMaxWait() {
+        return maxWait;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("p%.0f wait <= %.2f min", quantile * 100, maxWait);
+    }
+}
@@ -0,0 +1,39 @@
+package coffeeshop.simulation;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One call to CoffeeShopEngine.runUntil(), recorded only while Flight Recorder is running.
+@Name("coffeeshop.SimulationBatch")
+@Label("Simulation Batch")
+@Category({"Coffee Shop", "Engine"})
+@Description("Events processed by one engine batch")
+@StackTrace(false)
+final class SimulationBatchEvent extends jdk.jfr.Event {
+    @Label("Events")
+    int events;
+
+    @Label("Customers Arrived")
+    int customers;
+
+    @Label("Simulated Start")
+    @Description("Simulated minutes at the start of the batch")
+    double simulatedStart;
+
+    @Label("Simulated End")
+    double simulatedEnd;
+
+    @Label("Event List Size")
+    int eventListSize;
+
+    @Label("Queue Length")
+    int queueLength;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
@@ -0,0 +1,6 @@
+package coffeeshop.simulation;
+
+// Receives callbacks from the engine thread; implementations must not block.
+public interface SimulationListener {
+    void onStatisticsReport(double time, int queueLength, double recentAvgWait, double utilization);
+}
@@ -0,0 +1,149 @@
+package coffeeshop.simulation;
+
+import java.util.concurrent.Semaphore;
+
+// A piece of model behaviour written as sequential code, run by a ProcessScheduler. The body
+// calls hold() to let simulated time pass, passivate() to wait until another process
+// activates it, and passivate(timeout) to wait for either. These methods may only be called
+// from the process's own body, and activate() only from inside some running process.
+public abstract class SimulationProcess {
+    private ProcessScheduler scheduler;
+    private int id = -1;
+    private Thread thread;
+    private Semaphore resume;
+    private int wakeUp = -1; // handle of the pending wake-up or timeout, -1 when passive
+    private boolean passive = false;
+    private boolean timedOut = false;
+    private boolean killed = false;
+    private boolean finished = false;
+
+    protected abstract void run();
+
+    protected final double now() {
+        return scheduler.getCurrentTime();
+    }
+
+    protected final SplitMix64 random() {
+        return scheduler.getRandom();
+    }
+
+    protected final ProcessScheduler scheduler() {
+        return scheduler;
+    }
+
+    protected final void hold(double delay) {
+        if (delay < 0) {
+            throw new IllegalArgumentException("Delay must not be negative");
+        }
+        wakeUp = scheduler.schedule(delay, ProcessScheduler.WAKE_UP, this);
+        scheduler.suspend(this);
+    }
+
+    // Waits until another process calls activate().
+    protected final void passivate() {
+        passive = true;
+        scheduler.suspend(this);
+    }
+
+    // Waits until another process calls activate() or the timeout passes, whichever comes
+    // first. Returns true if it was activated.
+    protected final boolean passivate(double timeout) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Timeout must not be negative");
+        }
+        passive = true;
+        wakeUp = scheduler.schedule(timeout, ProcessScheduler.TIMEOUT, this);
+        scheduler.suspend(this);
+        return !timedOut;
+    }
+
+    // Wakes this passive process at the current time, after any wake-ups already due then.
+    // A pending timeout is cancelled.
+    public final void activate() {
+        if (!passive) {
+            throw new IllegalStateException("Only a passive process can be activated");
+        }
+        if (wakeUp >= 0) {
+            scheduler.cancel(wakeUp);
+        }
+        passive = false;
+        wakeUp = scheduler.schedule(0, ProcessScheduler.WAKE_UP, this);
+    }
+
+    public final boolean isPassive() {
+        return passive;
+    }
+
+    void attach(ProcessScheduler scheduler, int id) {
+        if (this.scheduler != null) {
+            throw new IllegalStateException("Process has already been started");
+        }
+        this.scheduler = scheduler;
+        this.id = id;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    void setWakeUp(int handle) {
+        wakeUp = handle;
+    }
+
+    void wake(boolean timedOut) {
+        this.timedOut = timedOut;
+        wakeUp = -1;
+        passive = false;
+    }
+
+    boolean hasThread() {
+        return thread != null;
+    }
+
+    void startThread(Thread thread) {
+        this.thread = thread;
+        resume = new Semaphore(0);
+        thread.start();
+    }
+
+    void resume() {
+        resume.release();
+    }
+
+    void awaitResume() {
+        resume.acquireUninterruptibly();
+        if (killed) {
+            throw Killed.INSTANCE;
+        }
+    }
+
+    void kill() {
+        killed = true;
+    }
+
+    void execute() {
+        try {
+            run();
+        } catch (Killed e) {
+            // closed by the scheduler while waiting
+        }
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    void markFinished() {
+        finished = true;
+    }
+
+    // Unwinds a process's stack when its scheduler is closed.
+    private static final class Killed extends Error {
+        private static final long serialVersionUID = 1L;
+        static final Killed INSTANCE = new Killed();
+
+        private Killed() {
+            super(null, null, false, false);
+        }
+    }
+}
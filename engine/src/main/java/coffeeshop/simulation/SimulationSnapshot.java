@@ -0,0 +1,119 @@
+package coffeeshop.simulation;
+
+// Immutable view of the engine's statistics at one instant, safe to hand to other threads.
+public final class SimulationSnapshot {
+    private final double time;
+    private final int customerCount;
+    private final int servedCount;
+    private final int queueLength;
+    private final int maxQueueLength;
+    private final double averageWait;
+    private final double waitP50;
+    private final double waitP90;
+    private final double waitP99;
+    private final double currentUtilization;
+    private final double averageUtilization;
+    private final boolean finished;
+    private final int balkedCount;
+    private final int renegedCount;
+
+    public SimulationSnapshot(double time, int customerCount, int servedCount, int queueLength, int maxQueueLength,
+                              double averageWait, double waitP50, double waitP90, double waitP99,
+                              double currentUtilization, double averageUtilization, boolean finished,
+                              int balkedCount, int renegedCount) {
+        this.time = time;
+        this.customerCount = customerCount;
+        this.servedCount = servedCount;
+        this.queueLength = queueLength;
+        this.maxQueueLength = maxQueueLength;
+        this.averageWait = averageWait;
+        this.waitP50 = waitP50;
+        this.waitP90 = waitP90;
+        this.waitP99 = waitP99;
+        this.currentUtilization = currentUtilization;
+        this.averageUtilization = averageUtilization;
+        this.finished = finished;
+        this.balkedCount = balkedCount;
+        this.renegedCount = renegedCount;
+    }
+
+    public double getTime() {
+        return time;
+    }
+
+    public int getCustomerCount() {
+        return customerCount;
+    }
+
+    public int getServedCount() {
+        return servedCount;
+    }
+
+    public int getQueueLength() {
+        return queueLength;
+    }
+
+    public int getMaxQueueLength() {
+        return maxQueueLength;
+    }
+
+    public double getAverageWait() {
+        return averageWait;
+    }
+
+    public double getWaitP50() {
+        return waitP50;
+    }
+
+    public double getWaitP90() {
+        return waitP90;
+    }
+
+    public double getWaitP99() {
+        return waitP99;
+    }
+
+    public double getCurrentUtilization() {
+        return currentUtilization;
+    }
+
+    public double getAverageUtilization() {
+        return averageUtilization;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public int getBalkedCount() {
+        return balkedCount;
+    }
+
+    public int getRenegedCount() {
+        return renegedCount;
+    }
+
+    public String getStatistics() {
+        if (servedCount == 0) {
+            return "No customers served yet";
+        }
+
+        String statistics = String.format("Avg wait: %.2f min | p50/p90/p99 wait: %.2f/%.2f/%.2f min | "
+                        + "Max queue: %d | Current utilization: %.1f%%",
+                averageWait, waitP50, waitP90, waitP99, maxQueueLength, currentUtilization);
+        if (balkedCount == 0 && renegedCount == 0) {
+            return statistics;
+        }
+        // Balking arrivals never became customers; reneging ones did.
+        return statistics + String.format(" | Balked: %d (%.1f%% of arrivals) | Reneged: %d (%.1f%% of customers)",
+                balkedCount, 100.0 * balkedCount / (customerCount + balkedCount),
+                renegedCount, customerCount == 0 ? 0 : 100.0 * renegedCount / customerCount);
+    }
+
+    public String getStatus() {
+        int currentHour = (int) (time / 60);
+        int currentMinute = (int) (time % 60);
+        return String.format("Simulation time: %02d:%02d | Customers served: %d | Current queue: %d | %s",
+                currentHour, currentMinute, servedCount, queueLength, getStatistics());
+    }
+}
@@ -0,0 +1,83 @@
+package coffeeshop.simulation;
+
+import jdk.jfr.FlightRecorder;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Hand-off point between the simulation thread and a UI thread. The simulation thread
+// replaces the latest snapshot and appends chart reports; the UI pulls both at its own pace,
+// so a fast simulation never floods the UI and the UI never reads live engine state.
+public class SnapshotPublisher implements SimulationListener {
+    private static final int REPORT_CAPACITY = 1 << 16;
+
+    private final AtomicReference<SimulationSnapshot> latest = new AtomicReference<>();
+    private final ReportRingBuffer reports = new ReportRingBuffer(REPORT_CAPACITY);
+    private final AtomicLong epoch = new AtomicLong(); // bumped by every reset
+    private long drainedEpoch = 0; // UI thread only
+    private volatile MetricsRegistry.Counter reportsDrained;
+    private volatile MetricsRegistry.Gauge reportsPerDrain;
+    private volatile MetricsRegistry.Gauge reportsDropped;
+
+    // Many reports per drain mean they pile up between UI pulses; any dropped means the UI
+    // fell a whole buffer behind the simulation.
+    public void setMetrics(MetricsRegistry registry) {
+        reportsPerDrain = registry.gauge("publisher.reportsPerDrain");
+        reportsDropped = registry.gauge("publisher.reportsDropped");
+        reportsDrained = registry.counter("publisher.reportsDrained");
+    }
+
+    // Simulation thread.
+    public void publish(SimulationSnapshot snapshot) {
+        latest.set(snapshot);
+    }
+
+    // Simulation thread; attach with CoffeeShopEngine.setSimulationListener.
+    @Override
+    public void onStatisticsReport(double time, int queueLength, double recentAvgWait, double utilization) {
+        reports.offer(epoch.get(), time, queueLength, recentAvgWait, utilization);
+    }
+
+    // Simulation thread. Tells the consumer to discard everything reported so far. The reset
+    // travels outside the report buffer, so it is never lost when the buffer is full; reports
+    // made before it are skipped when drained.
+    public void publishReset() {
+        epoch.incrementAndGet();
+    }
+
+    // UI thread.
+    public SimulationSnapshot latest() {
+        return latest.get();
+    }
+
+    // UI thread. A reset since the last drain is handed over first, as a report whose time is
+    // NaN, followed only by reports made after it.
+    public int drainReports(SimulationListener listener) {
+        ReportDrainEvent event = FlightRecorder.isInitialized() ? new ReportDrainEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        long current = epoch.get();
+        if (current != drainedEpoch) {
+            drainedEpoch = current;
+            listener.onStatisticsReport(Double.NaN, 0, Double.NaN, Double.NaN);
+        }
+        int drained = reports.drain(current, listener);
+        MetricsRegistry.Counter reportsDrained = this.reportsDrained;
+        if (reportsDrained != null) {
+            reportsDrained.add(drained);
+            reportsPerDrain.set(drained);
+            reportsDropped.set(reports.getDropped());
+        }
+        if (event != null && event.shouldCommit()) {
+            event.reports = drained;
+            event.dropped = reports.getDropped();
+            event.commit();
+        }
+        return drained;
+    }
+
+    public long getDroppedReports() {
+        return reports.getDropped();
+    }
+}
@@ -0,0 +1,125 @@
+package coffeeshop.simulation;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+// The SplitMix64 generator behind java.util.SplittableRandom, producing the same sequence for
+// the same seed, but with its state exposed so a running simulation can be checkpointed and
+// restored mid-stream. Not thread-safe; give each thread or replication its own split().
+public final class SplitMix64 {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+    private static final AtomicLong DEFAULT_SEEDS = new AtomicLong(mix64(System.currentTimeMillis())
+            ^ mix64(System.nanoTime()));
+
+    static final int SERIALIZED_SIZE = 2 * Long.BYTES;
+
+    private long seed;
+    private final long gamma;
+
+    public SplitMix64() {
+        this(DEFAULT_SEEDS.getAndAdd(2 * GOLDEN_GAMMA));
+    }
+
+    public SplitMix64(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private SplitMix64(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    public int nextInt() {
+        return mix32(nextSeed());
+    }
+
+    // Uniform in [0, bound), unbiased.
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        int r = nextInt();
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return r & m;
+        }
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = nextInt() >>> 1) {
+            // retry to avoid modulo bias
+        }
+        return r;
+    }
+
+    // Uniform in [0, 1).
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    // Uniform in the open interval (0, 1), so both log(u) and log(1 - u) are finite.
+    public double nextUniform() {
+        return ((nextLong() >>> 11) + 0.5) * DOUBLE_UNIT;
+    }
+
+    // A well-mixed starting state for entity `index` of a family keyed by seed. Resetting a
+    // generator to it ties the values drawn next to the entity rather than to the order in
+    // which entities happen to draw.
+    public static long stateFor(long seed, long index) {
+        return mix64(seed + (index + 1) * GOLDEN_GAMMA);
+    }
+
+    long getState() {
+        return seed;
+    }
+
+    void setState(long state) {
+        seed = state;
+    }
+
+    // An independent generator in the same state; both then produce the same sequence.
+    public SplitMix64 copy() {
+        return new SplitMix64(seed, gamma);
+    }
+
+    // A new, statistically independent generator; advances this one.
+    public SplitMix64 split() {
+        return new SplitMix64(nextLong(), mixGamma(nextSeed()));
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.putLong(seed);
+        buffer.putLong(gamma);
+    }
+
+    static SplitMix64 readFrom(ByteBuffer buffer) {
+        long seed = buffer.getLong();
+        long gamma = buffer.getLong();
+        return new SplitMix64(seed, gamma);
+    }
+
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
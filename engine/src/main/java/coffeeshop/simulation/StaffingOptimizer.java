@@ -0,0 +1,311 @@
+package coffeeshop.simulation;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+// Finds the fewest baristas per period that meet a service level under a time-varying arrival
+// profile. Periods are staffed in order: for period p, every replication is checkpointed at
+// the start of p under the staffing already chosen, and candidate counts are forked from those
+// checkpoints with common random numbers, so all candidates face the same customers.
+//
+// Candidates are screened by sequential elimination. Each round adds replications only for the
+// candidates still undecided; a candidate is settled as soon as the 95% confidence interval of
+// its wait quantile falls entirely on one side of the target. Feasibility is assumed monotone in
+// the barista count, so settling one candidate also settles every count above or below it.
+// Clear cases therefore cost a handful of replications and compute goes to borderline counts.
+//
+// Each period is staffed greedily given the earlier ones, so a period's backlog is handled by
+// the periods after it rather than by overstaffing the period itself.
+public class StaffingOptimizer {
+    private static final int UNDECIDED = 0;
+    private static final int FEASIBLE = 1;
+    private static final int INFEASIBLE = -1;
+    private static final int WINDOW = 2; // candidates either side of the Erlang C estimate
+
+    private final ForkJoinPool pool;
+    private int initialReplications = 10;
+    private int maxReplications = 160;
+
+    public StaffingOptimizer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public StaffingOptimizer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public void setReplications(int initialReplications, int maxReplications) {
+        if (initialReplications < 2 || maxReplications < initialReplications) {
+            throw new IllegalArgumentException("Need 2 <= initial replications <= max replications");
+        }
+        this.initialReplications = initialReplications;
+        this.maxReplications = maxReplications;
+    }
+
+    public StaffingPlan optimize(ArrivalProfile profile, double serviceRate, ServiceLevel serviceLevel, long seed) {
+        long start = System.nanoTime();
+        int periods = profile.getPeriodCount();
+        int[] baristas = new int[periods];
+        int[] analyticBaristas = new int[periods];
+        int[] replicationsUsed = new int[periods];
+        ConfidenceInterval[] periodWaits = new ConfidenceInterval[periods];
+        AtomicLong simulatedPeriods = new AtomicLong();
+
+        SplitMix64[] streams = ReplicationRunner.streams(seed, maxReplications);
+        PeriodStarts periodStarts = new PeriodStarts(profile, serviceRate, streams, baristas, simulatedPeriods);
+
+        for (int period = 0; period < periods; period++) {
+            analyticBaristas[period] = ErlangC.requiredServers(profile.getRate(period), serviceRate,
+                    serviceLevel.getQuantile(), serviceLevel.getMaxWait());
+            // Screen windows of counts until the smallest feasible count is pinned between a
+            // feasible count and an infeasible one (or 1).
+            int lowestFeasible = -1;
+            int highestInfeasible = 0;
+            int width = 2 * WINDOW + 1;
+            Candidates candidates = new Candidates(Math.max(1, analyticBaristas[period] - WINDOW),
+                    analyticBaristas[period] + WINDOW);
+            while (true) {
+                screen(candidates, period, profile, serviceLevel, periodStarts, simulatedPeriods);
+                replicationsUsed[period] = Math.max(replicationsUsed[period], candidates.maxSampleCount());
+                highestInfeasible = Math.max(highestInfeasible, candidates.largestInfeasible());
+                int feasible = candidates.smallestFeasible();
+                if (feasible >= 0 && (lowestFeasible < 0 || feasible < lowestFeasible)) {
+                    lowestFeasible = feasible;
+                    periodWaits[period] = ConfidenceInterval.of95(candidates.samples(feasible));
+                }
+                if (lowestFeasible < 0) {
+                    candidates = new Candidates(highestInfeasible + 1, highestInfeasible + width);
+                } else if (lowestFeasible - 1 > highestInfeasible) {
+                    candidates = new Candidates(Math.max(highestInfeasible + 1, lowestFeasible - width),
+                            lowestFeasible - 1);
+                } else {
+                    break;
+                }
+            }
+            baristas[period] = lowestFeasible;
+        }
+
+        return new StaffingPlan(profile, serviceRate, serviceLevel, baristas, periodWaits, analyticBaristas,
+                replicationsUsed, simulatedPeriods.get(), System.nanoTime() - start);
+    }
+
+    // Adds replications in doubling rounds until every candidate is settled.
+    private void screen(Candidates candidates, int period, ArrivalProfile profile, ServiceLevel serviceLevel,
+                        PeriodStarts periodStarts, AtomicLong simulatedPeriods) {
+        int target = initialReplications;
+        while (true) {
+            int replications = target;
+            int[] open = candidates.undecided();
+            if (open.length == 0) {
+                return;
+            }
+            for (int count : open) {
+                candidates.grow(count, replications);
+            }
+            periodStarts.prepare(replications, period);
+            // One task per (candidate, replication) still missing.
+            int[] tasks = candidates.missingWork(open, replications);
+            pool.submit(() -> IntStream.range(0, tasks.length / 2).parallel().forEach(t -> {
+                int count = tasks[2 * t];
+                int replication = tasks[2 * t + 1];
+                double wait = periodWait(periodStarts.get(replication), count, period, profile, serviceLevel);
+                candidates.record(count, replication, wait);
+                simulatedPeriods.incrementAndGet();
+            })).join();
+
+            boolean last = replications >= maxReplications;
+            for (int count : open) {
+                // An earlier count in this loop may already have settled this one by monotonicity.
+                if (!candidates.isUndecided(count)) {
+                    continue;
+                }
+                ConfidenceInterval interval = ConfidenceInterval.of95(candidates.samples(count));
+                if (interval.getUpper() <= serviceLevel.getMaxWait()) {
+                    candidates.settle(count, FEASIBLE);
+                } else if (interval.getLower() > serviceLevel.getMaxWait()) {
+                    candidates.settle(count, INFEASIBLE);
+                } else if (last) {
+                    // Out of budget: decide on the estimate itself.
+                    candidates.settle(count, interval.getMean() <= serviceLevel.getMaxWait() ? FEASIBLE : INFEASIBLE);
+                }
+            }
+            target = Math.min(maxReplications, target * 2);
+        }
+    }
+
+    // The service level's wait quantile among customers arriving in the period, with the given
+    // staffing. After the period ends the same staffing keeps serving until every one of them
+    // has started, so late arrivals are not cut off before their wait is known.
+    private static double periodWait(SimulationCheckpoint periodStart, int baristas, int period,
+                                     ArrivalProfile profile, ServiceLevel serviceLevel) {
+        CoffeeShopEngine engine = periodStart.restore();
+        engine.setNumBaristas(baristas);
+        double end = (period + 1) * profile.getPeriodLength();
+        engine.runUntil(end, Integer.MAX_VALUE);
+        double oldest = engine.getOldestWaitingArrivalTime();
+        while (oldest < end && !engine.isFinished()) {
+            engine.runUntil(engine.getCurrentTime() + profile.getPeriodLength() / 60, Integer.MAX_VALUE);
+            oldest = engine.getOldestWaitingArrivalTime();
+        }
+        LogHistogram waits = engine.getPeriodWaitHistogram(period);
+        return waits.getCount() == 0 ? 0 : waits.quantile(serviceLevel.getQuantile());
+    }
+
+    // Checkpoint of each replication at the start of a period under the staffing chosen so far.
+    // Replications are created and moved forward only when a screening round first needs them,
+    // so periods decided on few replications do not pay for the maximum.
+    private final class PeriodStarts {
+        private final ArrivalProfile profile;
+        private final double serviceRate;
+        private final SplitMix64[] streams;
+        private final int[] baristas;
+        private final AtomicLong simulatedPeriods;
+        private final SimulationCheckpoint[] checkpoints;
+        private final int[] periods;
+
+        PeriodStarts(ArrivalProfile profile, double serviceRate, SplitMix64[] streams, int[] baristas,
+                     AtomicLong simulatedPeriods) {
+            this.profile = profile;
+            this.serviceRate = serviceRate;
+            this.streams = streams;
+            this.baristas = baristas;
+            this.simulatedPeriods = simulatedPeriods;
+            this.checkpoints = new SimulationCheckpoint[streams.length];
+            this.periods = new int[streams.length];
+        }
+
+        void prepare(int replications, int period) {
+            pool.submit(() -> IntStream.range(0, replications).parallel().forEach(r -> {
+                if (checkpoints[r] != null && periods[r] == period) {
+                    return;
+                }
+                CoffeeShopEngine engine = checkpoints[r] == null ? newEngine(r) : checkpoints[r].restore();
+                for (int p = checkpoints[r] == null ? 0 : periods[r]; p < period; p++) {
+                    engine.setNumBaristas(baristas[p]);
+                    engine.runUntil((p + 1) * profile.getPeriodLength(), Integer.MAX_VALUE);
+                    simulatedPeriods.incrementAndGet();
+                }
+                checkpoints[r] = SimulationCheckpoint.capture(engine);
+                periods[r] = period;
+            })).join();
+        }
+
+        SimulationCheckpoint get(int replication) {
+            return checkpoints[replication];
+        }
+
+        // The day is extended past the profile so the last period's customers can be waited for.
+        private CoffeeShopEngine newEngine(int replication) {
+            CoffeeShopEngine engine = new CoffeeShopEngine(streams[replication].copy());
+            engine.setArrivalProfile(profile);
+            engine.setServiceRate(serviceRate);
+            engine.setWaitPeriod(profile.getPeriodLength());
+            engine.setSimulationDuration(profile.getDuration() * 2);
+            return engine;
+        }
+    }
+
+    // Barista counts min..max with their per-replication samples and screening state.
+    private static final class Candidates {
+        private final int min;
+        private final int max;
+        private final double[][] samples;
+        private final int[] sampleCounts;
+        private final int[] states;
+
+        Candidates(int min, int max) {
+            this.min = min;
+            this.max = max;
+            int size = max - min + 1;
+            samples = new double[size][0];
+            sampleCounts = new int[size];
+            states = new int[size];
+        }
+
+        int[] undecided() {
+            return IntStream.rangeClosed(min, max).filter(count -> states[count - min] == UNDECIDED).toArray();
+        }
+
+        void grow(int count, int replications) {
+            samples[count - min] = Arrays.copyOf(samples[count - min], replications);
+        }
+
+        int[] missingWork(int[] counts, int replications) {
+            int total = 0;
+            for (int count : counts) {
+                total += replications - sampleCounts[count - min];
+            }
+            int[] tasks = new int[2 * total];
+            int t = 0;
+            for (int count : counts) {
+                for (int r = sampleCounts[count - min]; r < replications; r++) {
+                    tasks[t++] = count;
+                    tasks[t++] = r;
+                }
+                sampleCounts[count - min] = replications;
+            }
+            return tasks;
+        }
+
+        // Called from pool threads; each task writes its own slot.
+        void record(int count, int replication, double wait) {
+            samples[count - min][replication] = wait;
+        }
+
+        double[] samples(int count) {
+            return Arrays.copyOf(samples[count - min], sampleCounts[count - min]);
+        }
+
+        int maxSampleCount() {
+            return Arrays.stream(sampleCounts).max().orElse(0);
+        }
+
+        boolean isUndecided(int count) {
+            return states[count - min] == UNDECIDED;
+        }
+
+        // A decided count keeps its state, so the window never holds a feasible count above an
+        // infeasible one.
+        void settle(int count, int state) {
+            if (states[count - min] != UNDECIDED) {
+                return;
+            }
+            states[count - min] = state;
+            // Monotone: more baristas never hurt, fewer never help.
+            if (state == FEASIBLE) {
+                for (int c = count + 1; c <= max; c++) {
+                    if (states[c - min] == UNDECIDED) {
+                        states[c - min] = FEASIBLE;
+                    }
+                }
+            } else {
+                for (int c = min; c < count; c++) {
+                    if (states[c - min] == UNDECIDED) {
+                        states[c - min] = INFEASIBLE;
+                    }
+                }
+            }
+        }
+
+        // 0 when nothing in the window is infeasible.
+        int largestInfeasible() {
+            for (int count = max; count >= min; count--) {
+                if (states[count - min] == INFEASIBLE) {
+                    return count;
+                }
+            }
+            return 0;
+        }
+
+        int smallestFeasible() {
+            for (int count = min; count <= max; count++) {
+                if (states[count - min] == FEASIBLE) {
+                    return count;
+                }
+            }
+            return -1;
+        }
+    }
+}
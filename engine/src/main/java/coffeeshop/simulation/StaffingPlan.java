@@ -0,0 +1,83 @@
+package coffeeshop.simulation;
+
+// Barista count per period chosen by the StaffingOptimizer, with the estimated service level
+// each period reaches under it.
+public final class StaffingPlan {
+    private final ArrivalProfile profile;
+    private final double serviceRate;
+    private final ServiceLevel serviceLevel;
+    private final int[] baristas;
+    private final ConfidenceInterval[] periodWaits;
+    private final int[] analyticBaristas;
+    private final int[] replications;
+    private final long simulatedPeriods;
+    private final long elapsedNanos;
+
+    public StaffingPlan(ArrivalProfile profile, double serviceRate, ServiceLevel serviceLevel, int[] baristas,
+                        ConfidenceInterval[] periodWaits, int[] analyticBaristas, int[] replications,
+                        long simulatedPeriods, long elapsedNanos) {
+        this.profile = profile;
+        this.serviceRate = serviceRate;
+        this.serviceLevel = serviceLevel;
+        this.baristas = baristas.clone();
+        this.periodWaits = periodWaits.clone();
+        this.analyticBaristas = analyticBaristas.clone();
+        this.replications = replications.clone();
+        this.simulatedPeriods = simulatedPeriods;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getPeriodCount() {
+        return baristas.length;
+    }
+
+    public int getBaristas(int period) {
+        return baristas[period];
+    }
+
+    // The service level's wait quantile in the period, averaged over replications.
+    public ConfidenceInterval getPeriodWait(int period) {
+        return periodWaits[period];
+    }
+
+    // What steady-state Erlang C would staff the period with.
+    public int getAnalyticBaristas(int period) {
+        return analyticBaristas[period];
+    }
+
+    // Most replications any candidate for the period needed before it was decided.
+    public int getReplications(int period) {
+        return replications[period];
+    }
+
+    public int getBaristaPeriods() {
+        int total = 0;
+        for (int count : baristas) {
+            total += count;
+        }
+        return total;
+    }
+
+    // Number of single-period simulations run during the search.
+    public long getSimulatedPeriods() {
+        return simulatedPeriods;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(String.format("Target: %s | service rate %.2f/min%n",
+                serviceLevel, serviceRate));
+        for (int period = 0; period < baristas.length; period++) {
+            text.append(String.format("Period %2d (arrivals %.2f/min): %3d baristas | p%.0f wait %s min | "
+                            + "Erlang C: %d | replications: %d%n",
+                    period + 1, profile.getRate(period), baristas[period], serviceLevel.getQuantile() * 100,
+                    periodWaits[period], analyticBaristas[period], replications[period]));
+        }
+        text.append(String.format("Total: %d barista-periods", getBaristaPeriods()));
+        return text.toString();
+    }
+}
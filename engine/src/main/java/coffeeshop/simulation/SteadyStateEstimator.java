@@ -0,0 +1,112 @@
+package coffeeshop.simulation;
+
+import java.util.Arrays;
+
+// Steady-state mean wait from one long run. Waits are averaged in groups of five customers as
+// they arrive, which is all that is kept. The warm-up is found by MSER-5: the truncation point
+// that minimizes the squared standard error of the mean of what is left. If that point falls
+// in the second half of the data, the run is still warming up. After truncation the remaining
+// groups are split into a fixed number of equal batches, whose means give a Student-t
+// confidence interval. Batches grow as the run does, which is what makes their means nearly
+// independent.
+public final class SteadyStateEstimator implements WaitListener {
+    static final int GROUP_SIZE = 5;
+    private static final int MIN_RETAINED_GROUPS = 10;
+
+    private final int batchCount;
+    private double[] groupMeans = new double[1024];
+    private double[] groupTimes = new double[1024]; // arrival time of each group's first customer
+    private int groupCount = 0;
+    private double groupSum = 0;
+    private int groupFill = 0;
+    private double groupStart;
+
+    public SteadyStateEstimator(int batchCount) {
+        if (batchCount < 2) {
+            throw new IllegalArgumentException("At least two batches are required");
+        }
+        this.batchCount = batchCount;
+    }
+
+    @Override
+    public void onWait(double arrivalTime, double waitTime) {
+        if (groupFill == 0) {
+            groupStart = arrivalTime;
+        }
+        groupSum += waitTime;
+        if (++groupFill < GROUP_SIZE) {
+            return;
+        }
+        if (groupCount == groupMeans.length) {
+            groupMeans = Arrays.copyOf(groupMeans, groupCount * 2);
+            groupTimes = Arrays.copyOf(groupTimes, groupCount * 2);
+        }
+        groupMeans[groupCount] = groupSum / GROUP_SIZE;
+        groupTimes[groupCount] = groupStart;
+        groupCount++;
+        groupSum = 0;
+        groupFill = 0;
+    }
+
+    // Customers in complete groups.
+    public long getCount() {
+        return (long) groupCount * GROUP_SIZE;
+    }
+
+    public int getBatchCount() {
+        return batchCount;
+    }
+
+    // Groups of five to discard as warm-up, or -1 while the run is still warming up.
+    public int truncationPoint() {
+        int last = groupCount - MIN_RETAINED_GROUPS;
+        if (last < 0) {
+            return -1;
+        }
+        // Walk back from the end, keeping the mean and sum of squares of the tail, and score
+        // every truncation point by the tail's variance over its length.
+        double mean = 0;
+        double m2 = 0;
+        int best = -1;
+        double bestScore = Double.POSITIVE_INFINITY;
+        for (int d = groupCount - 1; d >= 0; d--) {
+            int n = groupCount - d;
+            double delta = groupMeans[d] - mean;
+            mean += delta / n;
+            m2 += delta * (groupMeans[d] - mean);
+            if (d <= last) {
+                double score = m2 / ((double) n * n);
+                if (score <= bestScore) {
+                    bestScore = score;
+                    best = d;
+                }
+            }
+        }
+        return best <= groupCount / 2 ? best : -1;
+    }
+
+    // Simulated time at which the given number of groups have arrived.
+    public double getGroupTime(int groups) {
+        return groups < groupCount ? groupTimes[groups] : Double.NaN;
+    }
+
+    // Batch-means interval of the mean wait after discarding the given number of groups, or
+    // null when fewer groups than batches are left. Leftover groups are dropped from the start.
+    public ConfidenceInterval estimate(int truncation) {
+        int retained = groupCount - truncation;
+        int batchSize = retained / batchCount;
+        if (truncation < 0 || batchSize == 0) {
+            return null;
+        }
+        double[] batchMeans = new double[batchCount];
+        int start = groupCount - batchSize * batchCount;
+        for (int batch = 0; batch < batchCount; batch++) {
+            double sum = 0;
+            for (int i = 0; i < batchSize; i++) {
+                sum += groupMeans[start + batch * batchSize + i];
+            }
+            batchMeans[batch] = sum / batchSize;
+        }
+        return ConfidenceInterval.of95(batchMeans);
+    }
+}
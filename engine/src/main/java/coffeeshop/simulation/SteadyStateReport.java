@@ -0,0 +1,80 @@
+package coffeeshop.simulation;
+
+// Outcome of a steady-state run: how much was discarded as warm-up, the batch-means interval
+// on the mean wait after it, and whether the requested precision was reached.
+public final class SteadyStateReport {
+    private final double relativePrecision;
+    private final boolean converged;
+    private final long warmUpCustomers; // -1 when the warm-up never ended
+    private final double warmUpTime; // arrival time of the first customer kept
+    private final long customers;
+    private final ConfidenceInterval meanWait; // null when the warm-up never ended
+    private final int batchCount;
+    private final double simulatedTime;
+    private final int checks;
+    private final long elapsedNanos;
+
+    SteadyStateReport(double relativePrecision, boolean converged, int truncation, SteadyStateEstimator estimator,
+                      ConfidenceInterval meanWait, double simulatedTime, int checks, long elapsedNanos) {
+        this.relativePrecision = relativePrecision;
+        this.converged = converged;
+        this.warmUpCustomers = truncation < 0 ? -1 : (long) truncation * SteadyStateEstimator.GROUP_SIZE;
+        this.warmUpTime = truncation < 0 ? Double.NaN : estimator.getGroupTime(truncation);
+        this.customers = estimator.getCount();
+        this.meanWait = meanWait;
+        this.batchCount = estimator.getBatchCount();
+        this.simulatedTime = simulatedTime;
+        this.checks = checks;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public boolean isConverged() {
+        return converged;
+    }
+
+    public double getRelativePrecision() {
+        return relativePrecision;
+    }
+
+    public long getWarmUpCustomers() {
+        return warmUpCustomers;
+    }
+
+    public double getWarmUpTime() {
+        return warmUpTime;
+    }
+
+    public long getCustomers() {
+        return customers;
+    }
+
+    public ConfidenceInterval getMeanWait() {
+        return meanWait;
+    }
+
+    public double getSimulatedTime() {
+        return simulatedTime;
+    }
+
+    public int getChecks() {
+        return checks;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        if (meanWait == null) {
+            return String.format("No steady state after %d customers (%.0f min): the warm-up never ended",
+                    customers, simulatedTime);
+        }
+        return String.format("Steady-state avg wait: %.3f min +/- %.3f (95%%, %d batches) | Warm-up: %d customers "
+                        + "discarded, kept from %.1f min | Customers: %d (%.0f min) | %s",
+                meanWait.getMean(), meanWait.getHalfWidth(), batchCount, warmUpCustomers, warmUpTime, customers,
+                simulatedTime, converged
+                        ? String.format("Reached +/-%.1f%%", relativePrecision * 100)
+                        : String.format("Stopped before reaching +/-%.1f%%", relativePrecision * 100));
+    }
+}
@@ -0,0 +1,52 @@
+package coffeeshop.simulation;
+
+// Runs one open-ended replication of a scenario until its steady-state mean wait is known to
+// a relative precision. The run is checked each time it has grown by a quarter: MSER-5 decides
+// whether the warm-up is over, and if so batch means give a 95% confidence interval on what
+// follows it. The run stops at the first check where the interval's half-width is within the
+// requested fraction of the mean, or when the customer limit is reached.
+public class SteadyStateRunner {
+    private static final int BATCHES = 20;
+    private static final long FIRST_CHECK = 2000; // customers
+    private static final int EVENTS_PER_STEP = 4096;
+
+    private int batchCount = BATCHES;
+
+    public void setBatchCount(int batchCount) {
+        if (batchCount < 2) {
+            throw new IllegalArgumentException("At least two batches are required");
+        }
+        this.batchCount = batchCount;
+    }
+
+    // The scenario's duration is ignored; the run lasts as long as the data require.
+    public SteadyStateReport run(Scenario scenario, SplitMix64 stream, double relativePrecision, long maxCustomers) {
+        if (!(relativePrecision > 0)) {
+            throw new IllegalArgumentException("Relative precision must be positive");
+        }
+        long start = System.nanoTime();
+        CoffeeShopEngine engine = scenario.newEngine(stream);
+        engine.setSimulationDuration(Double.POSITIVE_INFINITY);
+        engine.setReportingInterval(60);
+        SteadyStateEstimator estimator = new SteadyStateEstimator(batchCount);
+        engine.setWaitListener(estimator);
+
+        long nextCheck = Math.min(FIRST_CHECK, maxCustomers);
+        int checks = 0;
+        while (true) {
+            while (estimator.getCount() < nextCheck) {
+                engine.executeSteps(EVENTS_PER_STEP);
+            }
+            checks++;
+            int truncation = estimator.truncationPoint();
+            ConfidenceInterval interval = estimator.estimate(truncation);
+            boolean precise = interval != null
+                    && (interval.getHalfWidth() == 0 || interval.getHalfWidth() <= relativePrecision * interval.getMean());
+            if (precise || nextCheck >= maxCustomers) {
+                return new SteadyStateReport(relativePrecision, precise, truncation, estimator, interval,
+                        engine.getCurrentTime(), checks, System.nanoTime() - start);
+            }
+            nextCheck = Math.min(maxCustomers, nextCheck + nextCheck / 4);
+        }
+    }
+}
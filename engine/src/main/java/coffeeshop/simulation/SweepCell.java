@@ -0,0 +1,36 @@
+package coffeeshop.simulation;
+
+// One finished grid point of a parameter sweep.
+public final class SweepCell {
+    private final int arrivalIndex;
+    private final int serviceIndex;
+    private final int baristaIndex;
+    private final ReplicationReport report;
+
+    public SweepCell(int arrivalIndex, int serviceIndex, int baristaIndex, ReplicationReport report) {
+        this.arrivalIndex = arrivalIndex;
+        this.serviceIndex = serviceIndex;
+        this.baristaIndex = baristaIndex;
+        this.report = report;
+    }
+
+    public int getArrivalIndex() {
+        return arrivalIndex;
+    }
+
+    public int getServiceIndex() {
+        return serviceIndex;
+    }
+
+    public int getBaristaIndex() {
+        return baristaIndex;
+    }
+
+    public Scenario getScenario() {
+        return report.getScenario();
+    }
+
+    public ReplicationReport getReport() {
+        return report;
+    }
+}
@@ -0,0 +1,6 @@
+package coffeeshop.simulation;
+
+// Called from pool worker threads as each grid point finishes, in completion order.
+public interface SweepListener {
+    void onCellCompleted(SweepCell cell);
+}
@@ -0,0 +1,135 @@
+package coffeeshop.simulation;
+
+import java.util.Arrays;
+
+// Bounded ring buffer of (x, y) points in primitive arrays. The arrays start small and double
+// as points arrive, up to the maximum capacity; once that is full, the oldest points are
+// overwritten, so memory is bounded however long a run lasts. X values are expected to be
+// appended in non-decreasing order. The largest y held is tracked with a monotonic deque of
+// slots, so it drops back once an early spike has been overwritten.
+public final class TimeSeriesBuffer {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int maxCapacity;
+    private double[] xs;
+    private double[] ys;
+    private int start = 0;
+    private int size = 0;
+    private boolean wrapped = false;
+    // Slots of the points with no larger y after them, oldest first, so their y values fall
+    // along the deque and the first one is the maximum. NaN values are never entered.
+    private int[] peaks;
+    private int peakStart = 0;
+    private int peakCount = 0;
+
+    public TimeSeriesBuffer(int maxCapacity) {
+        if (maxCapacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + maxCapacity);
+        }
+        this.maxCapacity = maxCapacity;
+        int initial = Math.min(INITIAL_CAPACITY, maxCapacity);
+        xs = new double[initial];
+        ys = new double[initial];
+        peaks = new int[initial];
+    }
+
+    public void add(double x, double y) {
+        if (size == xs.length && xs.length < maxCapacity) {
+            grow();
+        }
+        int slot;
+        if (size < xs.length) {
+            slot = (start + size) % xs.length;
+            size++;
+        } else {
+            slot = start;
+            start = (start + 1) % xs.length;
+            wrapped = true;
+            // The oldest point, if still a peak, is the first one.
+            if (peakCount > 0 && peaks[peakStart] == slot) {
+                peakStart = (peakStart + 1) % peaks.length;
+                peakCount--;
+            }
+        }
+        xs[slot] = x;
+        ys[slot] = y;
+        if (Double.isNaN(y)) {
+            return;
+        }
+        while (peakCount > 0 && ys[peaks[(peakStart + peakCount - 1) % peaks.length]] <= y) {
+            peakCount--;
+        }
+        peaks[(peakStart + peakCount) % peaks.length] = slot;
+        peakCount++;
+    }
+
+    // Only called while the buffer has never wrapped, so the points start at slot 0 and keep
+    // their slots.
+    private void grow() {
+        int capacity = (int) Math.min((long) xs.length * 2, maxCapacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        int[] grown = new int[capacity];
+        for (int i = 0; i < peakCount; i++) {
+            grown[i] = peaks[(peakStart + i) % peaks.length];
+        }
+        peaks = grown;
+        peakStart = 0;
+    }
+
+    // Keeps the arrays grown so far; a cleared chart usually fills up again to the same size.
+    public void clear() {
+        start = 0;
+        size = 0;
+        wrapped = false;
+        peakStart = 0;
+        peakCount = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return maxCapacity;
+    }
+
+    // True once points have been overwritten since the last clear, so the oldest point left is
+    // no longer the first one added.
+    public boolean hasWrapped() {
+        return wrapped;
+    }
+
+    public double getX(int index) {
+        return xs[slot(index)];
+    }
+
+    public double getY(int index) {
+        return ys[slot(index)];
+    }
+
+    private int slot(int index) {
+        int slot = start + index;
+        return slot >= xs.length ? slot - xs.length : slot;
+    }
+
+    // Largest y among the points held, or negative infinity when there are none.
+    public double getMaxY() {
+        return peakCount == 0 ? Double.NEGATIVE_INFINITY : ys[peaks[peakStart]];
+    }
+
+    // Index of the first point with x >= value, or size() if there is none.
+    public int lowerBound(double value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (getX(mid) < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,56 @@
+package coffeeshop.simulation;
+
+import java.nio.ByteBuffer;
+
+// Time average of a piecewise-constant quantity such as queue length or busy servers.
+public final class TimeWeightedStatistic {
+    static final int SERIALIZED_SIZE = 3 * Double.BYTES;
+
+    private double area = 0;
+    private double duration = 0;
+    private double max = 0;
+
+    // Records that the quantity held the given value for the given span of simulated time.
+    public void observe(double value, double span) {
+        if (span <= 0) {
+            return;
+        }
+        area += value * span;
+        duration += span;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public void clear() {
+        area = 0;
+        duration = 0;
+        max = 0;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.putDouble(area).putDouble(duration).putDouble(max);
+    }
+
+    void readFrom(ByteBuffer buffer) {
+        area = buffer.getDouble();
+        duration = buffer.getDouble();
+        max = buffer.getDouble();
+    }
+
+    public double getArea() {
+        return area;
+    }
+
+    public double getDuration() {
+        return duration;
+    }
+
+    public double getMean() {
+        return duration == 0 ? 0 : area / duration;
+    }
+
+    public double getMax() {
+        return max;
+    }
+}
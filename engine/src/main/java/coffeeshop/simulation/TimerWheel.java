@@ -0,0 +1,302 @@
+package coffeeshop.simulation;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+// Hierarchical timing wheel for timers that are usually cancelled before they fire, such as
+// customer patience. Adding and cancelling a timer are O(1): a timer is linked into a bucket
+// by its tick, and no ordering is kept inside a bucket.
+//
+// Time is cut into ticks of 1/16 minute. Level 0 has 64 buckets of one tick each, and every
+// level above has 64 buckets each as wide as the whole level below it. A timer goes to the
+// lowest level whose bucket cannot also hold the current tick, and when the current tick
+// enters a higher-level bucket its timers are cascaded down. Four levels cover 2^24 ticks,
+// about two years. The wheel does not fire timers itself: advance() hands back the timers of
+// the earliest bucket with their exact times, for the owner to put on its event list.
+//
+// add() returns -1 when the tick has already been handed out or is beyond the wheel's range;
+// the owner schedules such timers directly.
+final class TimerWheel {
+    private static final int TICKS_PER_MINUTE = 16;
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    private double[] times;
+    private int[] entities;
+    private int[] next;
+    private int[] previous;
+    private int[] buckets; // bucket of each live timer, -1 when the node is free
+    private int nodeLimit = 0; // nodes below this have been handed out at least once
+    private int freeNode = -1;
+    private int size = 0;
+
+    private final int[] heads = new int[LEVELS * SLOTS];
+    private final long[] occupied = new long[LEVELS]; // one bit per non-empty bucket
+    private long currentTick = 0;
+
+    private double[] dueTimes = new double[16];
+    private int[] dueEntities = new int[16];
+
+    TimerWheel(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        times = new double[capacity];
+        entities = new int[capacity];
+        next = new int[capacity];
+        previous = new int[capacity];
+        buckets = new int[capacity];
+        Arrays.fill(heads, -1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        nodeLimit = 0;
+        freeNode = -1;
+        size = 0;
+        Arrays.fill(heads, -1);
+        Arrays.fill(occupied, 0);
+        currentTick = 0;
+    }
+
+    int add(double time, int entity) {
+        if (!(time * TICKS_PER_MINUTE < Long.MAX_VALUE)) {
+            return -1;
+        }
+        long tick = (long) (time * TICKS_PER_MINUTE);
+        if (tick < currentTick || level(tick) >= LEVELS) {
+            return -1;
+        }
+        int node;
+        if (freeNode >= 0) {
+            node = freeNode;
+            freeNode = next[node];
+        } else {
+            if (nodeLimit == times.length) {
+                grow();
+            }
+            node = nodeLimit++;
+        }
+        times[node] = time;
+        entities[node] = entity;
+        link(node, tick);
+        size++;
+        return node;
+    }
+
+    void cancel(int handle) {
+        if (handle < 0 || handle >= nodeLimit || buckets[handle] < 0) {
+            throw new IllegalArgumentException("Timer handle " + handle + " is not scheduled");
+        }
+        unlink(handle);
+        free(handle);
+        size--;
+    }
+
+    // Every timer fires at or after this time; infinity when the wheel is empty.
+    double nextExpiryBound() {
+        if (size == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            long bits = occupied[level] & (-1L << slot(currentTick, level));
+            if (bits != 0) {
+                return bucketStart(level, Long.numberOfTrailingZeros(bits)) / (double) TICKS_PER_MINUTE;
+            }
+        }
+        throw new IllegalStateException("Timers outside the wheel");
+    }
+
+    // Moves to the earliest non-empty tick and removes its timers, returning how many there
+    // were. Their times and entities are read with getDueTime() and getDueEntity() until the
+    // next call. Timers added afterwards must be after this tick.
+    int advance() {
+        if (size == 0) {
+            return 0;
+        }
+        while (true) {
+            int level = 0;
+            long bits = 0;
+            for (; level < LEVELS; level++) {
+                bits = occupied[level] & (-1L << slot(currentTick, level));
+                if (bits != 0) {
+                    break;
+                }
+            }
+            int slot = Long.numberOfTrailingZeros(bits);
+            if (level > 0) {
+                moveTo(bucketStart(level, slot));
+                continue;
+            }
+            int bucket = slot;
+            int count = 0;
+            for (int node = heads[bucket]; node >= 0; ) {
+                int following = next[node];
+                if (count == dueTimes.length) {
+                    dueTimes = Arrays.copyOf(dueTimes, count * 2);
+                    dueEntities = Arrays.copyOf(dueEntities, count * 2);
+                }
+                dueTimes[count] = times[node];
+                dueEntities[count] = entities[node];
+                count++;
+                free(node);
+                node = following;
+            }
+            heads[bucket] = -1;
+            occupied[0] &= ~(1L << slot);
+            size -= count;
+            moveTo(bucketStart(0, slot) + 1);
+            return count;
+        }
+    }
+
+    double getDueTime(int index) {
+        return dueTimes[index];
+    }
+
+    int getDueEntity(int index) {
+        return dueEntities[index];
+    }
+
+    // Passes the entity of every pending timer through the mapping.
+    void remapEntities(IntUnaryOperator mapping) {
+        for (int node = 0; node < nodeLimit; node++) {
+            if (buckets[node] >= 0) {
+                entities[node] = mapping.applyAsInt(entities[node]);
+            }
+        }
+    }
+
+    int serializedSize() {
+        return Long.BYTES + 4 * Integer.BYTES + LEVELS * SLOTS * Integer.BYTES + LEVELS * Long.BYTES
+                + nodeLimit * (Double.BYTES + 4 * Integer.BYTES);
+    }
+
+    // Written node by node as laid out, so outstanding handles stay valid after a restore.
+    void writeTo(ByteBuffer buffer) {
+        buffer.putLong(currentTick).putInt(nodeLimit).putInt(freeNode).putInt(size).putInt(times.length);
+        for (int head : heads) {
+            buffer.putInt(head);
+        }
+        for (long bits : occupied) {
+            buffer.putLong(bits);
+        }
+        for (int node = 0; node < nodeLimit; node++) {
+            buffer.putDouble(times[node]).putInt(entities[node]).putInt(next[node]).putInt(previous[node])
+                    .putInt(buckets[node]);
+        }
+    }
+
+    static TimerWheel readFrom(ByteBuffer buffer) {
+        long currentTick = buffer.getLong();
+        int nodeLimit = buffer.getInt();
+        int freeNode = buffer.getInt();
+        int size = buffer.getInt();
+        TimerWheel wheel = new TimerWheel(buffer.getInt());
+        for (int i = 0; i < wheel.heads.length; i++) {
+            wheel.heads[i] = buffer.getInt();
+        }
+        for (int i = 0; i < LEVELS; i++) {
+            wheel.occupied[i] = buffer.getLong();
+        }
+        for (int node = 0; node < nodeLimit; node++) {
+            wheel.times[node] = buffer.getDouble();
+            wheel.entities[node] = buffer.getInt();
+            wheel.next[node] = buffer.getInt();
+            wheel.previous[node] = buffer.getInt();
+            wheel.buckets[node] = buffer.getInt();
+        }
+        wheel.currentTick = currentTick;
+        wheel.nodeLimit = nodeLimit;
+        wheel.freeNode = freeNode;
+        wheel.size = size;
+        return wheel;
+    }
+
+    // Sets the current tick and cascades every higher-level bucket the new tick falls in,
+    // top level first, so no level above 0 holds a bucket that contains the current tick.
+    private void moveTo(long tick) {
+        currentTick = tick;
+        for (int level = LEVELS - 1; level > 0; level--) {
+            int slot = slot(tick, level);
+            if ((occupied[level] & (1L << slot)) == 0) {
+                continue;
+            }
+            int bucket = level * SLOTS + slot;
+            int node = heads[bucket];
+            heads[bucket] = -1;
+            occupied[level] &= ~(1L << slot);
+            while (node >= 0) {
+                int following = next[node];
+                link(node, (long) (times[node] * TICKS_PER_MINUTE));
+                node = following;
+            }
+        }
+    }
+
+    private int level(long tick) {
+        long differing = tick ^ currentTick;
+        return differing == 0 ? 0 : (63 - Long.numberOfLeadingZeros(differing)) / SLOT_BITS;
+    }
+
+    private static int slot(long tick, int level) {
+        return (int) (tick >>> (level * SLOT_BITS)) & (SLOTS - 1);
+    }
+
+    private long bucketStart(int level, int slot) {
+        long span = 1L << ((level + 1) * SLOT_BITS);
+        return (currentTick & -span) | ((long) slot << (level * SLOT_BITS));
+    }
+
+    private void link(int node, long tick) {
+        int level = level(tick);
+        int slot = slot(tick, level);
+        int bucket = level * SLOTS + slot;
+        int head = heads[bucket];
+        next[node] = head;
+        previous[node] = -1;
+        if (head >= 0) {
+            previous[head] = node;
+        }
+        heads[bucket] = node;
+        buckets[node] = bucket;
+        occupied[level] |= 1L << slot;
+    }
+
+    private void unlink(int node) {
+        int bucket = buckets[node];
+        if (previous[node] >= 0) {
+            next[previous[node]] = next[node];
+        } else {
+            heads[bucket] = next[node];
+        }
+        if (next[node] >= 0) {
+            previous[next[node]] = previous[node];
+        }
+        if (heads[bucket] < 0) {
+            occupied[bucket / SLOTS] &= ~(1L << (bucket % SLOTS));
+        }
+    }
+
+    private void free(int node) {
+        buckets[node] = -1;
+        next[node] = freeNode;
+        freeNode = node;
+    }
+
+    private void grow() {
+        int capacity = times.length * 2;
+        times = Arrays.copyOf(times, capacity);
+        entities = Arrays.copyOf(entities, capacity);
+        next = Arrays.copyOf(next, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+        buckets = Arrays.copyOf(buckets, capacity);
+    }
+}
@@ -0,0 +1,16 @@
+package coffeeshop.simulation;
+
+// What a trace record describes. Besides the engine's own events, service starts,
+// interruptions and staffing changes are traced so a replay can rebuild the queue and
+// barista state without re-simulating.
+public enum TraceEventType {
+    CUSTOMER_ARRIVAL,
+    SERVICE_START,
+    SERVICE_COMPLETION,
+    SERVICE_INTERRUPTED, // customer sent back to the queue when their barista left
+    STATISTICS_REPORT,
+    STAFFING_CHANGE, // barista column holds the new on-shift count
+    END,
+    CUSTOMER_BALKED, // arrival who left at once because the line was too long; no customer id
+    CUSTOMER_RENEGED // waiting customer who gave up
+}
@@ -0,0 +1,208 @@
+package coffeeshop.simulation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Rebuilds a run from its event trace without re-simulating. A single pass over the trace
+// reconstructs the queue, the baristas and every accumulator, and keeps one keyframe per
+// statistics report: the chart point and the full snapshot at that instant. Moving to any
+// time, forwards or backwards, is then a binary search over the keyframes.
+public final class TraceReplay {
+    private final double[] frameTimes;
+    private final int[] queueLengths;
+    private final double[] recentWaits;
+    private final double[] utilizations;
+    private final SimulationSnapshot[] snapshots;
+    private final int frameCount;
+    private final SimulationSnapshot finalSnapshot;
+    private final long recordCount;
+
+    public TraceReplay(EventTrace trace) {
+        int capacity = 64;
+        double[] frameTimes = new double[capacity];
+        int[] queueLengths = new int[capacity];
+        double[] recentWaits = new double[capacity];
+        double[] utilizations = new double[capacity];
+        SimulationSnapshot[] snapshots = new SimulationSnapshot[capacity];
+        int frames = 0;
+
+        // Customers currently waiting or in service, by id.
+        Map<Integer, Customer> inSystem = new HashMap<>();
+        RunningStatistics waitStatistics = new RunningStatistics();
+        LogHistogram waitHistogram = new LogHistogram();
+        TimeWeightedStatistic queueLengthStatistic = new TimeWeightedStatistic();
+        TimeWeightedStatistic busyBaristaStatistic = new TimeWeightedStatistic();
+        TimeWeightedStatistic onShiftBaristaStatistic = new TimeWeightedStatistic();
+        double[] lastWaits = new double[5];
+        double time = 0;
+        int queueLength = 0;
+        int maxQueueLength = 0;
+        int busy = 0;
+        int onShift = 0;
+        int customerCount = 0;
+        int servedCount = 0;
+        int balkedCount = 0;
+        int renegedCount = 0;
+        boolean finished = false;
+
+        long record = 0;
+        for (; record < trace.size() && !finished; record++) {
+            double recordTime = trace.getTime(record);
+            double elapsed = recordTime - time;
+            if (elapsed > 0) {
+                queueLengthStatistic.observe(queueLength, elapsed);
+                busyBaristaStatistic.observe(busy, elapsed);
+                onShiftBaristaStatistic.observe(onShift, elapsed);
+            }
+            time = recordTime;
+
+            int id = trace.getCustomer(record);
+            switch (trace.getType(record)) {
+                case CUSTOMER_ARRIVAL:
+                    inSystem.put(id, new Customer(id, time));
+                    customerCount++;
+                    queueLength++;
+                    maxQueueLength = Math.max(maxQueueLength, queueLength);
+                    break;
+                case SERVICE_START:
+                    Customer started = inSystem.get(id);
+                    double wait = time - started.getArrivalTime();
+                    started.setWaitTime(wait);
+                    waitStatistics.add(wait);
+                    waitHistogram.add(wait);
+                    queueLength--;
+                    busy++;
+                    break;
+                case SERVICE_COMPLETION:
+                    lastWaits[servedCount % lastWaits.length] = inSystem.remove(id).getWaitTime();
+                    servedCount++;
+                    busy--;
+                    break;
+                case SERVICE_INTERRUPTED:
+                    queueLength++;
+                    busy--;
+                    break;
+                case CUSTOMER_BALKED:
+                    balkedCount++;
+                    break;
+                case CUSTOMER_RENEGED:
+                    inSystem.remove(id);
+                    renegedCount++;
+                    queueLength--;
+                    break;
+                case STAFFING_CHANGE:
+                    onShift = trace.getBarista(record);
+                    break;
+                case END:
+                    finished = true;
+                    break;
+                case STATISTICS_REPORT:
+                    if (frames == frameTimes.length) {
+                        capacity *= 2;
+                        frameTimes = Arrays.copyOf(frameTimes, capacity);
+                        queueLengths = Arrays.copyOf(queueLengths, capacity);
+                        recentWaits = Arrays.copyOf(recentWaits, capacity);
+                        utilizations = Arrays.copyOf(utilizations, capacity);
+                        snapshots = Arrays.copyOf(snapshots, capacity);
+                    }
+                    double utilization = onShift == 0 ? 0 : (double) busy / onShift * 100;
+                    frameTimes[frames] = time;
+                    queueLengths[frames] = queueLength;
+                    recentWaits[frames] = recentAverage(lastWaits, servedCount);
+                    utilizations[frames] = utilization;
+                    snapshots[frames] = snapshot(time, customerCount, servedCount, queueLength, maxQueueLength,
+                            waitStatistics, waitHistogram, utilization, busyBaristaStatistic, onShiftBaristaStatistic,
+                            false, balkedCount, renegedCount);
+                    frames++;
+                    break;
+            }
+        }
+
+        this.frameTimes = frameTimes;
+        this.queueLengths = queueLengths;
+        this.recentWaits = recentWaits;
+        this.utilizations = utilizations;
+        this.snapshots = snapshots;
+        this.frameCount = frames;
+        this.recordCount = record;
+        this.finalSnapshot = snapshot(time, customerCount, servedCount, queueLength, maxQueueLength,
+                waitStatistics, waitHistogram, onShift == 0 ? 0 : (double) busy / onShift * 100,
+                busyBaristaStatistic, onShiftBaristaStatistic, finished, balkedCount, renegedCount);
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    public double getFrameTime(int frame) {
+        return frameTimes[frame];
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public double getEndTime() {
+        return finalSnapshot.getTime();
+    }
+
+    // Index of the last keyframe at or before the given time, or -1 if there is none.
+    public int frameAt(double time) {
+        int low = 0;
+        int high = frameCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (frameTimes[mid] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    // State at the given time: the last keyframe before it, or the end of the run.
+    public SimulationSnapshot snapshotAt(double time) {
+        if (time >= getEndTime()) {
+            return finalSnapshot;
+        }
+        int frame = frameAt(time);
+        return frame < 0 ? null : snapshots[frame];
+    }
+
+    public SimulationSnapshot getFinalSnapshot() {
+        return finalSnapshot;
+    }
+
+    // Feeds keyframes [from, to) to the listener as if they were live statistics reports.
+    public void replay(int from, int to, SimulationListener listener) {
+        for (int frame = Math.max(from, 0); frame < Math.min(to, frameCount); frame++) {
+            listener.onStatisticsReport(frameTimes[frame], queueLengths[frame], recentWaits[frame], utilizations[frame]);
+        }
+    }
+
+    private static double recentAverage(double[] lastWaits, int servedCount) {
+        if (servedCount == 0) {
+            return Double.NaN;
+        }
+        int count = Math.min(servedCount, lastWaits.length);
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += lastWaits[i];
+        }
+        return sum / count;
+    }
+
+    private static SimulationSnapshot snapshot(double time, int customerCount, int servedCount, int queueLength,
+                                               int maxQueueLength, RunningStatistics waitStatistics,
+                                               LogHistogram waitHistogram, double utilization,
+                                               TimeWeightedStatistic busy, TimeWeightedStatistic onShift,
+                                               boolean finished, int balkedCount, int renegedCount) {
+        double capacity = onShift.getArea();
+        return new SimulationSnapshot(time, customerCount, servedCount, queueLength, maxQueueLength,
+                waitStatistics.getCount() == 0 ? 0 : waitStatistics.getMean(),
+                waitHistogram.quantile(0.5), waitHistogram.quantile(0.9), waitHistogram.quantile(0.99),
+                utilization, capacity == 0 ? 0 : busy.getArea() / capacity * 100, finished, balkedCount, renegedCount);
+    }
+}
@@ -0,0 +1,19 @@
+package coffeeshop.simulation;
+
+// How the replications of two scenarios being compared share random numbers.
+public enum VarianceReduction {
+    NONE("independent streams"),
+    COMMON_RANDOM_NUMBERS("common random numbers"),
+    ANTITHETIC("common random numbers with antithetic pairs");
+
+    private final String label;
+
+    VarianceReduction(String label) {
+        this.label = label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
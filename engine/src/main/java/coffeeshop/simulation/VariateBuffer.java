@@ -0,0 +1,92 @@
+package coffeeshop.simulation;
+
+import java.nio.ByteBuffer;
+
+// Unit-mean variates drawn a block at a time into a reusable array, so the per-event cost is
+// an array read and the generator runs in a tight loop the JIT can keep in registers.
+//
+// Used either sequentially with next(), or keyed with get(index): then block b holds variates
+// index 256b .. 256b + 255 and is drawn from a generator reset to a state derived from the
+// seed and b, so a variate depends only on its index.
+final class VariateBuffer {
+    static final int BLOCK_SIZE = 256;
+    static final int SERIALIZED_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final SplitMix64 random;
+    private final double[] values = new double[BLOCK_SIZE];
+    private int position = BLOCK_SIZE;
+    private long fillState; // generator state the current block was drawn from
+    private long block = -1;
+
+    private ServiceDistribution distribution = ServiceDistribution.exponential();
+    private boolean inversion;
+    private boolean antithetic;
+
+    VariateBuffer(SplitMix64 random) {
+        this.random = random;
+    }
+
+    // Discards whatever is left of the current block, so the new settings apply from the next draw.
+    void configure(ServiceDistribution distribution, VariateMethod method, boolean antithetic) {
+        this.distribution = distribution;
+        this.inversion = method == VariateMethod.INVERSION || antithetic;
+        this.antithetic = antithetic;
+        position = BLOCK_SIZE;
+        block = -1;
+    }
+
+    double next() {
+        if (position == BLOCK_SIZE) {
+            fillState = random.getState();
+            fill();
+            position = 0;
+        }
+        return values[position++];
+    }
+
+    double get(long seed, int index) {
+        long wanted = index >>> 8;
+        if (wanted != block) {
+            random.setState(SplitMix64.stateFor(seed, wanted));
+            fill();
+            block = wanted;
+        }
+        return values[index & (BLOCK_SIZE - 1)];
+    }
+
+    private void fill() {
+        ServiceDistribution distribution = this.distribution;
+        SplitMix64 random = this.random;
+        double[] values = this.values;
+        if (distribution instanceof ServiceDistribution.Exponential && !inversion) {
+            for (int i = 0; i < BLOCK_SIZE; i++) {
+                values[i] = ExponentialZiggurat.sample(random);
+            }
+        } else {
+            for (int i = 0; i < BLOCK_SIZE; i++) {
+                values[i] = distribution.sample(random, inversion, antithetic);
+            }
+        }
+    }
+
+    // Only the sequential position is state; keyed blocks are redrawn on demand. The generator
+    // itself is checkpointed by its owner.
+    void writeTo(ByteBuffer buffer) {
+        buffer.putLong(fillState).putInt(position);
+    }
+
+    // Redraws the block in progress from its starting state, then puts the generator back
+    // where it was. Call after configure() and after the generator has been restored.
+    void readFrom(ByteBuffer buffer) {
+        long state = buffer.getLong();
+        int restoredPosition = buffer.getInt();
+        if (restoredPosition < BLOCK_SIZE) {
+            long current = random.getState();
+            random.setState(state);
+            fill();
+            random.setState(current);
+            fillState = state;
+        }
+        position = restoredPosition;
+    }
+}
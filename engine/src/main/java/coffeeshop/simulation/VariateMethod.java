@@ -0,0 +1,10 @@
+package coffeeshop.simulation;
+
+// How random variates are produced from uniforms.
+public enum VariateMethod {
+    // Fastest: ziggurat sampling for exponentials, mostly a table lookup and a multiply.
+    ZIGGURAT,
+    // Inverse transform: each variate is a monotone function of its uniforms, which antithetic
+    // pairs (u against 1 - u) rely on. Slower, since every draw takes a logarithm.
+    INVERSION
+}
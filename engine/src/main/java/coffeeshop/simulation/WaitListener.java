@@ -0,0 +1,7 @@
+package coffeeshop.simulation;
+
+// Told the wait of each customer as their service starts, in that order. Called on the
+// engine's thread.
+public interface WaitListener {
+    void onWait(double arrivalTime, double waitTime);
+}
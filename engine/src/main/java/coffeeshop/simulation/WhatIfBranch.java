@@ -0,0 +1,35 @@
+package coffeeshop.simulation;
+
+import java.util.function.Consumer;
+
+// A named change applied to a restored engine before it runs out the rest of the day.
+public final class WhatIfBranch {
+    private final String name;
+    private final Consumer<CoffeeShopEngine> change;
+
+    public WhatIfBranch(String name, Consumer<CoffeeShopEngine> change) {
+        this.name = name;
+        this.change = change;
+    }
+
+    public static WhatIfBranch baseline() {
+        return new WhatIfBranch("baseline", engine -> { });
+    }
+
+    public static WhatIfBranch baristas(int numBaristas) {
+        return new WhatIfBranch(numBaristas + " baristas", engine -> engine.setNumBaristas(numBaristas));
+    }
+
+    public static WhatIfBranch arrivalRate(double arrivalRate) {
+        return new WhatIfBranch(String.format("arrival rate %.2f", arrivalRate),
+                engine -> engine.setArrivalRate(arrivalRate));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    void apply(CoffeeShopEngine engine) {
+        change.accept(engine);
+    }
+}
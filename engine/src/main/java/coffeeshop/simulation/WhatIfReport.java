@@ -0,0 +1,58 @@
+package coffeeshop.simulation;
+
+import java.util.List;
+
+// End-of-day results of each what-if branch next to the baseline they were forked alongside.
+public final class WhatIfReport {
+    private final double forkTime;
+    private final String[] names;
+    private final ReplicationResult[] results;
+    private final long elapsedNanos;
+
+    public WhatIfReport(double forkTime, List<WhatIfBranch> branches, ReplicationResult[] results, long elapsedNanos) {
+        this.forkTime = forkTime;
+        this.names = new String[branches.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = branches.get(i).getName();
+        }
+        this.results = results.clone();
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public double getForkTime() {
+        return forkTime;
+    }
+
+    public int getBranchCount() {
+        return results.length;
+    }
+
+    public String getName(int branch) {
+        return names[branch];
+    }
+
+    public ReplicationResult getResult(int branch) {
+        return results[branch];
+    }
+
+    public ReplicationResult getBaseline() {
+        return results[0];
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(String.format("Forked at %.2f min%n", forkTime));
+        ReplicationResult baseline = getBaseline();
+        for (int i = 0; i < results.length; i++) {
+            ReplicationResult result = results[i];
+            text.append(String.format("%-18s Avg wait: %.2f min (%+.2f) | Max queue: %d | Utilization: %.1f%% | Served: %d%n",
+                    names[i], result.getAverageWait(), result.getAverageWait() - baseline.getAverageWait(),
+                    result.getMaxQueueLength(), result.getUtilization(), result.getCustomersServed()));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package coffeeshop.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Forks what-if branches from one checkpoint and runs each to the end of the day in parallel.
+// The untouched baseline is always run first from the same checkpoint. Every branch starts
+// with the checkpoint's RNG state, so differences come from the change rather than from luck.
+public class WhatIfRunner {
+    private final ForkJoinPool pool;
+
+    public WhatIfRunner() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public WhatIfRunner(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public WhatIfReport run(SimulationCheckpoint checkpoint, List<WhatIfBranch> branches) {
+        List<WhatIfBranch> all = new ArrayList<>(branches.size() + 1);
+        all.add(WhatIfBranch.baseline());
+        all.addAll(branches);
+        ReplicationResult[] results = new ReplicationResult[all.size()];
+
+        long start = System.nanoTime();
+        pool.submit(() -> IntStream.range(0, all.size()).parallel()
+                .forEach(i -> results[i] = runBranch(checkpoint, all.get(i)))).join();
+        return new WhatIfReport(checkpoint.getTime(), all, results, System.nanoTime() - start);
+    }
+
+    public static ReplicationResult runBranch(SimulationCheckpoint checkpoint, WhatIfBranch branch) {
+        CoffeeShopEngine engine = checkpoint.restore();
+        branch.apply(engine);
+        engine.runToCompletion();
+        return ReplicationResult.of(engine);
+    }
+}
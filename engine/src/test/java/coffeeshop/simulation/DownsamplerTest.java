@@ -0,0 +1,75 @@
+package coffeeshop.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DownsamplerTest {
+    @Test
+    void passesShortRangesThrough() {
+        TimeSeriesBuffer series = series(500, 1);
+        double[] x = new double[1000];
+        double[] y = new double[1000];
+        assertEquals(300, Downsampler.lttb(series, 100, 400, 300, x, y));
+        for (int i = 0; i < 300; i++) {
+            assertEquals(series.getX(100 + i), x[i]);
+            assertEquals(series.getY(100 + i), y[i]);
+        }
+        assertEquals(0, Downsampler.lttb(series, 400, 400, 300, x, y));
+    }
+
+    // The full buffer the chart can hold, down to one point per pixel of a wide chart.
+    @Test
+    void keepsEndpointsOrderAndOnePointPerBucket() {
+        int count = 1 << 20;
+        int threshold = 1500;
+        TimeSeriesBuffer series = series(count, 2);
+        double[] x = new double[threshold];
+        double[] y = new double[threshold];
+        int points = Downsampler.lttb(series, 0, count, threshold, x, y);
+
+        assertEquals(threshold, points);
+        assertArrayEquals(new double[] {series.getX(0), series.getY(0)}, new double[] {x[0], y[0]});
+        assertArrayEquals(new double[] {series.getX(count - 1), series.getY(count - 1)},
+                new double[] {x[points - 1], y[points - 1]});
+        double bucketSize = (double) (count - 2) / (threshold - 2);
+        for (int i = 1; i < points - 1; i++) {
+            // Point i comes from bucket i - 1, and is a real point of the series.
+            int index = series.lowerBound(x[i]);
+            assertTrue(index >= 1 + (int) ((i - 1) * bucketSize) && index < 1 + (int) (i * bucketSize),
+                    "point " + i + " outside its bucket");
+            assertEquals(series.getY(index), y[i]);
+            assertTrue(x[i] > x[i - 1]);
+        }
+    }
+
+    // A lone spike forms the largest triangle in its bucket, so it survives downsampling.
+    @Test
+    void keepsASpike() {
+        TimeSeriesBuffer series = new TimeSeriesBuffer(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            series.add(i, i == 6543 ? 100 : 1);
+        }
+        double[] x = new double[50];
+        double[] y = new double[50];
+        int points = Downsampler.lttb(series, 0, series.size(), 50, x, y);
+        boolean found = false;
+        for (int i = 0; i < points; i++) {
+            found |= x[i] == 6543 && y[i] == 100;
+        }
+        assertTrue(found);
+    }
+
+    private static TimeSeriesBuffer series(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        TimeSeriesBuffer series = new TimeSeriesBuffer(count);
+        for (int i = 0; i < count; i++) {
+            series.add(i * 0.5, random.nextDouble() * 10);
+        }
+        return series;
+    }
+}
@@ -0,0 +1,69 @@
+package coffeeshop.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Textbook M/M/c cases with closed-form answers, and the published Erlang C table value for
+// 10 Erlangs on 11 servers.
+class ErlangCTest {
+    private static final double TOLERANCE = 1e-9;
+
+    // M/M/1 at 80% load: P(wait) = rho, Wq = rho / (mu - lambda), P(W > t) = rho e^-(mu - lambda)t.
+    @Test
+    void singleServer() {
+        ErlangC queue = new ErlangC(1, 1.25, 1);
+        assertTrue(queue.isStable());
+        assertEquals(0.8, queue.getUtilization(), TOLERANCE);
+        assertEquals(0.8, queue.getWaitProbability(), TOLERANCE);
+        assertEquals(3.2, queue.getMeanWait(), TOLERANCE);
+        assertEquals(3.2, queue.getMeanQueueLength(), TOLERANCE);
+        assertEquals(4.0, queue.getMeanTimeInSystem(), TOLERANCE);
+        assertEquals(0.8 * Math.exp(-0.25 * 2), queue.getWaitExceedanceProbability(2), TOLERANCE);
+        assertEquals(4 * Math.log(8), queue.getWaitPercentile(0.9), TOLERANCE);
+        assertEquals(0, queue.getWaitPercentile(0.2), TOLERANCE);
+    }
+
+    // M/M/2 with a = 1.6: C = (a^2 / 2(1 - rho)) / (1 + a + a^2 / 2(1 - rho)) = 32/45.
+    @Test
+    void twoServers() {
+        ErlangC queue = new ErlangC(1.6, 1, 2);
+        assertEquals(32.0 / 45, queue.getWaitProbability(), TOLERANCE);
+        assertEquals(16.0 / 9, queue.getMeanWait(), TOLERANCE);
+        assertEquals(1.6 * 16 / 9, queue.getMeanQueueLength(), TOLERANCE);
+    }
+
+    // Two calls a minute lasting five minutes each, on eleven agents.
+    @Test
+    void matchesTheErlangCTable() {
+        ErlangC queue = new ErlangC(2, 0.2, 11);
+        assertEquals(0.6821, queue.getWaitProbability(), 5e-5);
+        assertEquals(0.6821 / 0.2, queue.getMeanWait(), 5e-4);
+    }
+
+    @Test
+    void hasNoSteadyStateAtOrAboveCapacity() {
+        ErlangC queue = new ErlangC(2, 1, 2);
+        assertFalse(queue.isStable());
+        assertEquals(1, queue.getWaitProbability());
+        assertEquals(Double.POSITIVE_INFINITY, queue.getWaitPercentile(0.5));
+        assertFalse(queue.agreesWith(ConfidenceInterval.of95(new double[] {1, 2, 3})));
+    }
+
+    @Test
+    void requiredServersIsTheFewestThatMeetTheTarget() {
+        int servers = ErlangC.requiredServers(2, 0.2, 0.8, 1);
+        assertTrue(new ErlangC(2, 0.2, servers).getWaitPercentile(0.8) <= 1);
+        assertTrue(new ErlangC(2, 0.2, servers - 1).getWaitPercentile(0.8) > 1);
+    }
+
+    // Agreement means the analytic mean wait 16/9 lies inside the interval.
+    @Test
+    void agreesOnlyWhenTheIntervalCoversTheMeanWait() {
+        ErlangC queue = new ErlangC(1.6, 1, 2);
+        assertTrue(queue.agreesWith(ConfidenceInterval.of95(new double[] {1.6, 1.7, 1.8, 1.9, 2.0})));
+        assertFalse(queue.agreesWith(ConfidenceInterval.of95(new double[] {1.90, 1.95, 2.00, 2.05, 2.10})));
+    }
+}
@@ -0,0 +1,172 @@
+package coffeeshop.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Random adds, polls, cancels and reschedules against a plain list searched in (time, order
+// of scheduling) order. Times come from a small grid so ties are common, and handles are reused
+// as soon as their events are gone.
+class EventListTest {
+    private static final int OPERATIONS = 200_000;
+
+    @Test
+    void matchesSortedReference() {
+        SplittableRandom random = new SplittableRandom(1);
+        EventList list = new EventList(4);
+        Reference reference = new Reference();
+        int nextEntity = 0;
+        double now = 0;
+
+        for (int operation = 0; operation < OPERATIONS; operation++) {
+            // Adds win while the list is short, so it hovers around a thousand events deep.
+            int choice = random.nextInt(10) - (reference.size() < 1000 ? 2 : 0);
+            if (choice < 4 || reference.isEmpty()) {
+                double time = now + random.nextInt(20) * 0.25;
+                int entity = nextEntity++;
+                int handle = list.add(time, entity % 3, entity);
+                assertFalse(reference.hasHandle(handle), "Handle " + handle + " issued twice");
+                reference.add(time, entity, handle);
+            } else if (choice < 7) {
+                Event expected = reference.pollFirst();
+                assertEquals(expected.time, list.peekTime());
+                assertEquals(expected.entity % 3, list.poll());
+                assertEquals(expected.time, list.getPolledTime());
+                assertEquals(expected.entity, list.getPolledEntity());
+                assertFalse(list.isScheduled(expected.handle));
+                now = expected.time;
+            } else if (choice < 9) {
+                Event victim = reference.removeRandom(random);
+                assertEquals(victim.time, list.getTime(victim.handle));
+                list.cancel(victim.handle);
+                assertFalse(list.isScheduled(victim.handle));
+                assertThrows(IllegalArgumentException.class, () -> list.cancel(victim.handle));
+            } else {
+                Event moved = reference.removeRandom(random);
+                double time = now + random.nextInt(20) * 0.25;
+                list.reschedule(moved.handle, time);
+                assertTrue(list.isScheduled(moved.handle));
+                reference.add(time, moved.entity, moved.handle);
+            }
+            assertEquals(reference.size(), list.size());
+        }
+        drain(list, reference);
+    }
+
+    // A list written out and read back dispatches in the same order and keeps its handles.
+    @Test
+    void survivesSerialization() {
+        SplittableRandom random = new SplittableRandom(2);
+        EventList list = new EventList();
+        Reference reference = new Reference();
+        for (int entity = 0; entity < 5000; entity++) {
+            double time = random.nextInt(100);
+            reference.add(time, entity, list.add(time, 0, entity));
+        }
+        for (int i = 0; i < 1000; i++) {
+            list.cancel(reference.removeRandom(random).handle);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(list.serializedSize());
+        list.writeTo(buffer);
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+        EventList restored = EventList.readFrom(buffer);
+
+        for (int i = 0; i < 1000; i++) {
+            Event moved = reference.removeRandom(random);
+            double time = random.nextInt(100);
+            restored.reschedule(moved.handle, time);
+            reference.add(time, moved.entity, moved.handle);
+        }
+        for (int entity = 5000; entity < 6000; entity++) {
+            double time = random.nextInt(100);
+            int handle = restored.add(time, 0, entity);
+            assertFalse(reference.hasHandle(handle), "Handle " + handle + " issued twice");
+            reference.add(time, entity, handle);
+        }
+        drain(restored, reference);
+    }
+
+    private static void drain(EventList list, Reference reference) {
+        while (!reference.isEmpty()) {
+            Event expected = reference.pollFirst();
+            list.poll();
+            assertEquals(expected.time, list.getPolledTime());
+            assertEquals(expected.entity, list.getPolledEntity());
+        }
+        assertTrue(list.isEmpty());
+    }
+
+    private static final class Event {
+        final double time;
+        final long order;
+        final int entity;
+        final int handle;
+
+        Event(double time, long order, int entity, int handle) {
+            this.time = time;
+            this.order = order;
+            this.entity = entity;
+            this.handle = handle;
+        }
+    }
+
+    // Unsorted list with a linear scan for the minimum: slow, but obviously right.
+    private static final class Reference {
+        private final List<Event> events = new ArrayList<>();
+        private final Map<Integer, Event> byHandle = new HashMap<>();
+        private long nextOrder = 0;
+
+        void add(double time, int entity, int handle) {
+            Event event = new Event(time, nextOrder++, entity, handle);
+            events.add(event);
+            byHandle.put(handle, event);
+        }
+
+        boolean hasHandle(int handle) {
+            return byHandle.containsKey(handle);
+        }
+
+        boolean isEmpty() {
+            return events.isEmpty();
+        }
+
+        int size() {
+            return events.size();
+        }
+
+        Event pollFirst() {
+            int first = 0;
+            for (int i = 1; i < events.size(); i++) {
+                Event event = events.get(i);
+                Event best = events.get(first);
+                if (event.time < best.time || (event.time == best.time && event.order < best.order)) {
+                    first = i;
+                }
+            }
+            return remove(first);
+        }
+
+        Event removeRandom(SplittableRandom random) {
+            return remove(random.nextInt(events.size()));
+        }
+
+        private Event remove(int index) {
+            Event event = events.get(index);
+            events.set(index, events.get(events.size() - 1));
+            events.remove(events.size() - 1);
+            byHandle.remove(event.handle);
+            return event;
+        }
+    }
+}
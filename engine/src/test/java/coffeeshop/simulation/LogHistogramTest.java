@@ -0,0 +1,68 @@
+package coffeeshop.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Quantiles against the exact order statistics of the same samples. With 100 buckets per
+// decade each bucket spans about 2.3%, and reporting its geometric midpoint keeps every
+// quantile within half of that of the true value.
+class LogHistogramTest {
+    private static final double MAX_RELATIVE_ERROR = Math.pow(10, 0.5 / 100) - 1;
+
+    @Test
+    void quantilesAreWithinHalfABucketOfTheExactValue() {
+        Random random = new Random(9);
+        double[] values = new double[200_000];
+        LogHistogram histogram = new LogHistogram();
+        for (int i = 0; i < values.length; i++) {
+            // Lognormal waits spanning several decades.
+            values[i] = Math.exp(random.nextGaussian() * 1.5);
+            histogram.add(values[i]);
+        }
+        Arrays.sort(values);
+        for (double q : new double[] {0.001, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1}) {
+            double exact = values[(int) Math.ceil(q * values.length) - 1];
+            double relativeError = Math.abs(histogram.quantile(q) / exact - 1);
+            assertTrue(relativeError <= MAX_RELATIVE_ERROR, "q=" + q + " off by " + relativeError);
+        }
+        assertEquals(values.length, histogram.getCount());
+    }
+
+    @Test
+    void reportsZeroWaitsAsZero() {
+        LogHistogram histogram = new LogHistogram();
+        assertTrue(Double.isNaN(histogram.quantile(0.5)));
+        for (int i = 0; i < 60; i++) {
+            histogram.add(0);
+        }
+        for (int i = 0; i < 40; i++) {
+            histogram.add(3);
+        }
+        assertEquals(0, histogram.quantile(0.6));
+        assertEquals(3, histogram.quantile(0.61), 3 * MAX_RELATIVE_ERROR);
+    }
+
+    @Test
+    void mergeMatchesAddingEverythingToOne() {
+        SplittableRandom random = new SplittableRandom(10);
+        LogHistogram all = new LogHistogram();
+        LogHistogram first = new LogHistogram();
+        LogHistogram second = new LogHistogram();
+        for (int i = 0; i < 10_000; i++) {
+            double value = random.nextDouble() * 50;
+            all.add(value);
+            (i % 3 == 0 ? first : second).add(value);
+        }
+        first.merge(second);
+        assertEquals(all.getCount(), first.getCount());
+        for (double q = 0.05; q < 1; q += 0.05) {
+            assertEquals(all.quantile(q), first.quantile(q));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package coffeeshop.simulation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// A restored run must continue exactly as the uninterrupted run would have, for every part of
+// the state the image carries: pending events, the queue, baristas, patience timers and the
+// variate block in progress.
+class SimulationCheckpointTest {
+    private static final double CHECKPOINT_TIME = 200;
+
+    @TempDir
+    Path directory;
+
+    static Stream<Arguments> configurations() {
+        ServiceDistribution[] distributions = {
+                ServiceDistribution.exponential(),
+                ServiceDistribution.lognormal(0.6),
+                ServiceDistribution.erlang(3),
+                ServiceDistribution.empirical(0.5, 0.8, 1.0, 1.1, 1.7, 2.9)
+        };
+        List<Arguments> configurations = new ArrayList<>();
+        for (DispatchPolicy policy : DispatchPolicy.values()) {
+            for (boolean impatient : new boolean[] {false, true}) {
+                for (ServiceDistribution distribution : distributions) {
+                    configurations.add(Arguments.of(policy, impatient, distribution));
+                }
+            }
+        }
+        return configurations.stream();
+    }
+
+    @ParameterizedTest(name = "{0}, impatient={1}, {2}")
+    @MethodSource("configurations")
+    void restoredRunMatchesUninterruptedRun(DispatchPolicy policy, boolean impatient,
+                                            ServiceDistribution distribution) {
+        CoffeeShopEngine uninterrupted = newEngine(policy, impatient, distribution);
+        uninterrupted.runToCompletion();
+
+        CoffeeShopEngine original = newEngine(policy, impatient, distribution);
+        original.runUntil(CHECKPOINT_TIME, Integer.MAX_VALUE);
+        SimulationCheckpoint checkpoint = SimulationCheckpoint.capture(original);
+        CoffeeShopEngine restored = checkpoint.restore();
+        assertEquals(CHECKPOINT_TIME, restored.getCurrentTime());
+        restored.runToCompletion();
+        assertSameRun(uninterrupted, restored);
+
+        // The original keeps going undisturbed by the capture.
+        original.runToCompletion();
+        assertSameRun(uninterrupted, original);
+    }
+
+    @ParameterizedTest(name = "{0}, impatient={1}, {2}")
+    @MethodSource("configurations")
+    void checkpointSurvivesAFileRoundTrip(DispatchPolicy policy, boolean impatient,
+                                          ServiceDistribution distribution) throws IOException {
+        CoffeeShopEngine uninterrupted = newEngine(policy, impatient, distribution);
+        uninterrupted.runToCompletion();
+
+        CoffeeShopEngine original = newEngine(policy, impatient, distribution);
+        original.runUntil(CHECKPOINT_TIME, Integer.MAX_VALUE);
+        Path file = directory.resolve("run.bin");
+        SimulationCheckpoint.capture(original).write(file);
+        CoffeeShopEngine restored = SimulationCheckpoint.read(file).restore();
+        restored.runToCompletion();
+        assertSameRun(uninterrupted, restored);
+    }
+
+    // Sending baristas home interrupts services in progress, which puts customers back in
+    // line with fresh patience timers; a restore must replay that identically.
+    @Test
+    void restoredRunMatchesAfterStaffingCut() {
+        CoffeeShopEngine uninterrupted = newEngine(DispatchPolicy.RANDOM, true, ServiceDistribution.exponential());
+        uninterrupted.runUntil(300, Integer.MAX_VALUE);
+        uninterrupted.setNumBaristas(1);
+        uninterrupted.runToCompletion();
+
+        CoffeeShopEngine original = newEngine(DispatchPolicy.RANDOM, true, ServiceDistribution.exponential());
+        original.runUntil(CHECKPOINT_TIME, Integer.MAX_VALUE);
+        CoffeeShopEngine restored = SimulationCheckpoint.capture(original).restore();
+        restored.runUntil(300, Integer.MAX_VALUE);
+        restored.setNumBaristas(1);
+        restored.runToCompletion();
+        assertSameRun(uninterrupted, restored);
+    }
+
+    @Test
+    void rejectsImagesThatAreNotCheckpoints() throws IOException {
+        Path file = directory.resolve("garbage.bin");
+        Files.write(file, new byte[64]);
+        assertThrows(IllegalArgumentException.class, () -> SimulationCheckpoint.read(file));
+    }
+
+    private static CoffeeShopEngine newEngine(DispatchPolicy policy, boolean impatient,
+                                              ServiceDistribution distribution) {
+        CoffeeShopEngine engine = new CoffeeShopEngine(17);
+        engine.setArrivalRate(2.7);
+        engine.setServiceRate(1.0);
+        engine.setNumBaristas(3);
+        engine.setSimulationDuration(480);
+        engine.setDispatchPolicy(policy);
+        engine.setServiceDistribution(distribution);
+        if (impatient) {
+            engine.setBalkQueueLength(8);
+            engine.setMeanPatience(4);
+        }
+        return engine;
+    }
+
+    private static void assertSameRun(CoffeeShopEngine expected, CoffeeShopEngine actual) {
+        assertEquals(expected.getCurrentTime(), actual.getCurrentTime());
+        assertEquals(expected.getCustomerCount(), actual.getCustomerCount());
+        assertEquals(expected.getServedCount(), actual.getServedCount());
+        assertEquals(expected.getBalkedCount(), actual.getBalkedCount());
+        assertEquals(expected.getRenegedCount(), actual.getRenegedCount());
+        assertEquals(expected.getQueueLength(), actual.getQueueLength());
+        assertEquals(expected.getMaxQueueLength(), actual.getMaxQueueLength());
+        assertEquals(expected.getAverageWaitTime(), actual.getAverageWaitTime());
+        assertEquals(expected.getAverageQueueLength(), actual.getAverageQueueLength());
+        assertEquals(expected.getAverageUtilization(), actual.getAverageUtilization());
+        assertEquals(expected.getWaitPercentile(0.9), actual.getWaitPercentile(0.9));
+        assertEquals(expected.getStatistics(), actual.getStatistics());
+    }
+}
@@ -0,0 +1,69 @@
+package coffeeshop.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Synthetic wait series with a known warm-up: noise around one level for the first customers,
+// then around another for the rest. MSER-5 should cut at the shift, and the batch-means
+// estimate on what is left should match the second level with a half-width that fits its
+// sampling error.
+class SteadyStateEstimatorTest {
+    private static final int GROUP = SteadyStateEstimator.GROUP_SIZE;
+
+    @Test
+    void truncatesAtTheEndOfTheWarmUp() {
+        SteadyStateEstimator estimator = new SteadyStateEstimator(20);
+        SplittableRandom random = new SplittableRandom(11);
+        feed(estimator, random, 1000, 6); // warm-up: 200 groups
+        feed(estimator, random, 9000, 2);
+
+        // All of the warm-up goes, and little of the steady state with it: MSER may run on a
+        // few groups past the shift where the noise happens to be high.
+        int truncation = estimator.truncationPoint();
+        assertTrue(truncation >= 1000 / GROUP && truncation <= 1000 / GROUP + 50, "truncated at group " + truncation);
+        ConfidenceInterval interval = estimator.estimate(truncation);
+        assertEquals(20, interval.getSampleCount());
+        // The retained waits are uniform on [0, 4], so their mean has a standard error of about
+        // 0.013: the estimate lands within four of those, and the half-width is about two.
+        assertEquals(2, interval.getMean(), 0.05);
+        assertTrue(interval.getHalfWidth() > 0.01 && interval.getHalfWidth() < 0.05, "interval " + interval);
+        assertEquals(10_000, estimator.getCount());
+        assertEquals(1000, estimator.getGroupTime(1000 / GROUP));
+    }
+
+    // A shift in the second half of the data means the run has not settled yet.
+    @Test
+    void reportsAShiftLateInTheRunAsStillWarmingUp() {
+        SteadyStateEstimator estimator = new SteadyStateEstimator(20);
+        SplittableRandom random = new SplittableRandom(12);
+        feed(estimator, random, 3000, 1);
+        feed(estimator, random, 2000, 5);
+        assertEquals(-1, estimator.truncationPoint());
+        assertNull(estimator.estimate(-1));
+    }
+
+    @Test
+    void needsEnoughGroupsToJudge() {
+        SteadyStateEstimator estimator = new SteadyStateEstimator(20);
+        feed(estimator, new SplittableRandom(13), 9 * GROUP + 4, 1);
+        assertEquals(9 * GROUP, estimator.getCount());
+        assertEquals(-1, estimator.truncationPoint());
+        feed(estimator, new SplittableRandom(14), 1, 1);
+        assertEquals(0, estimator.truncationPoint());
+        // Ten groups cannot fill twenty batches.
+        assertNull(estimator.estimate(0));
+    }
+
+    // Customers arrive one per minute with waits uniform on [0, 2 x level].
+    private static void feed(SteadyStateEstimator estimator, SplittableRandom random, int customers, double level) {
+        long start = estimator.getCount();
+        for (int i = 0; i < customers; i++) {
+            estimator.onWait(start + i, random.nextDouble() * 2 * level);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package coffeeshop.simulation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Points held and their maximum, checked against a scan of everything added, while the
+// buffer grows from its initial size, fills and wraps.
+class TimeSeriesBufferTest {
+    @Test
+    void holdsTheNewestPointsAndTheirMaximum() {
+        SplittableRandom random = new SplittableRandom(5);
+        int capacity = 3000; // not a power of two, so growth stops short of a doubling
+        TimeSeriesBuffer buffer = new TimeSeriesBuffer(capacity);
+        double[] ys = new double[20_000];
+        for (int n = 0; n < ys.length; n++) {
+            // Mostly noise, with rare spikes that must stop counting once overwritten.
+            ys[n] = random.nextInt(100) == 0 ? 1000 + random.nextDouble() : random.nextDouble();
+            buffer.add(n, ys[n]);
+
+            int held = Math.min(n + 1, capacity);
+            assertEquals(held, buffer.size());
+            assertEquals(n + 1 > capacity, buffer.hasWrapped());
+            assertEquals(n + 1 - held, buffer.getX(0));
+            assertEquals(n, buffer.getX(held - 1));
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = n + 1 - held; i <= n; i++) {
+                max = Math.max(max, ys[i]);
+            }
+            assertEquals(max, buffer.getMaxY(), "after " + (n + 1) + " points");
+        }
+    }
+
+    @Test
+    void maximumDropsOnceTheSpikeIsOverwritten() {
+        TimeSeriesBuffer buffer = new TimeSeriesBuffer(4);
+        buffer.add(0, 50);
+        buffer.add(1, 2);
+        buffer.add(2, Double.NaN);
+        buffer.add(3, 3);
+        assertEquals(50, buffer.getMaxY());
+        buffer.add(4, 1);
+        assertEquals(3, buffer.getMaxY());
+        buffer.clear();
+        assertEquals(Double.NEGATIVE_INFINITY, buffer.getMaxY());
+        assertFalse(buffer.hasWrapped());
+        buffer.add(5, 7);
+        assertEquals(7, buffer.getMaxY());
+        assertEquals(5, buffer.getX(0));
+    }
+
+    @Test
+    void lowerBoundFindsTheFirstPointAtOrAfterAValue() {
+        TimeSeriesBuffer buffer = new TimeSeriesBuffer(8);
+        for (int x = 0; x < 12; x++) {
+            buffer.add(x / 2, x);
+        }
+        assertTrue(buffer.hasWrapped());
+        assertEquals(0, buffer.lowerBound(0));
+        assertEquals(0, buffer.lowerBound(2));
+        assertEquals(2, buffer.lowerBound(3));
+        assertEquals(6, buffer.lowerBound(5));
+        assertEquals(6, buffer.lowerBound(4.5));
+        assertEquals(8, buffer.lowerBound(6));
+    }
+}
@@ -0,0 +1,166 @@
+package coffeeshop.simulation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The wheel is used the way the engine uses it: timers it hands out, and timers it refuses,
+// wait on an event list until their exact time. Under random adds and cancels, with timers
+// from fractions of a tick to beyond the wheel's range, the timers must fire in exactly the
+// order and at exactly the times they would if every one had gone straight on the event list.
+class TimerWheelTest {
+    private static final int STEPS = 100_000;
+
+    @Test
+    @Timeout(60)
+    void firesInTheSameOrderAsTheEventList() {
+        runAgainstEventList(new SplittableRandom(3), false);
+    }
+
+    // Writing the wheel out and reading it back mid-run keeps every handle and timer.
+    @Test
+    @Timeout(60)
+    void firesInTheSameOrderAcrossSerialization() {
+        runAgainstEventList(new SplittableRandom(4), true);
+    }
+
+    @Test
+    void refusesTimersBeforeTheCurrentTickOrBeyondItsRange() {
+        TimerWheel wheel = new TimerWheel(4);
+        wheel.add(10, 1);
+        assertEquals(1, wheel.advance());
+        assertEquals(10, wheel.getDueTime(0));
+        assertEquals(-1, wheel.add(5, 2));
+        assertEquals(-1, wheel.add(1e7, 3));
+        assertEquals(-1, wheel.add(Double.POSITIVE_INFINITY, 4));
+        assertTrue(wheel.add(10.1, 5) >= 0);
+    }
+
+    @Test
+    void rejectsCancellingATimerTwice() {
+        TimerWheel wheel = new TimerWheel(4);
+        int handle = wheel.add(3, 0);
+        wheel.cancel(handle);
+        assertThrows(IllegalArgumentException.class, () -> wheel.cancel(handle));
+    }
+
+    @Test
+    void remapsPendingEntities() {
+        TimerWheel wheel = new TimerWheel(4);
+        wheel.add(1, 10);
+        wheel.cancel(wheel.add(2, 20));
+        wheel.add(500, 30);
+        wheel.remapEntities(entity -> entity + 1);
+        List<Integer> fired = new ArrayList<>();
+        while (!wheel.isEmpty()) {
+            int count = wheel.advance();
+            for (int i = 0; i < count; i++) {
+                fired.add(wheel.getDueEntity(i));
+            }
+        }
+        assertEquals(List.of(11, 31), fired);
+    }
+
+    private static void runAgainstEventList(SplittableRandom random, boolean serialize) {
+        TimerWheel wheel = new TimerWheel(16);
+        EventList due = new EventList(); // timers out of the wheel, waiting for their exact time
+        EventList reference = new EventList(); // every timer, straight on the list
+        int[] wheelHandles = new int[STEPS]; // by timer; -2 - handle once the timer is on the due list
+        int[] referenceHandles = new int[STEPS];
+        List<Integer> pending = new ArrayList<>();
+        int[] pendingIndex = new int[STEPS];
+        double now = 0;
+
+        for (int timer = 0; timer < STEPS; timer++) {
+            now += random.nextDouble() * 0.2;
+            fireUntil(now, wheel, due, reference, wheelHandles, pending, pendingIndex);
+
+            double time = now + delay(random);
+            int handle = wheel.add(time, timer);
+            wheelHandles[timer] = handle >= 0 ? handle : -2 - due.add(time, 0, timer);
+            referenceHandles[timer] = reference.add(time, 0, timer);
+            pendingIndex[timer] = pending.size();
+            pending.add(timer);
+
+            // Most timers are cancelled, as most customers are served before they give up.
+            if (!pending.isEmpty() && random.nextInt(10) < 7) {
+                int victim = pending.get(random.nextInt(pending.size()));
+                removePending(victim, pending, pendingIndex);
+                if (wheelHandles[victim] >= 0) {
+                    wheel.cancel(wheelHandles[victim]);
+                } else {
+                    due.cancel(-2 - wheelHandles[victim]);
+                }
+                reference.cancel(referenceHandles[victim]);
+            }
+            assertEquals(reference.size(), wheel.size() + due.size());
+
+            if (serialize && timer % 10_000 == 5_000) {
+                ByteBuffer buffer = ByteBuffer.allocate(wheel.serializedSize());
+                wheel.writeTo(buffer);
+                assertEquals(0, buffer.remaining());
+                buffer.flip();
+                wheel = TimerWheel.readFrom(buffer);
+            }
+        }
+        fireUntil(Double.POSITIVE_INFINITY, wheel, due, reference, wheelHandles, pending, pendingIndex);
+        assertTrue(reference.isEmpty());
+        assertTrue(wheel.isEmpty());
+    }
+
+    // Mostly minutes, some within one tick, some hours or days out, and a few beyond the
+    // wheel's two-year range.
+    private static double delay(SplittableRandom random) {
+        switch (random.nextInt(10)) {
+            case 0:
+                return random.nextDouble() / 16;
+            case 1:
+                return random.nextDouble() * 3000;
+            case 2:
+                return random.nextInt(50) == 0 ? 2e6 + random.nextDouble() * 1e6 : random.nextDouble() * 60;
+            default:
+                return -Math.log(1 - random.nextDouble()) * 5;
+        }
+    }
+
+    private static void fireUntil(double time, TimerWheel wheel, EventList due, EventList reference,
+                                  int[] wheelHandles, List<Integer> pending, int[] pendingIndex) {
+        while (true) {
+            while (!wheel.isEmpty() && wheel.nextExpiryBound() <= time) {
+                double bound = wheel.nextExpiryBound();
+                int count = wheel.advance();
+                for (int i = 0; i < count; i++) {
+                    assertTrue(wheel.getDueTime(i) >= bound, "Timer handed out before its bucket");
+                    wheelHandles[wheel.getDueEntity(i)] = -2 - due.add(wheel.getDueTime(i), 0, wheel.getDueEntity(i));
+                }
+            }
+            if (reference.isEmpty() || reference.peekTime() > time) {
+                assertTrue(due.isEmpty() || due.peekTime() > time, "Wheel fired a timer the list did not");
+                return;
+            }
+            reference.poll();
+            assertTrue(!due.isEmpty(), "Timer still in the wheel when it was due");
+            due.poll();
+            assertEquals(reference.getPolledTime(), due.getPolledTime());
+            assertEquals(reference.getPolledEntity(), due.getPolledEntity());
+            removePending(due.getPolledEntity(), pending, pendingIndex);
+        }
+    }
+
+    private static void removePending(int timer, List<Integer> pending, int[] pendingIndex) {
+        int index = pendingIndex[timer];
+        int last = pending.remove(pending.size() - 1);
+        if (last != timer) {
+            pending.set(index, last);
+            pendingIndex[last] = index;
+        }
+    }
+}
@@ -0,0 +1,504 @@
+package coffeeshop.simulation;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.Slider;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import jdk.jfr.FlightRecorder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+
+public class CoffeeShopSim extends Application implements SimulationListener {
+    private static final int MAX_BARISTAS = 200;
+    private static final int SWEEP_MAX_BARISTAS = 5;
+    private static final int STEADY_STATE_BATCHES = 20;
+    private static final long FIRST_STEADY_STATE_CHECK = 500; // customers
+
+    // The engine is confined to the simulation thread; the FX thread only sees snapshots.
+    private final CoffeeShopEngine engine = new CoffeeShopEngine();
+    private final SnapshotPublisher publisher = new SnapshotPublisher();
+    private final ScheduledExecutorService simulationExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "simulation");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final PacingScheduler pacer = new PacingScheduler(engine, simulationExecutor,
+            () -> {
+                checkSteadyState();
+                publisher.publish(engine.snapshot());
+            });
+    private SimulationSnapshot shownSnapshot;
+    // Confined to the simulation thread, and restarted on reset and on every parameter change:
+    // the waits before either belong to a different steady state.
+    private SteadyStateEstimator steadyState;
+    private long steadyStateChecked; // customers counted at the last check
+    // Batch-means interval on the steady-state wait, or null while the run is still warming up.
+    private volatile ConfidenceInterval steadyStateWait;
+    // Counters and timers about the simulator itself, shown by the diagnostics window.
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final MetricsRegistry.Timer pulseTimer = metrics.timer("ui.pulse");
+    private final MetricsRegistry.Gauge pulseInterval = metrics.gauge("ui.pulseIntervalMillis");
+    private long lastPulse = 0;
+
+    private TimeSeriesChart queueLengthChart;
+    private TimeSeriesChart waitTimeChart;
+    private TimeSeriesChart utilizationChart;
+
+    private Label statusLabel;
+    private Label analyticLabel;
+    private ErlangC analytic;
+    private Stage stage;
+    private boolean isSimulationRunning = false;
+    private EventTraceWriter traceWriter; // confined to the simulation thread
+
+    @Override
+    public void start(Stage primaryStage) {
+        stage = primaryStage;
+        BorderPane root = new BorderPane();
+        VBox mainContent = new VBox(10);
+
+        VBox controlPanel = createControlPanel();
+        mainContent.getChildren().add(controlPanel);
+
+        VBox chartsPanel = createChartsPanel();
+        mainContent.getChildren().add(chartsPanel);
+
+        javafx.scene.control.ScrollPane scrollPane = new javafx.scene.control.ScrollPane();
+        scrollPane.setContent(mainContent);
+        scrollPane.setFitToWidth(true);
+        scrollPane.setPannable(true);
+        scrollPane.setVbarPolicy(javafx.scene.control.ScrollPane.ScrollBarPolicy.ALWAYS);
+        root.setCenter(scrollPane);
+
+        statusLabel = new Label("Press Start to begin the simulation.");
+        root.setBottom(statusLabel);
+
+        Scene scene = new Scene(root, 800, 600);
+        primaryStage.setTitle("Coffee Shop Queue Simulation");
+        primaryStage.setScene(scene);
+        primaryStage.show();
+        primaryStage.setResizable(true);
+
+        engine.setSimulationListener(publisher);
+        simulationExecutor.execute(() -> {
+            engine.setMetrics(metrics);
+            restartSteadyState();
+        });
+        pacer.setMetrics(metrics);
+        publisher.setMetrics(metrics);
+
+        // Pull whatever the simulation thread has published at most once per pulse.
+        AnimationTimer uiPulse = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (lastPulse != 0) {
+                    pulseInterval.set((now - lastPulse) / 1e6);
+                }
+                lastPulse = now;
+                long start = System.nanoTime();
+                refreshFromSimulation();
+                pulseTimer.record(System.nanoTime() - start);
+            }
+        };
+        uiPulse.start();
+
+        primaryStage.setOnCloseRequest(e -> {
+            uiPulse.stop();
+            pacer.shutdown();
+            // Queued tasks still run after shutdown(), so the trace is closed cleanly.
+            simulationExecutor.execute(this::stopTracing);
+            simulationExecutor.shutdown();
+        });
+    }
+
+    private VBox createControlPanel() {
+        VBox panel = new VBox(10);
+        panel.setStyle("-fx-padding: 10;");
+
+        // Arrival rate slider
+        Label arrivalRateLabel = new Label("Arrival Rate (customers/min): " + engine.getArrivalRate());
+        Slider arrivalRateSlider = new Slider(0.1, 2.0, engine.getArrivalRate());
+        arrivalRateSlider.setShowTickMarks(true);
+        arrivalRateSlider.setShowTickLabels(true);
+        arrivalRateSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
+            double arrivalRate = newVal.doubleValue();
+            arrivalRateLabel.setText("Arrival Rate (customers/min): " + String.format("%.2f", arrivalRate));
+            runOnSimulationThread(() -> engine.setArrivalRate(arrivalRate));
+        });
+
+        // Service rate slider
+        Label serviceRateLabel = new Label("Service Rate (customers/min): " + engine.getServiceRate());
+        Slider serviceRateSlider = new Slider(0.5, 3.0, engine.getServiceRate());
+        serviceRateSlider.setShowTickMarks(true);
+        serviceRateSlider.setShowTickLabels(true);
+        serviceRateSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
+            double serviceRate = newVal.doubleValue();
+            serviceRateLabel.setText("Service Rate (customers/min): " + String.format("%.2f", serviceRate));
+            runOnSimulationThread(() -> engine.setServiceRate(serviceRate));
+        });
+
+        // Number of baristas slider
+        Label baristaCountLabel = new Label("Number of Baristas: " + engine.getNumBaristas());
+        Slider baristaCountSlider = new Slider(1, MAX_BARISTAS, engine.getNumBaristas());
+        baristaCountSlider.setShowTickMarks(true);
+        baristaCountSlider.setShowTickLabels(true);
+        baristaCountSlider.setMajorTickUnit(20);
+        baristaCountSlider.setMinorTickCount(3);
+        baristaCountSlider.setBlockIncrement(1);
+        baristaCountSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
+            int numBaristas = newVal.intValue();
+            if (numBaristas == oldVal.intValue()) {
+                return;
+            }
+            baristaCountLabel.setText("Number of Baristas: " + numBaristas);
+            runOnSimulationThread(() -> engine.setNumBaristas(numBaristas));
+        });
+
+        // Which idle barista takes the next customer
+        Label dispatchLabel = new Label("Dispatch Policy:");
+        ComboBox<DispatchPolicy> dispatchBox = new ComboBox<>();
+        dispatchBox.getItems().addAll(DispatchPolicy.values());
+        dispatchBox.setValue(engine.getDispatchPolicy());
+        dispatchBox.valueProperty().addListener((obs, oldVal, newVal) ->
+                runOnSimulationThread(() -> engine.setDispatchPolicy(newVal)));
+        HBox dispatchRow = new HBox(10, dispatchLabel, dispatchBox);
+
+        // Simulation speed slider, logarithmic from 1 to 1000 simulated minutes per second
+        Label speedLabel = new Label(speedText(pacer.getSimMinutesPerSecond()));
+        Slider speedSlider = new Slider(0, 3, Math.log10(pacer.getSimMinutesPerSecond()));
+        speedSlider.setShowTickMarks(true);
+        speedSlider.setMajorTickUnit(1);
+        speedSlider.setMinorTickCount(4);
+        speedSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
+            double simMinutesPerSecond = Math.pow(10, newVal.doubleValue());
+            speedLabel.setText(speedText(simMinutesPerSecond));
+            pacer.setSimMinutesPerSecond(simMinutesPerSecond);
+        });
+
+        // Closed-form M/M/c steady state for the current slider settings, recomputed on every
+        // move; refreshFromSimulation() adds how far the run is from it.
+        analyticLabel = new Label();
+        Runnable updateAnalytic = () -> {
+            analytic = new ErlangC(arrivalRateSlider.getValue(), serviceRateSlider.getValue(),
+                    (int) baristaCountSlider.getValue());
+            analyticLabel.setText(analyticText(publisher.latest()));
+        };
+        arrivalRateSlider.valueProperty().addListener((obs, oldVal, newVal) -> updateAnalytic.run());
+        serviceRateSlider.valueProperty().addListener((obs, oldVal, newVal) -> updateAnalytic.run());
+        baristaCountSlider.valueProperty().addListener((obs, oldVal, newVal) -> updateAnalytic.run());
+        updateAnalytic.run();
+
+        CheckBox maxSpeedBox = new CheckBox("Max speed");
+        maxSpeedBox.selectedProperty().addListener((obs, oldVal, newVal) -> {
+            pacer.setMode(newVal ? PacingMode.MAX_SPEED : PacingMode.REAL_TIME);
+            speedSlider.setDisable(newVal);
+        });
+
+        // Control buttons
+        Button startButton = new Button("Start Simulation");
+        Button resetButton = new Button("Reset Simulation");
+        Button sweepButton = new Button("Run Parameter Sweep");
+        Button whatIfButton = new Button("Compare What-Ifs");
+        Button replayButton = new Button("Replay Trace...");
+        Button diagnosticsButton = new Button("Diagnostics");
+        // A trace has to cover the whole run, so recording can only be switched on before Start.
+        CheckBox recordTraceBox = new CheckBox("Record trace");
+        recordTraceBox.selectedProperty().addListener((obs, oldVal, newVal) -> {
+            if (newVal) {
+                if (!startTracing()) {
+                    recordTraceBox.setSelected(false);
+                }
+            } else {
+                simulationExecutor.execute(this::stopTracing);
+            }
+        });
+
+        startButton.setOnAction(e -> {
+            if (!isSimulationRunning) {
+                recordTraceBox.setDisable(true);
+                startSimulation();
+                startButton.setText("Pause Simulation");
+            } else {
+                pauseSimulation();
+                startButton.setText("Resume Simulation");
+            }
+            isSimulationRunning = !isSimulationRunning;
+        });
+
+        resetButton.setOnAction(e -> {
+            recordTraceBox.setSelected(false);
+            recordTraceBox.setDisable(false);
+            resetSimulation();
+            startButton.setText("Start Simulation");
+            isSimulationRunning = false;
+        });
+
+        // Sweeps the full rate slider ranges: 20 x 20 arrival/service points for 1..5 baristas.
+        sweepButton.setOnAction(e -> new SweepWindow(new ParameterSweep(
+                new ParameterRange(arrivalRateSlider.getMin(), arrivalRateSlider.getMax(), 20),
+                new ParameterRange(serviceRateSlider.getMin(), serviceRateSlider.getMax(), 20),
+                1, SWEEP_MAX_BARISTAS,
+                30, engine.getSimulationDuration())).show());
+
+        whatIfButton.setOnAction(e -> compareWhatIfs());
+        replayButton.setOnAction(e -> openReplay());
+        diagnosticsButton.setOnAction(e -> new DiagnosticsWindow(metrics).show());
+
+        HBox buttonBox = new HBox(10, startButton, resetButton, sweepButton, whatIfButton, replayButton,
+                diagnosticsButton, recordTraceBox);
+
+        panel.getChildren().addAll(
+                arrivalRateLabel, arrivalRateSlider,
+                serviceRateLabel, serviceRateSlider,
+                baristaCountLabel, baristaCountSlider,
+                dispatchRow,
+                speedLabel, speedSlider, maxSpeedBox,
+                analyticLabel,
+                buttonBox
+        );
+        return panel;
+    }
+
+    private VBox createChartsPanel() {
+        VBox panel = new VBox(10);
+        panel.setStyle("-fx-padding: 10;");
+
+        double duration = engine.getSimulationDuration();
+        queueLengthChart = new TimeSeriesChart("Queue Length Over Time", "Time (minutes)", "Queue Length",
+                duration, 10, Color.STEELBLUE);
+        queueLengthChart.setPrefSize(600, 400);
+
+        waitTimeChart = new TimeSeriesChart("Customer Wait Time", "Time (minutes)", "Wait Time (minutes)",
+                duration, 10, Color.DARKORANGE);
+        waitTimeChart.setPrefSize(600, 400);
+
+        utilizationChart = new TimeSeriesChart("Barista Utilization", "Time (minutes)", "Utilization (%)",
+                duration, 100, Color.SEAGREEN);
+        utilizationChart.setPrefSize(600, 400);
+
+        panel.getChildren().addAll(queueLengthChart, waitTimeChart, utilizationChart);
+
+        return panel;
+    }
+
+    private static String speedText(double simMinutesPerSecond) {
+        return String.format("Simulation Speed: %.1f simulated minutes per second", simMinutesPerSecond);
+    }
+
+    private void startSimulation() {
+        pacer.resume();
+    }
+
+    private void pauseSimulation() {
+        pacer.pause();
+    }
+
+    private void resetSimulation() {
+        pauseSimulation();
+        simulationExecutor.execute(() -> {
+            engine.reset();
+            restartSteadyState();
+            publisher.publishReset();
+            publisher.publish(null);
+        });
+    }
+
+    private boolean startTracing() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Record Trace");
+        chooser.setInitialFileName("coffee-shop.trace");
+        File file = chooser.showSaveDialog(stage);
+        if (file == null) {
+            return false;
+        }
+        try {
+            EventTraceWriter writer = new EventTraceWriter(file.toPath());
+            simulationExecutor.execute(() -> {
+                traceWriter = writer;
+                engine.setTraceWriter(writer);
+            });
+            return true;
+        } catch (IOException e) {
+            statusLabel.setText("Could not record trace: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Runs on the simulation thread.
+    private void stopTracing() {
+        if (traceWriter == null) {
+            return;
+        }
+        engine.setTraceWriter(null);
+        try {
+            traceWriter.close();
+        } catch (IOException e) {
+            Platform.runLater(() -> statusLabel.setText("Could not close trace: " + e.getMessage()));
+        }
+        traceWriter = null;
+    }
+
+    // Indexing a large trace takes a moment, so it happens off the FX thread.
+    private void openReplay() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Replay Trace");
+        File file = chooser.showOpenDialog(stage);
+        if (file == null) {
+            return;
+        }
+        statusLabel.setText("Loading trace " + file.getName() + "...");
+        ForkJoinPool.commonPool().execute(() -> {
+            try {
+                TraceReplay replay = new TraceReplay(EventTrace.open(file.toPath()));
+                Platform.runLater(() -> new TraceReplayWindow(replay, file.getName()).show());
+            } catch (IOException | RuntimeException e) {
+                Platform.runLater(() -> statusLabel.setText("Could not replay trace: " + e.getMessage()));
+            }
+        });
+    }
+
+    // Checkpoints the live run where it stands and finishes the day under neighbouring staffing
+    // levels in the background. The live run itself is not touched.
+    private void compareWhatIfs() {
+        simulationExecutor.execute(() -> {
+            SimulationCheckpoint checkpoint = SimulationCheckpoint.capture(engine);
+            int current = engine.getNumBaristas();
+            List<WhatIfBranch> branches = new ArrayList<>();
+            for (int n = Math.max(1, current - 2); n <= Math.min(MAX_BARISTAS, current + 2); n++) {
+                if (n != current) {
+                    branches.add(WhatIfBranch.baristas(n));
+                }
+            }
+            ForkJoinPool.commonPool().execute(() -> {
+                WhatIfReport report = new WhatIfRunner().run(checkpoint, branches);
+                Platform.runLater(() -> showWhatIfs(report));
+            });
+        });
+    }
+
+    private void showWhatIfs(WhatIfReport report) {
+        Label text = new Label(report.toString());
+        text.setFont(Font.font("Monospaced", 12));
+        VBox box = new VBox(text);
+        box.setStyle("-fx-padding: 10;");
+        Stage stage = new Stage();
+        stage.setTitle("What-If Comparison");
+        stage.setScene(new Scene(box));
+        stage.show();
+    }
+
+    // Applies a parameter change on the simulation thread, between event batches.
+    private void runOnSimulationThread(Runnable change) {
+        simulationExecutor.execute(() -> {
+            change.run();
+            restartSteadyState();
+            publisher.publish(engine.snapshot());
+        });
+    }
+
+    // Runs on the simulation thread.
+    private void restartSteadyState() {
+        steadyState = new SteadyStateEstimator(STEADY_STATE_BATCHES);
+        engine.setWaitListener(steadyState);
+        steadyStateChecked = 0;
+        steadyStateWait = null;
+    }
+
+    // Runs on the simulation thread after every frame. MSER-5 is linear in the run length, so
+    // like SteadyStateRunner it is only redone once the run has grown by a quarter.
+    private void checkSteadyState() {
+        long count = steadyState.getCount();
+        if (count < Math.max(FIRST_STEADY_STATE_CHECK, steadyStateChecked + steadyStateChecked / 4)) {
+            return;
+        }
+        steadyStateChecked = count;
+        int truncation = steadyState.truncationPoint();
+        steadyStateWait = truncation < 0 ? null : steadyState.estimate(truncation);
+    }
+
+    private void refreshFromSimulation() {
+        UiPulseEvent event = FlightRecorder.isInitialized() ? new UiPulseEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        int reports = publisher.drainReports(this);
+        queueLengthChart.redraw();
+        waitTimeChart.redraw();
+        utilizationChart.redraw();
+        showLatestSnapshot();
+        if (event != null && event.shouldCommit()) {
+            event.reports = reports;
+            event.commit();
+        }
+    }
+
+    private void showLatestSnapshot() {
+        SimulationSnapshot snapshot = publisher.latest();
+        if (snapshot == null || snapshot == shownSnapshot) {
+            return;
+        }
+        shownSnapshot = snapshot;
+        analyticLabel.setText(analyticText(snapshot));
+        if (snapshot.isFinished()) {
+            statusLabel.setText("Simulation completed. Final statistics: " + snapshot.getStatistics());
+        } else {
+            statusLabel.setText(snapshot.getStatus());
+        }
+    }
+
+    // The simulated average covers the whole run so far, including its empty start and any
+    // slider moves, so convergence is judged by the steady-state estimator instead: MSER-5 must
+    // have found the end of the warm-up since the last change, and the Erlang C mean wait must
+    // lie inside the batch-means interval on what followed it.
+    private String analyticText(SimulationSnapshot snapshot) {
+        String text = "Erlang C steady state: " + analytic;
+        if (snapshot == null || snapshot.getServedCount() == 0 || !analytic.isStable()) {
+            return text;
+        }
+        ConfidenceInterval wait = steadyStateWait;
+        String verdict = wait == null || !analytic.agreesWith(wait) ? "not yet converged"
+                : "converged, steady-state estimate " + wait + " min";
+        return text + String.format("%nSimulated avg wait: %.2f min (%+.1f%% off steady state; %s)",
+                snapshot.getAverageWait(), (snapshot.getAverageWait() / analytic.getMeanWait() - 1) * 100, verdict);
+    }
+
+    // Called on the FX thread while draining the publisher's report buffer.
+    @Override
+    public void onStatisticsReport(double time, int queueLength, double recentAvgWait, double utilization) {
+        if (Double.isNaN(time)) {
+            queueLengthChart.clear();
+            waitTimeChart.clear();
+            utilizationChart.clear();
+            statusLabel.setText("Simulation reset. Press Start to begin.");
+            analyticLabel.setText(analyticText(null));
+            return;
+        }
+        queueLengthChart.add(time, queueLength);
+        if (!Double.isNaN(recentAvgWait)) {
+            waitTimeChart.add(time, recentAvgWait);
+        }
+        utilizationChart.add(time, utilization);
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
@@ -0,0 +1,107 @@
+package coffeeshop.simulation;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Live view of the simulator's own metrics, with a verdict on whether a slow run is held up
+// by the engine or by the UI. Refreshed twice a second from the registry; nothing here
+// touches the engine.
+public class DiagnosticsWindow {
+    private static final long REFRESH_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    // Frame work above this share of the 16 ms frame leaves the engine no headroom.
+    private static final double ENGINE_BOUND_LOAD = 0.7;
+    // Pulses further apart than this, or longer than this, mean the FX thread is saturated.
+    private static final double UI_BOUND_PULSE_MILLIS = 25;
+    private static final double UI_BOUND_PULSE_WORK_MILLIS = 8;
+
+    private final MetricsRegistry metrics;
+    private long lastRefresh = 0;
+    private long lastEvents = 0;
+    private long lastFramesBehind = 0;
+
+    public DiagnosticsWindow(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    public void show() {
+        Label verdictLabel = new Label();
+        Label metricsLabel = new Label();
+        metricsLabel.setFont(Font.font("Monospaced", 12));
+        Button saveButton = new Button("Save JSON...");
+
+        VBox root = new VBox(10, verdictLabel, metricsLabel, saveButton);
+        root.setStyle("-fx-padding: 10;");
+        Stage stage = new Stage();
+        saveButton.setOnAction(e -> saveJson(stage, verdictLabel));
+
+        AnimationTimer timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (now - lastRefresh < REFRESH_NANOS) {
+                    return;
+                }
+                double seconds = lastRefresh == 0 ? 0 : (now - lastRefresh) / 1e9;
+                lastRefresh = now;
+                verdictLabel.setText(verdict(seconds));
+                metricsLabel.setText(metrics.toString());
+            }
+        };
+
+        stage.setTitle("Simulator Diagnostics");
+        stage.setScene(new Scene(root, 640, 520));
+        stage.setOnCloseRequest(e -> timer.stop());
+        stage.show();
+        timer.start();
+    }
+
+    private String verdict(double seconds) {
+        long events = metrics.counter("engine.events").get();
+        long framesBehind = metrics.counter("pacing.framesBehind").get();
+        double eventsPerSecond = seconds == 0 ? 0 : (events - lastEvents) / seconds;
+        boolean fellBehind = framesBehind > lastFramesBehind;
+        lastEvents = events;
+        lastFramesBehind = framesBehind;
+
+        double frameLoad = metrics.gauge("pacing.frameLoad").get();
+        double pulseInterval = metrics.gauge("ui.pulseIntervalMillis").get();
+        double pulseWork = metrics.timer("ui.pulse").getMeanNanos() / 1e6;
+        boolean dropping = metrics.gauge("publisher.reportsDropped").get() > 0;
+
+        String state;
+        if (frameLoad >= ENGINE_BOUND_LOAD || fellBehind) {
+            state = "Engine-bound: the simulation thread is using its whole frame budget.";
+        } else if (pulseInterval > UI_BOUND_PULSE_MILLIS || pulseWork > UI_BOUND_PULSE_WORK_MILLIS || dropping) {
+            state = "UI-bound: the FX thread is not keeping up with the simulation.";
+        } else {
+            state = "Keeping up: neither the engine nor the UI is saturated.";
+        }
+        return String.format("%s%n%.0f events/s wall clock | frame load %.0f%% | UI pulse every %.1f ms, %.2f ms of work",
+                state, eventsPerSecond, frameLoad * 100, pulseInterval, pulseWork);
+    }
+
+    private void saveJson(Stage stage, Label verdictLabel) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Save Metrics");
+        chooser.setInitialFileName("coffee-shop-metrics.json");
+        File file = chooser.showSaveDialog(stage);
+        if (file == null) {
+            return;
+        }
+        try (FileWriter writer = new FileWriter(file)) {
+            metrics.writeJson(writer);
+        } catch (IOException e) {
+            verdictLabel.setText("Could not save metrics: " + e.getMessage());
+        }
+    }
+}
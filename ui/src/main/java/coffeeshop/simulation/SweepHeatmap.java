@@ -0,0 +1,122 @@
+package coffeeshop.simulation;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Arrays;
+
+// Heatmap of mean average wait over the arrivalRate x serviceRate plane for one barista count
+// of a parameter sweep. Cells are filled in as they complete; unfinished cells stay grey.
+public class SweepHeatmap extends Region {
+    private static final double MARGIN_LEFT = 60;
+    private static final double MARGIN_BOTTOM = 40;
+    private static final double MARGIN_TOP = 10;
+    private static final double LEGEND_WIDTH = 70;
+    private static final double MAX_WAIT_SHOWN = 30; // minutes; longer waits saturate
+
+    private final Canvas canvas = new Canvas();
+    private final ParameterSweep sweep;
+    private final double[][][] averageWaits;
+    private int baristaIndex = 0;
+
+    public SweepHeatmap(ParameterSweep sweep) {
+        this.sweep = sweep;
+        averageWaits = new double[sweep.getBaristaSteps()][sweep.getArrivalRates().getSteps()]
+                [sweep.getServiceRates().getSteps()];
+        for (double[][] slice : averageWaits) {
+            for (double[] row : slice) {
+                Arrays.fill(row, Double.NaN);
+            }
+        }
+        getChildren().add(canvas);
+        setPrefSize(600, 450);
+    }
+
+    public void setCell(SweepCell cell) {
+        averageWaits[cell.getBaristaIndex()][cell.getArrivalIndex()][cell.getServiceIndex()] =
+                cell.getReport().getAverageWait().getMean();
+    }
+
+    public void setBaristaIndex(int baristaIndex) {
+        this.baristaIndex = baristaIndex;
+        redraw();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        canvas.setWidth(getWidth());
+        canvas.setHeight(getHeight());
+        redraw();
+    }
+
+    public void redraw() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        gc.clearRect(0, 0, width, height);
+
+        int columns = sweep.getServiceRates().getSteps();
+        int rows = sweep.getArrivalRates().getSteps();
+        double plotWidth = width - MARGIN_LEFT - LEGEND_WIDTH;
+        double plotHeight = height - MARGIN_TOP - MARGIN_BOTTOM;
+        if (plotWidth <= 0 || plotHeight <= 0) {
+            return;
+        }
+        double cellWidth = plotWidth / columns;
+        double cellHeight = plotHeight / rows;
+
+        double[][] slice = averageWaits[baristaIndex];
+        for (int a = 0; a < rows; a++) {
+            for (int s = 0; s < columns; s++) {
+                gc.setFill(color(slice[a][s]));
+                // Arrival rate grows upwards.
+                gc.fillRect(MARGIN_LEFT + s * cellWidth, MARGIN_TOP + (rows - 1 - a) * cellHeight,
+                        Math.ceil(cellWidth), Math.ceil(cellHeight));
+            }
+        }
+
+        gc.setFill(Color.BLACK);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.TOP);
+        gc.fillText(String.format("%.2f", sweep.getServiceRates().getMin()), MARGIN_LEFT, height - MARGIN_BOTTOM + 4);
+        gc.fillText(String.format("%.2f", sweep.getServiceRates().getMax()), MARGIN_LEFT + plotWidth,
+                height - MARGIN_BOTTOM + 4);
+        gc.fillText("Service Rate (customers/min)", MARGIN_LEFT + plotWidth / 2, height - MARGIN_BOTTOM + 20);
+
+        gc.setTextAlign(TextAlignment.RIGHT);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.fillText(String.format("%.2f", sweep.getArrivalRates().getMax()), MARGIN_LEFT - 4, MARGIN_TOP);
+        gc.fillText(String.format("%.2f", sweep.getArrivalRates().getMin()), MARGIN_LEFT - 4, MARGIN_TOP + plotHeight);
+        gc.fillText("Arrival", MARGIN_LEFT - 4, MARGIN_TOP + plotHeight / 2);
+
+        drawLegend(gc, width - LEGEND_WIDTH + 15, plotHeight);
+    }
+
+    private void drawLegend(GraphicsContext gc, double x, double plotHeight) {
+        int steps = 50;
+        double stepHeight = plotHeight / steps;
+        for (int i = 0; i < steps; i++) {
+            double wait = MAX_WAIT_SHOWN * (steps - i) / steps;
+            gc.setFill(color(wait));
+            gc.fillRect(x, MARGIN_TOP + i * stepHeight, 15, Math.ceil(stepHeight));
+        }
+        gc.setFill(Color.BLACK);
+        gc.setTextAlign(TextAlignment.LEFT);
+        gc.fillText(String.format("%.0f+ min", MAX_WAIT_SHOWN), x + 18, MARGIN_TOP + 6);
+        gc.fillText("0 min", x + 18, MARGIN_TOP + plotHeight - 6);
+    }
+
+    // Green for no wait through red for saturated waits, on a square-root scale so short
+    // waits remain distinguishable.
+    private static Color color(double wait) {
+        if (Double.isNaN(wait)) {
+            return Color.LIGHTGRAY;
+        }
+        double fraction = Math.sqrt(Math.min(wait, MAX_WAIT_SHOWN) / MAX_WAIT_SHOWN);
+        return Color.hsb(120 * (1 - fraction), 0.8, 0.9);
+    }
+}
@@ -0,0 +1,93 @@
+package coffeeshop.simulation;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.Slider;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+// Runs a parameter sweep in the background and shows its heatmap filling in as cells finish.
+public class SweepWindow {
+    private final ParameterSweep sweep;
+    private final ConcurrentLinkedQueue<SweepCell> completedCells = new ConcurrentLinkedQueue<>();
+    private final ForkJoinPool pool = new ForkJoinPool();
+    private int cellsShown = 0;
+
+    public SweepWindow(ParameterSweep sweep) {
+        this.sweep = sweep;
+    }
+
+    public void show() {
+        SweepHeatmap heatmap = new SweepHeatmap(sweep);
+        Label progressLabel = new Label();
+
+        Label baristaLabel = new Label("Number of Baristas: " + sweep.getMinBaristas());
+        Slider baristaSlider = new Slider(sweep.getMinBaristas(), sweep.getMaxBaristas(), sweep.getMinBaristas());
+        baristaSlider.setShowTickMarks(true);
+        baristaSlider.setShowTickLabels(true);
+        baristaSlider.setMajorTickUnit(1);
+        baristaSlider.setMinorTickCount(0);
+        baristaSlider.setSnapToTicks(true);
+        baristaSlider.setDisable(sweep.getBaristaSteps() == 1);
+        baristaSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
+            baristaLabel.setText("Number of Baristas: " + newVal.intValue());
+            heatmap.setBaristaIndex(newVal.intValue() - sweep.getMinBaristas());
+        });
+
+        VBox controls = new VBox(10, baristaLabel, baristaSlider, progressLabel);
+        controls.setStyle("-fx-padding: 10;");
+        BorderPane root = new BorderPane(heatmap);
+        root.setTop(controls);
+
+        // Drain finished cells at most once per pulse instead of posting one runLater per cell.
+        AnimationTimer timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                boolean changed = false;
+                SweepCell cell;
+                while ((cell = completedCells.poll()) != null) {
+                    heatmap.setCell(cell);
+                    cellsShown++;
+                    changed = true;
+                }
+                if (changed) {
+                    heatmap.redraw();
+                    progressLabel.setText(String.format("Average wait (minutes): %d of %d cells, %d replications each",
+                            cellsShown, sweep.getCellCount(), sweep.getReplications()));
+                }
+                if (cellsShown == sweep.getCellCount()) {
+                    stop();
+                }
+            }
+        };
+
+        Stage stage = new Stage();
+        stage.setTitle("Parameter Sweep");
+        stage.setScene(new Scene(root, 700, 600));
+        stage.setOnCloseRequest(e -> {
+            timer.stop();
+            pool.shutdownNow();
+        });
+        stage.show();
+
+        timer.start();
+        Thread runner = new Thread(() -> {
+            try {
+                sweep.run(pool, System.nanoTime(), completedCells::add);
+            } catch (CancellationException | RejectedExecutionException e) {
+                // The window was closed mid-sweep and took the pool down with it.
+            } finally {
+                pool.shutdown();
+            }
+        }, "parameter-sweep");
+        runner.setDaemon(true);
+        runner.start();
+    }
+}
@@ -0,0 +1,168 @@
+package coffeeshop.simulation;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+// Line chart drawn straight onto a Canvas from a primitive ring buffer. Instead of one scene
+// graph node per point, each redraw downsamples the series to about one point per horizontal
+// pixel, so drawing cost depends on the chart width rather than on how many points were
+// recorded. The buffer grows with the series up to MAX_POINTS and then keeps the newest.
+// Call redraw() once per pulse; it does nothing unless points were added.
+public class TimeSeriesChart extends Region {
+    private static final int MAX_POINTS = 1 << 20;
+    private static final double MARGIN_LEFT = 55;
+    private static final double MARGIN_RIGHT = 15;
+    private static final double MARGIN_TOP = 30;
+    private static final double MARGIN_BOTTOM = 40;
+    private static final int TICKS = 8;
+
+    private final Canvas canvas = new Canvas();
+    private final TimeSeriesBuffer series;
+    private final String title;
+    private final String xLabel;
+    private final String yLabel;
+    private final double minXRange;
+    private final double minYRange;
+    private final Color lineColor;
+
+    private double[] sampleX = new double[0];
+    private double[] sampleY = new double[0];
+    private boolean dirty = true;
+
+    public TimeSeriesChart(String title, String xLabel, String yLabel, double minXRange, double minYRange,
+                           Color lineColor) {
+        this.title = title;
+        this.xLabel = xLabel;
+        this.yLabel = yLabel;
+        this.minXRange = minXRange;
+        this.minYRange = minYRange;
+        this.lineColor = lineColor;
+        this.series = new TimeSeriesBuffer(MAX_POINTS);
+        getChildren().add(canvas);
+    }
+
+    public void add(double x, double y) {
+        series.add(x, y);
+        dirty = true;
+    }
+
+    public void clear() {
+        series.clear();
+        dirty = true;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        if (canvas.getWidth() != getWidth() || canvas.getHeight() != getHeight()) {
+            canvas.setWidth(getWidth());
+            canvas.setHeight(getHeight());
+            dirty = true;
+        }
+        redraw();
+    }
+
+    public void redraw() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        gc.clearRect(0, 0, width, height);
+        double plotWidth = width - MARGIN_LEFT - MARGIN_RIGHT;
+        double plotHeight = height - MARGIN_TOP - MARGIN_BOTTOM;
+        if (plotWidth <= 0 || plotHeight <= 0) {
+            return;
+        }
+
+        // The axis starts at zero until the oldest points are overwritten, then follows the
+        // oldest point still held.
+        double minX = series.size() == 0 ? 0
+                : series.hasWrapped() ? series.getX(0) : Math.min(0, series.getX(0));
+        double maxX = Math.max(minX + minXRange, series.size() == 0 ? 0 : series.getX(series.size() - 1));
+        double maxY = Math.max(minYRange, niceCeiling(series.getMaxY()));
+
+        drawAxes(gc, plotWidth, plotHeight, minX, maxX, maxY);
+
+        int threshold = (int) Math.max(3, plotWidth);
+        if (sampleX.length < threshold) {
+            sampleX = new double[threshold];
+            sampleY = new double[threshold];
+        }
+        int points = Downsampler.lttb(series, series.lowerBound(minX), series.size(), threshold, sampleX, sampleY);
+        if (points == 0) {
+            return;
+        }
+
+        double scaleX = plotWidth / (maxX - minX);
+        double scaleY = plotHeight / maxY;
+        gc.setStroke(lineColor);
+        gc.setLineWidth(1.5);
+        gc.beginPath();
+        for (int i = 0; i < points; i++) {
+            double px = MARGIN_LEFT + (sampleX[i] - minX) * scaleX;
+            double py = MARGIN_TOP + plotHeight - Math.min(sampleY[i], maxY) * scaleY;
+            if (i == 0) {
+                gc.moveTo(px, py);
+            } else {
+                gc.lineTo(px, py);
+            }
+        }
+        gc.stroke();
+    }
+
+    private void drawAxes(GraphicsContext gc, double plotWidth, double plotHeight, double minX, double maxX,
+                          double maxY) {
+        gc.setStroke(Color.gray(0.85));
+        gc.setLineWidth(1);
+        gc.setFill(Color.BLACK);
+        gc.setFont(Font.font(11));
+
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.TOP);
+        for (int i = 0; i <= TICKS; i++) {
+            double px = MARGIN_LEFT + plotWidth * i / TICKS;
+            gc.strokeLine(px, MARGIN_TOP, px, MARGIN_TOP + plotHeight);
+            gc.fillText(format(minX + (maxX - minX) * i / TICKS), px, MARGIN_TOP + plotHeight + 4);
+        }
+        gc.fillText(xLabel, MARGIN_LEFT + plotWidth / 2, MARGIN_TOP + plotHeight + 20);
+
+        gc.setTextAlign(TextAlignment.RIGHT);
+        gc.setTextBaseline(VPos.CENTER);
+        for (int i = 0; i <= TICKS; i++) {
+            double py = MARGIN_TOP + plotHeight - plotHeight * i / TICKS;
+            gc.strokeLine(MARGIN_LEFT, py, MARGIN_LEFT + plotWidth, py);
+            gc.fillText(format(maxY * i / TICKS), MARGIN_LEFT - 4, py);
+        }
+
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.TOP);
+        gc.setFont(Font.font(14));
+        gc.fillText(title + " (" + yLabel + ")", MARGIN_LEFT + plotWidth / 2, 6);
+
+        gc.setStroke(Color.BLACK);
+        gc.strokeRect(MARGIN_LEFT, MARGIN_TOP, plotWidth, plotHeight);
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format("%.1f", value);
+    }
+
+    // Rounds up to 1, 2 or 5 times a power of ten so axis ticks land on readable values.
+    private static double niceCeiling(double value) {
+        if (!(value > 0)) {
+            return 0;
+        }
+        double magnitude = Math.pow(10, Math.floor(Math.log10(value)));
+        double fraction = value / magnitude;
+        double nice = fraction <= 1 ? 1 : fraction <= 2 ? 2 : fraction <= 5 ? 5 : 10;
+        return nice * magnitude;
+    }
+}
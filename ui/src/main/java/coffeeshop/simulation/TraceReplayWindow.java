@@ -0,0 +1,161 @@
+package coffeeshop.simulation;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Slider;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+
+// Plays a recorded trace through the same charts and status bar as a live run, at any speed
+// and with a time slider to scrub back and forth. Nothing is simulated: the replay's keyframes
+// already hold every chart point and snapshot.
+public class TraceReplayWindow implements SimulationListener {
+    private final TraceReplay replay;
+    private final String title;
+
+    private TimeSeriesChart queueLengthChart;
+    private TimeSeriesChart waitTimeChart;
+    private TimeSeriesChart utilizationChart;
+    private Label statusLabel;
+    private Slider timeSlider;
+
+    private double position = 0;
+    private double simMinutesPerSecond = 20;
+    private boolean playing = false;
+    private boolean movingSlider = false;
+    private int framesShown = 0;
+    private long lastFrameNanos = 0;
+
+    public TraceReplayWindow(TraceReplay replay, String title) {
+        this.replay = replay;
+        this.title = title;
+    }
+
+    public void show() {
+        double endTime = replay.getEndTime();
+        queueLengthChart = new TimeSeriesChart("Queue Length Over Time", "Time (minutes)", "Queue Length",
+                endTime, 10, Color.STEELBLUE);
+        queueLengthChart.setPrefSize(600, 400);
+        waitTimeChart = new TimeSeriesChart("Customer Wait Time", "Time (minutes)", "Wait Time (minutes)",
+                endTime, 10, Color.DARKORANGE);
+        waitTimeChart.setPrefSize(600, 400);
+        utilizationChart = new TimeSeriesChart("Barista Utilization", "Time (minutes)", "Utilization (%)",
+                endTime, 100, Color.SEAGREEN);
+        utilizationChart.setPrefSize(600, 400);
+
+        timeSlider = new Slider(0, endTime, 0);
+        timeSlider.setShowTickMarks(true);
+        timeSlider.setShowTickLabels(true);
+        timeSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
+            if (!movingSlider) {
+                showAt(newVal.doubleValue());
+            }
+        });
+
+        Label speedLabel = new Label(speedText(simMinutesPerSecond));
+        Slider speedSlider = new Slider(0, 3, Math.log10(simMinutesPerSecond));
+        speedSlider.setShowTickMarks(true);
+        speedSlider.setMajorTickUnit(1);
+        speedSlider.setMinorTickCount(4);
+        speedSlider.valueProperty().addListener((obs, oldVal, newVal) -> {
+            simMinutesPerSecond = Math.pow(10, newVal.doubleValue());
+            speedLabel.setText(speedText(simMinutesPerSecond));
+        });
+
+        Button playButton = new Button("Play");
+        playButton.setOnAction(e -> {
+            if (!playing && position >= endTime) {
+                showAt(0);
+            }
+            playing = !playing;
+            lastFrameNanos = 0;
+            playButton.setText(playing ? "Pause" : "Play");
+        });
+
+        Label traceLabel = new Label(String.format("%s: %d events, %.0f simulated minutes",
+                title, replay.getRecordCount(), endTime));
+        VBox controls = new VBox(10, traceLabel, timeSlider, speedLabel, speedSlider, playButton);
+        controls.setStyle("-fx-padding: 10;");
+        VBox charts = new VBox(10, queueLengthChart, waitTimeChart, utilizationChart);
+        charts.setStyle("-fx-padding: 10;");
+
+        ScrollPane scrollPane = new ScrollPane(new VBox(10, controls, charts));
+        scrollPane.setFitToWidth(true);
+        statusLabel = new Label();
+        BorderPane root = new BorderPane(scrollPane);
+        root.setBottom(statusLabel);
+
+        AnimationTimer timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (playing) {
+                    if (lastFrameNanos != 0) {
+                        double target = Math.min(position + (now - lastFrameNanos) / 1e9 * simMinutesPerSecond, endTime);
+                        movingSlider = true;
+                        timeSlider.setValue(target);
+                        movingSlider = false;
+                        showAt(target);
+                        if (target >= endTime) {
+                            playing = false;
+                            playButton.setText("Play");
+                        }
+                    }
+                    lastFrameNanos = now;
+                }
+                queueLengthChart.redraw();
+                waitTimeChart.redraw();
+                utilizationChart.redraw();
+            }
+        };
+
+        Stage stage = new Stage();
+        stage.setTitle("Trace Replay");
+        stage.setScene(new Scene(root, 800, 600));
+        stage.setOnCloseRequest(e -> timer.stop());
+        stage.show();
+        showAt(0);
+        timer.start();
+    }
+
+    // Scrubbing backwards rebuilds the series from the first keyframe; that is only as many
+    // points as there were statistics reports, so it is cheap.
+    private void showAt(double time) {
+        position = time;
+        int frames = replay.frameAt(time) + 1;
+        if (frames < framesShown) {
+            queueLengthChart.clear();
+            waitTimeChart.clear();
+            utilizationChart.clear();
+            framesShown = 0;
+        }
+        replay.replay(framesShown, frames, this);
+        framesShown = frames;
+
+        SimulationSnapshot snapshot = replay.snapshotAt(time);
+        if (snapshot == null) {
+            statusLabel.setText("Press Play or drag the time slider to replay the trace.");
+        } else if (snapshot.isFinished()) {
+            statusLabel.setText("Simulation completed. Final statistics: " + snapshot.getStatistics());
+        } else {
+            statusLabel.setText(snapshot.getStatus());
+        }
+    }
+
+    @Override
+    public void onStatisticsReport(double time, int queueLength, double recentAvgWait, double utilization) {
+        queueLengthChart.add(time, queueLength);
+        if (!Double.isNaN(recentAvgWait)) {
+            waitTimeChart.add(time, recentAvgWait);
+        }
+        utilizationChart.add(time, utilization);
+    }
+
+    private static String speedText(double simMinutesPerSecond) {
+        return String.format("Replay Speed: %.1f simulated minutes per second", simMinutesPerSecond);
+    }
+}
@@ -0,0 +1,19 @@
+package coffeeshop.simulation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// One UI pulse: draining reports, redrawing the charts and updating the labels. Long pulses,
+// or long gaps between them, mean the run is UI-bound.
+@Name("coffeeshop.UiPulse")
+@Label("UI Pulse")
+@Category({"Coffee Shop", "UI"})
+@Description("Work done on the FX thread to show the latest simulation state")
+@StackTrace(false)
+final class UiPulseEvent extends jdk.jfr.Event {
+    @Label("Reports")
+    int reports;
+}